@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.benchmark;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Level.Trial;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+import io.appulse.encon.connection.control.CachedControlMessage;
+import io.appulse.encon.connection.control.Send;
+import io.appulse.encon.connection.control.SendToRegisteredProcess;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the control messages' encoding paths: the old one via the intermediate
+ * {@link io.appulse.encon.terms.type.ErlangTuple}, the direct writing and the cached bytes.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 10)
+@BenchmarkMode(Throughput)
+@Measurement(iterations = 20)
+public class Encon_ControlMessageBenchmarks {
+
+  @Benchmark
+  public ByteBuf sendViaTuple (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.send.toTuple().writeTo(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf sendDirect (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.send.writeTo(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf sendCached (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.cachedSend.writeTo(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf regSendViaTuple (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.regSend.toTuple().writeTo(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf regSendDirect (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.regSend.writeTo(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf regSendCached (ControlMessageState state) {
+    ByteBuf buffer = state.buffer.clear();
+    state.cachedRegSend.writeTo(buffer);
+    return buffer;
+  }
+
+  @State(Thread)
+  public static class ControlMessageState {
+
+    ByteBuf buffer;
+
+    Send send;
+
+    CachedControlMessage cachedSend;
+
+    SendToRegisteredProcess regSend;
+
+    CachedControlMessage cachedRegSend;
+
+    @Setup(Trial)
+    public void setup () {
+      buffer = Unpooled.directBuffer(256);
+
+      ErlangPid from = ErlangPid.builder()
+          .node("from@localhost")
+          .id(1)
+          .build();
+
+      ErlangPid to = ErlangPid.builder()
+          .node("to@localhost")
+          .id(2)
+          .build();
+
+      send = new Send(to);
+      cachedSend = send.cached();
+
+      regSend = new SendToRegisteredProcess(from, atom("my_process"));
+      cachedRegSend = regSend.cached();
+    }
+
+    @TearDown(Trial)
+    public void tearDown () {
+      buffer.release();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.benchmark;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.binary;
+import static io.appulse.encon.terms.Erlang.list;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.string;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Level.Trial;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+import java.util.LinkedHashMap;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangMap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the terms' decoding: a not 8-bit string, which is a list of small integers,
+ * a list of tuples and a map.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 10)
+@BenchmarkMode(Throughput)
+@Measurement(iterations = 20)
+public class Encon_DecodeBenchmarks {
+
+  @Benchmark
+  public ErlangTerm unicodeString (DecodeState state) {
+    return ErlangTerm.newInstance(state.unicodeString.readerIndex(0));
+  }
+
+  @Benchmark
+  public ErlangTerm listOfTuples (DecodeState state) {
+    return ErlangTerm.newInstance(state.listOfTuples.readerIndex(0));
+  }
+
+  @Benchmark
+  public ErlangTerm map (DecodeState state) {
+    return ErlangTerm.newInstance(state.map.readerIndex(0));
+  }
+
+  @State(Thread)
+  public static class DecodeState {
+
+    ByteBuf unicodeString;
+
+    ByteBuf listOfTuples;
+
+    ByteBuf map;
+
+    @Setup(Trial)
+    public void setup () {
+      unicodeString = encode(string("Съешь же ещё этих мягких французских булок, да выпей чаю"));
+
+      ErlangTerm[] tuples = new ErlangTerm[32];
+      for (int index = 0; index < tuples.length; index++) {
+        tuples[index] = tuple(atom("item"), number(index), binary(new byte[] { 1, 2, 3 }));
+      }
+      listOfTuples = encode(list(tuples));
+
+      LinkedHashMap<ErlangTerm, ErlangTerm> entries = new LinkedHashMap<>();
+      for (int index = 0; index < 16; index++) {
+        entries.put(atom("key_" + index), number(index * 1_000));
+      }
+      map = encode(new ErlangMap(entries));
+    }
+
+    @TearDown(Trial)
+    public void tearDown () {
+      unicodeString.release();
+      listOfTuples.release();
+      map.release();
+    }
+
+    private static ByteBuf encode (ErlangTerm term) {
+      ByteBuf buffer = Unpooled.directBuffer(1024);
+      term.writeTo(buffer);
+      return buffer;
+    }
+  }
+}
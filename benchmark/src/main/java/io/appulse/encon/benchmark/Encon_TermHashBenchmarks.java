@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.benchmark;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.bstring;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Level.Trial;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangAtom;
+import io.appulse.encon.terms.type.ErlangMap;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the hash-based lookups by the terms: the pids in a mailboxes-like table,
+ * the composite tuple keys and the atom keys of an {@link ErlangMap}.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 10)
+@BenchmarkMode(Throughput)
+@Measurement(iterations = 20)
+public class Encon_TermHashBenchmarks {
+
+  private static final int SIZE = 1024;
+
+  @Benchmark
+  public Object pidLookup (TermHashState state) {
+    return state.pids.get(state.pidKeys[state.next()]);
+  }
+
+  @Benchmark
+  public Object tupleLookup (TermHashState state) {
+    return state.tuples.get(state.tupleKeys[state.next()]);
+  }
+
+  @Benchmark
+  public ErlangTerm erlangMapLookup (TermHashState state) {
+    return state.map.getUnsafe(state.atomKeys[state.next() % state.atomKeys.length]);
+  }
+
+  @State(Thread)
+  public static class TermHashState {
+
+    Map<ErlangPid, Integer> pids;
+
+    ErlangPid[] pidKeys;
+
+    Map<ErlangTerm, Integer> tuples;
+
+    ErlangTerm[] tupleKeys;
+
+    ErlangMap map;
+
+    ErlangAtom[] atomKeys;
+
+    int index;
+
+    @Setup(Trial)
+    public void setup () {
+      pids = new HashMap<>();
+      pidKeys = new ErlangPid[SIZE];
+      tuples = new HashMap<>();
+      tupleKeys = new ErlangTerm[SIZE];
+      for (int id = 0; id < SIZE; id++) {
+        pidKeys[id] = ErlangPid.builder()
+            .node("node@localhost")
+            .id(id)
+            .build();
+        pids.put(pidKeys[id], id);
+
+        tupleKeys[id] = tuple(atom("session"), number(id), bstring("user-" + id));
+        tuples.put(tupleKeys[id], id);
+      }
+
+      LinkedHashMap<ErlangTerm, ErlangTerm> entries = new LinkedHashMap<>();
+      atomKeys = new ErlangAtom[32];
+      for (int key = 0; key < atomKeys.length; key++) {
+        atomKeys[key] = atom("field_" + key);
+        entries.put(atomKeys[key], number(key));
+      }
+      map = new ErlangMap(entries);
+    }
+
+    int next () {
+      index = (index + 1) & (SIZE - 1);
+      return index;
+    }
+  }
+}
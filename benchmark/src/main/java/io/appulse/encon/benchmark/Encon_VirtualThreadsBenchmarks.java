@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.benchmark;
+
+import static io.appulse.encon.terms.Erlang.binary;
+import static java.lang.Boolean.TRUE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Level.Trial;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.Nodes;
+import io.appulse.encon.config.NodeConfig;
+import io.appulse.encon.config.ServerConfig;
+import io.appulse.encon.handler.mailbox.DefaultMailboxHandler;
+import io.appulse.encon.handler.mailbox.MailboxHandler;
+import io.appulse.encon.handler.mailbox.VirtualThreads;
+import io.appulse.encon.mailbox.Mailbox;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A lot of mostly idle mailboxes, each one has its own handler, which is blocked in receive.
+ * Requires Java 21+ for running.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 10)
+@BenchmarkMode(Throughput)
+@Measurement(iterations = 20)
+public class Encon_VirtualThreadsBenchmarks {
+
+  @Benchmark
+  public void randomWaitingMailboxAndBack (WaitingMailboxesState state, Blackhole blackHole) {
+    int index = ThreadLocalRandom.current().nextInt(state.pids.length);
+    state.client.send(state.pids[index], state.data);
+    blackHole.consume(state.client.receive());
+  }
+
+  @State(Benchmark)
+  public static class WaitingMailboxesState {
+
+    @Param("100000")
+    int mailboxes;
+
+    Node node;
+
+    Mailbox client;
+
+    ErlangPid[] pids;
+
+    MailboxHandler[] handlers;
+
+    ErlangTerm data;
+
+    @Setup(Trial)
+    public void setup () throws Exception {
+      if (!VirtualThreads.isSupported()) {
+        throw new IllegalStateException("Virtual threads are not supported by the current JVM");
+      }
+
+      NodeConfig config = NodeConfig.builder()
+          .shortName(TRUE)
+          .server(ServerConfig.builder()
+              .bossThreads(1)
+              .workerThreads(1)
+              .build()
+          )
+          .build();
+
+      node = Nodes.singleNode("node-" + System.nanoTime(), config);
+
+      client = node.mailbox().build();
+      ErlangPid clientPid = client.getPid();
+
+      pids = new ErlangPid[mailboxes];
+      handlers = new MailboxHandler[mailboxes];
+      for (int index = 0; index < mailboxes; index++) {
+        Mailbox mailbox = node.mailbox().build();
+        pids[index] = mailbox.getPid();
+
+        handlers[index] = DefaultMailboxHandler.builder()
+            .mailbox(mailbox)
+            .messageHandler((self, header, body) -> self.send(clientPid, body))
+            .virtualThreads(true)
+            .build();
+        handlers[index].startExecutor();
+      }
+
+      data = binary(new byte[] { 1, 2, 3, 4, 5 });
+    }
+
+    @TearDown(Trial)
+    public void tearDown () {
+      for (MailboxHandler handler : handlers) {
+        handler.close();
+      }
+      client.close();
+
+      node.close();
+    }
+  }
+}
@@ -20,10 +20,10 @@ import static io.appulse.encon.databind.deserializer.Deserializer.findInPredefin
 import static lombok.AccessLevel.PRIVATE;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangMap;
 
 import lombok.Builder;
 import lombok.NonNull;
@@ -58,17 +58,14 @@ public class FieldDeserializerMap implements Deserializer<Map<?, ?>> {
   @Override
   public Map<?, ?> deserialize (@NonNull ErlangTerm term) {
     Map<Object, Object> result = new HashMap<>(term.size());
+    if (!term.isMap()) {
+      return result;
+    }
 
-    Iterator<Map.Entry<ErlangTerm, ErlangTerm>> iterator = term.fields();
-    while (iterator.hasNext()) {
-      Map.Entry<ErlangTerm, ErlangTerm> entry = iterator.next();
-
-      ErlangTerm keyTerm = entry.getKey();
-      Object key = keyDeserializer.deserialize(keyTerm);
-
-      ErlangTerm valueTerm = entry.getValue();
-      Object value = valueDeserializer.deserialize(valueTerm);
-
+    ErlangMap.Cursor cursor = term.asMap().cursor();
+    while (cursor.next()) {
+      Object key = keyDeserializer.deserialize(cursor.getKey());
+      Object value = valueDeserializer.deserialize(cursor.getValue());
       result.put(key, value);
     }
     return result;
@@ -28,7 +28,6 @@ import io.appulse.utils.threads.AppulseExecutors;
 import io.appulse.utils.threads.AppulseThreadFactory;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
@@ -42,7 +41,6 @@ import lombok.val;
  * @author alabazin
  */
 @Slf4j
-@RequiredArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public abstract class AbstractMailboxHandler implements MailboxHandler {
 
@@ -52,9 +50,45 @@ public abstract class AbstractMailboxHandler implements MailboxHandler {
   @NonNull
   Mailbox self;
 
+  boolean virtualThreads;
+
   @NonFinal
   ExecutorService executorService;
 
+  @NonFinal
+  Thread worker;
+
+  /**
+   * Constructor.
+   *
+   * @param messageHandler received messages handler
+   *
+   * @param self handled mailbox
+   */
+  public AbstractMailboxHandler (MessageHandler messageHandler, Mailbox self) {
+    this(messageHandler, self, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param messageHandler received messages handler
+   *
+   * @param self handled mailbox
+   *
+   * @param virtualThreads if {@code true}, {@link #startExecutor} runs the handling loop in
+   *                       a virtual thread (when the JVM supports it) instead of a dedicated
+   *                       platform thread executor
+   */
+  public AbstractMailboxHandler (@NonNull MessageHandler messageHandler,
+                                 @NonNull Mailbox self,
+                                 boolean virtualThreads
+  ) {
+    this.messageHandler = messageHandler;
+    this.self = self;
+    this.virtualThreads = virtualThreads;
+  }
+
   @Override
   public void oneTimeShot () {
     Message message;
@@ -77,8 +111,15 @@ public abstract class AbstractMailboxHandler implements MailboxHandler {
 
   @Override
   public void startExecutor () {
-    if (executorService != null) {
+    if (executorService != null || worker != null) {
+      return;
+    }
+
+    if (virtualThreads && VirtualThreads.isSupported()) {
+      worker = VirtualThreads.start(createThreadName(), this::loop);
       return;
+    } else if (virtualThreads) {
+      log.warn("Virtual threads are not supported by the current JVM, a platform thread is used instead");
     }
 
     executorService = AppulseExecutors.newSingleThreadExecutor()
@@ -87,15 +128,15 @@ public abstract class AbstractMailboxHandler implements MailboxHandler {
             .build())
         .build();
 
-    executorService.execute(() -> {
-      while (!Thread.interrupted()) {
-        oneTimeShot();
-      }
-    });
+    executorService.execute(this::loop);
   }
 
   @Override
   public void close () {
+    if (worker != null) {
+      worker.interrupt();
+      return;
+    }
     if (executorService == null) {
       return;
     }
@@ -109,6 +150,12 @@ public abstract class AbstractMailboxHandler implements MailboxHandler {
    */
   protected abstract Message getMessage ();
 
+  private void loop () {
+    while (!Thread.interrupted()) {
+      oneTimeShot();
+    }
+  }
+
   private String createThreadName () {
     StringBuilder builder = new StringBuilder()
         .append(self.getPid().toString());
@@ -43,11 +43,25 @@ public class DefaultMailboxHandler extends AbstractMailboxHandler {
    *
    * @param mailbox mailbox
    */
+  public DefaultMailboxHandler (MessageHandler messageHandler, Mailbox mailbox) {
+    this(messageHandler, mailbox, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param messageHandler received messages handler
+   *
+   * @param mailbox mailbox
+   *
+   * @param virtualThreads if {@code true}, the handling loop is executed in a virtual thread
+   */
   @Builder
   public DefaultMailboxHandler (MessageHandler messageHandler,
-                                Mailbox mailbox
+                                Mailbox mailbox,
+                                boolean virtualThreads
   ) {
-    super(messageHandler, mailbox);
+    super(messageHandler, mailbox, virtualThreads);
     this.mailbox = mailbox;
   }
 
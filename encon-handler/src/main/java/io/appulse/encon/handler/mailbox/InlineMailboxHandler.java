@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.handler.mailbox;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.concurrent.TimeUnit;
+
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.handler.message.MessageHandler;
+import io.appulse.encon.mailbox.Mailbox;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link MailboxHandler} implementation, which calls the message handler right in the delivering
+ * thread (a connection's event loop for the remote messages), without any queue and worker thread.
+ * <p>
+ * It is only for the tiny non-blocking handlers, like routing or counters updating.
+ * The handler's calls, which exceed the time budget, are reported to the log.
+ *
+ * @see Mailbox#inline(io.appulse.encon.mailbox.InlineHandler, long, TimeUnit)
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class InlineMailboxHandler implements MailboxHandler {
+
+  private static final long DEFAULT_BUDGET_MICROS = 100;
+
+  MessageHandler messageHandler;
+
+  Mailbox mailbox;
+
+  long budget;
+
+  TimeUnit unit;
+
+  /**
+   * Constructor with the default time budget of 100 microseconds.
+   *
+   * @param messageHandler received messages handler
+   *
+   * @param mailbox mailbox
+   */
+  public InlineMailboxHandler (MessageHandler messageHandler, Mailbox mailbox) {
+    this(messageHandler, mailbox, DEFAULT_BUDGET_MICROS, MICROSECONDS);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param messageHandler received messages handler
+   *
+   * @param mailbox mailbox
+   *
+   * @param budget the handler's time budget for a message
+   *
+   * @param unit the budget's unit
+   */
+  @Builder
+  public InlineMailboxHandler (@NonNull MessageHandler messageHandler,
+                               @NonNull Mailbox mailbox,
+                               long budget,
+                               TimeUnit unit
+  ) {
+    this.messageHandler = messageHandler;
+    this.mailbox = mailbox;
+    this.budget = budget <= 0
+                  ? DEFAULT_BUDGET_MICROS
+                  : budget;
+    this.unit = budget <= 0 || unit == null
+                ? MICROSECONDS
+                : unit;
+  }
+
+  /**
+   * Switches the mailbox to the inline mode. The messages, which were queued before,
+   * are handled first, the mailbox never calls the handler concurrently.
+   */
+  @Override
+  public void startExecutor () {
+    mailbox.inline(this::handle, budget, unit);
+  }
+
+  @Override
+  public void oneTimeShot () {
+    Message message = mailbox.receive(0, MILLISECONDS);
+    if (message == null) {
+      log.debug("There is no queued message in {}", mailbox.getPid());
+      return;
+    }
+    handle(mailbox, message);
+  }
+
+  @Override
+  public void close () {
+    mailbox.removeInline();
+  }
+
+  private void handle (Mailbox self, Message message) {
+    messageHandler.handle(self, message.getHeader(), message.getBody());
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.handler.mailbox;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Virtual threads (Java 21+) accessor.
+ * <p>
+ * The library is compiled against Java 8, so the virtual threads API is looked up reflectively once,
+ * and if it is absent all requests fall back to the ordinary platform threads. Java 19 and 20 have
+ * the API as a preview feature, so the lookup also builds an unstarted virtual thread, which fails
+ * there without {@code --enable-preview}.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+public final class VirtualThreads {
+
+  private static final Method OF_VIRTUAL;
+
+  private static final Method BUILDER_NAME;
+
+  private static final Method BUILDER_START;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderStart = null;
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Method virtual = Thread.class.getMethod("ofVirtual");
+      Method unstarted = builderClass.getMethod("unstarted", Runnable.class);
+      unstarted.invoke(virtual.invoke(null), (Runnable) VirtualThreads::probe);
+
+      ofVirtual = virtual;
+      builderName = builderClass.getMethod("name", String.class);
+      builderStart = builderClass.getMethod("start", Runnable.class);
+    } catch (ClassNotFoundException | NoSuchMethodException ex) {
+      log.debug("Virtual threads are not supported by the current JVM");
+    } catch (InvocationTargetException | IllegalAccessException ex) {
+      // UnsupportedOperationException of the not enabled preview feature
+      log.debug("Virtual threads are not enabled in the current JVM", ex);
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_START = builderStart;
+  }
+
+  /**
+   * Tells if the current JVM is able to start virtual threads.
+   *
+   * @return {@code true} if virtual threads are available
+   */
+  public static boolean isSupported () {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Starts a new named virtual thread, or a platform one if virtual threads are not supported.
+   *
+   * @param name the thread's name
+   *
+   * @param task the thread's task
+   *
+   * @return started thread
+   */
+  @SneakyThrows
+  public static Thread start (@NonNull String name, @NonNull Runnable task) {
+    if (!isSupported()) {
+      Thread thread = new Thread(task, name);
+      thread.start();
+      return thread;
+    }
+
+    Object builder = OF_VIRTUAL.invoke(null);
+    BUILDER_NAME.invoke(builder, name);
+    return (Thread) BUILDER_START.invoke(builder, task);
+  }
+
+  private static void probe () {
+    // the probe thread is never started
+  }
+
+  private VirtualThreads () {
+  }
+}
@@ -57,6 +57,8 @@ class BeanPostProcessorMailboxHandler implements BeanPostProcessor, Ordered {
   @NonNull
   Node defaultNode;
 
+  boolean virtualThreads;
+
   @Override
   public int getOrder () {
     return 300;
@@ -102,6 +104,7 @@ class BeanPostProcessorMailboxHandler implements BeanPostProcessor, Ordered {
       DefaultMailboxHandler.builder()
           .mailbox(mailbox)
           .messageHandler(createMessageHandler(bean, methods))
+          .virtualThreads(virtualThreads)
           .build()
           .startExecutor();
     }
@@ -139,7 +139,7 @@ class EnconAutoConfiguration {
 
   @Bean
   public BeanPostProcessorMailboxHandler beanPostProcessorMailboxHandler (Nodes nodes, Node defaultNode) {
-    return new BeanPostProcessorMailboxHandler(nodes, defaultNode);
+    return new BeanPostProcessorMailboxHandler(nodes, defaultNode, enconProperties.isVirtualThreads());
   }
 
   @Configuration
@@ -55,6 +55,11 @@ public class EnconProperties {
 
   Defaults defaults;
 
+  /**
+   * Run {@link ErlangMailbox} handlers in virtual threads (Java 21+).
+   */
+  boolean virtualThreads;
+
   @NonNull
   Map<String, NodeConfig> nodes = new LinkedHashMap<>();
 
@@ -19,6 +19,7 @@ package io.appulse.encon.terms;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -37,6 +38,8 @@ import io.appulse.encon.terms.type.ErlangString;
 import io.appulse.encon.terms.type.ErlangTuple;
 import io.appulse.utils.SerializationUtils;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.NonNull;
 
 /**
@@ -71,14 +74,14 @@ public final class Erlang {
   }
 
   /**
-   * Creates new {@link ErlangAtom} instance from {@link String}.
+   * Returns the canonical {@link ErlangAtom} instance for {@link String}.
    *
    * @param value atom's value
    *
-   * @return {@link ErlangAtom} new instance
+   * @return {@link ErlangAtom} cached or new instance
    */
   public static ErlangAtom atom (@NonNull String value) {
-    return new ErlangAtom(value);
+    return ErlangAtom.cached(value);
   }
 
   /**
@@ -202,7 +205,34 @@ public final class Erlang {
    */
   public static ErlangBinary binary (@NonNull Serializable value) {
     byte[] bytes = SerializationUtils.serialize(value);
-    return binary(bytes);
+    return new ErlangBinary(Unpooled.wrappedBuffer(bytes));
+  }
+
+  /**
+   * Creates new {@link ErlangBinary} instance, which is a view of the buffer's readable bytes.
+   * The binary takes over the buffer's reference.
+   *
+   * @param value the binary's bytes, they are not copied
+   *
+   * @return {@link ErlangBinary} new instance
+   *
+   * @since 1.6.11
+   */
+  public static ErlangBinary binary (@NonNull ByteBuf value) {
+    return new ErlangBinary(value);
+  }
+
+  /**
+   * Creates new {@link ErlangBinary} instance, which is a view of the buffer's remaining bytes.
+   *
+   * @param value the binary's bytes, they are not copied
+   *
+   * @return {@link ErlangBinary} new instance
+   *
+   * @since 1.6.11
+   */
+  public static ErlangBinary binary (@NonNull ByteBuffer value) {
+    return new ErlangBinary(value);
   }
 
   /**
@@ -271,7 +301,7 @@ public final class Erlang {
    */
   public static ErlangBinary bstring (@NonNull String value, @NonNull Charset charset) {
     byte[] bytes = value.getBytes(charset);
-    return binary(bytes);
+    return new ErlangBinary(Unpooled.wrappedBuffer(bytes));
   }
 
   /**
@@ -18,6 +18,7 @@ package io.appulse.encon.terms;
 
 import static io.appulse.encon.terms.Erlang.NIL;
 import static io.appulse.encon.terms.TermType.UNKNOWN;
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PRIVATE;
 import static lombok.AccessLevel.PROTECTED;
 
@@ -48,7 +49,6 @@ import io.appulse.encon.terms.type.ErlangTuple;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -62,7 +62,6 @@ import lombok.val;
  * @author Artem Labazin
  */
 @Getter
-@EqualsAndHashCode
 @FieldDefaults(level = PRIVATE)
 public abstract class ErlangTerm implements IntegerTerm,
                                             FloatTerm,
@@ -92,6 +91,7 @@ public abstract class ErlangTerm implements IntegerTerm,
 
     switch (type) {
     case SMALL_INTEGER:
+      return (T) ErlangInteger.cached(buffer.readUnsignedByte());
     case INTEGER:
     case SMALL_BIG:
     case LARGE_BIG:
@@ -133,7 +133,7 @@ public abstract class ErlangTerm implements IntegerTerm,
     case SMALL_ATOM_UTF8:
     case ATOM:
     case SMALL_ATOM:
-      return (T) new ErlangAtom(type, buffer);
+      return (T) ErlangAtom.cached(type, buffer);
     default:
       val message = String.format("Unknown term type %s (%d)", type.name(), typeByte);
       throw new ErlangTermDecodeException(message);
@@ -143,6 +143,10 @@ public abstract class ErlangTerm implements IntegerTerm,
   @Setter(PROTECTED)
   TermType type;
 
+  // the lazily computed hash code, zero until the first hashCode call
+  @Getter(NONE)
+  transient int hash;
+
   /**
    * No arguments constructor with default {@link TermType} instance - {@link TermType#UNKNOWN}.
    */
@@ -187,6 +191,73 @@ public abstract class ErlangTerm implements IntegerTerm,
     serialize(buffer);
   }
 
+  /**
+   * Compares the terms by their types. The subclasses compare their own state.
+   *
+   * @param obj the other object
+   *
+   * @return {@code true} if the objects are equal
+   */
+  @Override
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangTerm)) {
+      return false;
+    }
+    return type == ((ErlangTerm) obj).type;
+  }
+
+  /**
+   * Returns the term's hash code. The terms are immutable, so it is computed once,
+   * by {@link #computeHashCode()}, and cached, unless {@link #isHashCodeCacheable()} tells otherwise.
+   *
+   * @return the term's hash code
+   */
+  @Override
+  public final int hashCode () {
+    int result = hash;
+    if (result == 0) {
+      result = computeHashCode();
+      if (isHashCodeCacheable()) {
+        hash = result;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Tells if the term's hash code could be cached. It is not, if the term is a view
+   * of a memory, which is owned by someone else and could be changed.
+   *
+   * @return {@code true} if the hash code is cached
+   */
+  protected boolean isHashCodeCacheable () {
+    return true;
+  }
+
+  /**
+   * Computes the term's hash code, the composite terms use their elements' cached hash codes.
+   *
+   * @return the term's hash code
+   */
+  protected int computeHashCode () {
+    return type.hashCode();
+  }
+
+  /**
+   * Tells if both terms' hash codes are already cached and they differ,
+   * so the terms are not equal for sure.
+   *
+   * @param other the other term
+   *
+   * @return {@code true} if the terms are known to be different
+   */
+  protected final boolean hashCodesDiffer (@NonNull ErlangTerm other) {
+    return hash != 0 && other.hash != 0 && hash != other.hash;
+  }
+
   /**
    * Writes specific state of the implementation, without {@link TermType} information.
    *
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.stream;
+
+/**
+ * The events of the {@link TermReader}.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+public enum TermEvent {
+
+  /**
+   * A tuple's start, the arity is {@link TermReader#getArity()}.
+   */
+  START_TUPLE,
+
+  /**
+   * A tuple's end.
+   */
+  END_TUPLE,
+
+  /**
+   * A list's start, the arity is {@link TermReader#getArity()}.
+   * The list's elements are followed by its tail, which is {@link #NIL} for a proper list.
+   */
+  START_LIST,
+
+  /**
+   * A list's end.
+   */
+  END_LIST,
+
+  /**
+   * A map's start, the arity is {@link TermReader#getArity()}.
+   * The map's content is the key-value pairs, one by one.
+   */
+  START_MAP,
+
+  /**
+   * A map's end.
+   */
+  END_MAP,
+
+  /**
+   * An empty list.
+   */
+  NIL,
+
+  /**
+   * An atom, its bytes are {@link TermReader#getBytes()}.
+   */
+  ATOM,
+
+  /**
+   * An integer, its value is {@link TermReader#getLong()} or {@link TermReader#getBigInteger()}.
+   */
+  INTEGER,
+
+  /**
+   * A float, its value is {@link TermReader#getDouble()}.
+   */
+  FLOAT,
+
+  /**
+   * A list of the small integers in the compact form, its bytes are {@link TermReader#getBytes()}.
+   */
+  STRING,
+
+  /**
+   * A binary, its bytes are {@link TermReader#getBytes()}.
+   */
+  BINARY,
+
+  /**
+   * A bit string, its bytes are {@link TermReader#getBytes()}.
+   */
+  BIT_STRING,
+
+  /**
+   * A pid, it is decoded by {@link TermReader#getTerm()}.
+   */
+  PID,
+
+  /**
+   * A port, it is decoded by {@link TermReader#getTerm()}.
+   */
+  PORT,
+
+  /**
+   * A reference, it is decoded by {@link TermReader#getTerm()}.
+   */
+  REFERENCE,
+
+  /**
+   * A local or an external function, it is decoded by {@link TermReader#getTerm()}.
+   */
+  FUNCTION;
+
+  /**
+   * Tells if the event is a container's start.
+   *
+   * @return {@code true} for {@link #START_TUPLE}, {@link #START_LIST} and {@link #START_MAP}
+   */
+  public boolean isStart () {
+    return this == START_TUPLE || this == START_LIST || this == START_MAP;
+  }
+
+  /**
+   * Tells if the event is a container's end.
+   *
+   * @return {@code true} for {@link #END_TUPLE}, {@link #END_LIST} and {@link #END_MAP}
+   */
+  public boolean isEnd () {
+    return this == END_TUPLE || this == END_LIST || this == END_MAP;
+  }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.stream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.TermType;
+import io.appulse.encon.terms.exception.ErlangTermDecodeException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Pull parser of the terms in the Erlang's external format.
+ * <p>
+ * Unlike {@link ErlangTerm#newInstance(ByteBuf)}, which builds the whole terms' tree, the reader emits
+ * the terms' parts one by one, like the Jackson's {@code JsonParser} does. The scalars' values are read
+ * from the buffer only on demand, and the not needed containers are skipped by {@link #skipChildren()}
+ * without any allocations.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * TermReader reader = TermReader.of(buffer);
+ * if (reader.next() == START_TUPLE && reader.getArity() == 3) {
+ *   reader.next();                  // the tag atom
+ *   String tag = reader.getText();
+ *   reader.next();                  // the large payload
+ *   reader.skipChildren();
+ *   reader.next();                  // the integer
+ *   long id = reader.getLong();
+ * }
+ * }</pre>
+ * <p>
+ * The reader is not thread safe. The slices, which it returns, share the buffer's memory.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE)
+@SuppressWarnings({
+    "PMD.GodClass",
+    "PMD.NullAssignment",
+    "PMD.CyclomaticComplexity",
+    "PMD.AvoidLiteralsInIfCondition"
+})
+public final class TermReader {
+
+  private static final int INITIAL_DEPTH = 8;
+
+  /**
+   * Creates a new reader of the buffer's readable bytes, the reader moves the buffer's reader index.
+   *
+   * @param buffer the terms' buffer
+   *
+   * @return a new reader
+   */
+  public static TermReader of (@NonNull ByteBuf buffer) {
+    return new TermReader(buffer);
+  }
+
+  /**
+   * Creates a new reader of the buffer's remaining bytes, the buffer's position is not changed.
+   *
+   * @param buffer the terms' buffer
+   *
+   * @return a new reader
+   */
+  public static TermReader of (@NonNull ByteBuffer buffer) {
+    return new TermReader(Unpooled.wrappedBuffer(buffer));
+  }
+
+  final ByteBuf buffer;
+
+  // the open containers' end events and the numbers of their not read terms
+  TermEvent[] ends = new TermEvent[INITIAL_DEPTH];
+
+  long[] remaining = new long[INITIAL_DEPTH];
+
+  /**
+   * The number of the open containers.
+   */
+  @Getter
+  int depth;
+
+  /**
+   * The last event, it is {@code null} before the first event and after the last one.
+   */
+  @Getter
+  TermEvent current;
+
+  /**
+   * The current term's type in the external format.
+   */
+  @Getter
+  TermType type;
+
+  // the current term's bounds, including its tag
+  int start;
+
+  int end;
+
+  // the current value's bounds, without its header
+  int offset;
+
+  int length;
+
+  int arity;
+
+  long value;
+
+  boolean negative;
+
+  private TermReader (ByteBuf buffer) {
+    super();
+    this.buffer = buffer;
+  }
+
+  /**
+   * Tells if there are more events.
+   *
+   * @return {@code true} if there is an open container or the buffer has more bytes
+   */
+  public boolean hasNext () {
+    return depth > 0 || buffer.isReadable();
+  }
+
+  /**
+   * Reads the next event.
+   *
+   * @return the next event or {@code null} if there are no more terms
+   *
+   * @throws ErlangTermDecodeException in case of an unknown term's type
+   */
+  public TermEvent next () {
+    if (depth > 0 && remaining[depth - 1] == 0) {
+      depth--;
+      current = ends[depth];
+      type = null;
+      return current;
+    }
+    if (depth == 0 && !buffer.isReadable()) {
+      current = null;
+      type = null;
+      return null;
+    }
+    if (depth > 0) {
+      remaining[depth - 1]--;
+    }
+
+    start = buffer.readerIndex();
+    byte tag = buffer.readByte();
+    type = TermType.of(tag);
+    current = readHeader(tag);
+    end = buffer.readerIndex();
+    return current;
+  }
+
+  /**
+   * Skips the rest of the current container, so the current event becomes the container's end.
+   * It does nothing, if the current event is not a container's start.
+   */
+  public void skipChildren () {
+    if (current == null || !current.isStart()) {
+      return;
+    }
+    skip(remaining[depth - 1]);
+    close();
+  }
+
+  /**
+   * Decodes the current term. If the current event is a container's start, the whole container is read,
+   * and the current event becomes the container's end.
+   *
+   * @param <T> the term's type
+   *
+   * @return the current term
+   *
+   * @throws IllegalStateException if there is no current term
+   */
+  public <T extends ErlangTerm> T getTerm () {
+    if (current == null || current.isEnd()) {
+      throw illegalState();
+    }
+    if (!current.isStart()) {
+      return ErlangTerm.newInstance(buffer.slice(start, end - start));
+    }
+    buffer.readerIndex(start);
+    T result = ErlangTerm.newInstance(buffer);
+    close();
+    return result;
+  }
+
+  /**
+   * Returns the current container's arity.
+   *
+   * @return the number of the tuple's or the list's elements or the number of the map's pairs
+   *
+   * @throws IllegalStateException if the current event is not a container's start
+   */
+  public int getArity () {
+    if (current == null || !current.isStart()) {
+      throw illegalState();
+    }
+    return arity;
+  }
+
+  /**
+   * Returns the current integer's value.
+   *
+   * @return the integer's value
+   *
+   * @throws IllegalStateException if the current event is not {@link TermEvent#INTEGER}
+   *
+   * @throws ArithmeticException if the value doesn't fit into {@code long}
+   */
+  public long getLong () {
+    if (current != TermEvent.INTEGER) {
+      throw illegalState();
+    }
+    if (type == TermType.SMALL_INTEGER || type == TermType.INTEGER) {
+      return value;
+    }
+
+    long result = 0;
+    for (int index = length - 1; index >= 0; index--) {
+      if ((result & 0xFF00_0000_0000_0000L) != 0) {
+        throw new ArithmeticException("Integer doesn't fit into long");
+      }
+      result = (result << 8) | buffer.getUnsignedByte(offset + index);
+    }
+    if (result < 0) {
+      // only the negative 2^63 doesn't fit into the positive long
+      if (negative && result == Long.MIN_VALUE) {
+        return result;
+      }
+      throw new ArithmeticException("Integer doesn't fit into long");
+    }
+    return negative
+           ? -result
+           : result;
+  }
+
+  /**
+   * Returns the current integer's value.
+   *
+   * @return the integer's value
+   *
+   * @throws IllegalStateException if the current event is not {@link TermEvent#INTEGER}
+   *
+   * @throws ArithmeticException if the value doesn't fit into {@code int}
+   */
+  public int getInt () {
+    return Math.toIntExact(getLong());
+  }
+
+  /**
+   * Returns the current integer's value.
+   *
+   * @return the integer's value
+   *
+   * @throws IllegalStateException if the current event is not {@link TermEvent#INTEGER}
+   */
+  public BigInteger getBigInteger () {
+    if (current != TermEvent.INTEGER) {
+      throw illegalState();
+    }
+    if (type == TermType.SMALL_INTEGER || type == TermType.INTEGER) {
+      return BigInteger.valueOf(value);
+    }
+
+    byte[] magnitude = new byte[length];
+    for (int index = 0; index < length; index++) {
+      magnitude[length - 1 - index] = buffer.getByte(offset + index);
+    }
+    return new BigInteger(negative ? -1 : 1, magnitude);
+  }
+
+  /**
+   * Returns the current float's value.
+   *
+   * @return the float's value
+   *
+   * @throws IllegalStateException if the current event is not {@link TermEvent#FLOAT}
+   */
+  public double getDouble () {
+    if (current != TermEvent.FLOAT) {
+      throw illegalState();
+    }
+    return type == TermType.NEW_FLOAT
+           ? buffer.getDouble(offset)
+           : Double.parseDouble(buffer.toString(offset, length, ISO_8859_1));
+  }
+
+  /**
+   * Returns the length of the current atom, string, binary or bit string.
+   *
+   * @return the value's length in bytes
+   *
+   * @throws IllegalStateException if the current event doesn't have bytes
+   */
+  public int getLength () {
+    checkBytes();
+    return length;
+  }
+
+  /**
+   * Returns the bytes of the current atom, string, binary or bit string.
+   *
+   * @return the buffer's slice with the value's bytes
+   *
+   * @throws IllegalStateException if the current event doesn't have bytes
+   */
+  public ByteBuf getBytes () {
+    checkBytes();
+    return buffer.slice(offset, length);
+  }
+
+  /**
+   * Returns the current atom's or string's text.
+   *
+   * @return the text
+   *
+   * @throws IllegalStateException if the current event is not {@link TermEvent#ATOM} or {@link TermEvent#STRING}
+   */
+  public String getText () {
+    if (current != TermEvent.ATOM && current != TermEvent.STRING) {
+      throw illegalState();
+    }
+    return type == TermType.ATOM_UTF8 || type == TermType.SMALL_ATOM_UTF8
+           ? buffer.toString(offset, length, UTF_8)
+           : buffer.toString(offset, length, ISO_8859_1);
+  }
+
+  private TermEvent readHeader (byte tag) {
+    switch (type) {
+    case SMALL_INTEGER:
+      value = buffer.readUnsignedByte();
+      return TermEvent.INTEGER;
+    case INTEGER:
+      value = buffer.readInt();
+      return TermEvent.INTEGER;
+    case SMALL_BIG:
+    case LARGE_BIG:
+      length = type == TermType.SMALL_BIG
+               ? buffer.readUnsignedByte()
+               : buffer.readInt();
+      negative = buffer.readByte() != 0;
+      return value(TermEvent.INTEGER);
+    case FLOAT:
+      length = 31;
+      return value(TermEvent.FLOAT);
+    case NEW_FLOAT:
+      length = Double.BYTES;
+      return value(TermEvent.FLOAT);
+    case SMALL_TUPLE:
+      return open(TermEvent.END_TUPLE, buffer.readUnsignedByte(), 0);
+    case LARGE_TUPLE:
+      return open(TermEvent.END_TUPLE, buffer.readInt(), 0);
+    case MAP:
+      arity = buffer.readInt();
+      return open(TermEvent.END_MAP, arity, arity);
+    case LIST:
+      return open(TermEvent.END_LIST, buffer.readInt(), 1);
+    case NIL:
+      return TermEvent.NIL;
+    default:
+      return readValueHeader(tag);
+    }
+  }
+
+  private TermEvent readValueHeader (byte tag) {
+    switch (type) {
+    case STRING:
+      length = buffer.readUnsignedShort();
+      return value(TermEvent.STRING);
+    case BINARY:
+      length = buffer.readInt();
+      return value(TermEvent.BINARY);
+    case BIT_BINNARY:
+      length = buffer.readInt();
+      buffer.skipBytes(1);
+      return value(TermEvent.BIT_STRING);
+    case SMALL_ATOM:
+    case SMALL_ATOM_UTF8:
+      length = buffer.readUnsignedByte();
+      return value(TermEvent.ATOM);
+    case ATOM:
+    case ATOM_UTF8:
+      length = buffer.readUnsignedShort();
+      return value(TermEvent.ATOM);
+    case PID:
+    case NEW_PID:
+      return whole(TermEvent.PID);
+    case PORT:
+    case NEW_PORT:
+      return whole(TermEvent.PORT);
+    case REFERENCE:
+    case NEW_REFERENCE:
+    case NEWER_REFERENCE:
+      return whole(TermEvent.REFERENCE);
+    case FUNCTION:
+    case NEW_FUNCTION:
+    case EXTERNAL_FUNCTION:
+      return whole(TermEvent.FUNCTION);
+    default:
+      throw unknown(tag);
+    }
+  }
+
+  private TermEvent value (TermEvent event) {
+    offset = buffer.readerIndex();
+    buffer.skipBytes(length);
+    return event;
+  }
+
+  private TermEvent whole (TermEvent event) {
+    buffer.readerIndex(start);
+    skip(1);
+    return event;
+  }
+
+  private TermEvent open (TermEvent endEvent, int elements, int extra) {
+    if (depth == ends.length) {
+      ends = Arrays.copyOf(ends, depth * 2);
+      remaining = Arrays.copyOf(remaining, depth * 2);
+    }
+    arity = elements;
+    ends[depth] = endEvent;
+    remaining[depth] = (long) elements + extra;
+    depth++;
+
+    if (endEvent == TermEvent.END_TUPLE) {
+      return TermEvent.START_TUPLE;
+    } else if (endEvent == TermEvent.END_LIST) {
+      return TermEvent.START_LIST;
+    }
+    return TermEvent.START_MAP;
+  }
+
+  private void close () {
+    depth--;
+    current = ends[depth];
+    type = null;
+  }
+
+  // skips the terms without recursion, the nested terms are just added to the count
+  private void skip (long count) {
+    long left = count;
+    while (left > 0) {
+      left += skipTerm() - 1;
+    }
+  }
+
+  // skips the next term's own bytes and returns the number of its nested terms
+  private long skipTerm () {
+    byte tag = buffer.readByte();
+    switch (TermType.of(tag)) {
+    case SMALL_INTEGER:
+      buffer.skipBytes(1);
+      return 0;
+    case INTEGER:
+      buffer.skipBytes(Integer.BYTES);
+      return 0;
+    case SMALL_BIG:
+      buffer.skipBytes(buffer.readUnsignedByte() + 1);
+      return 0;
+    case LARGE_BIG:
+    case BIT_BINNARY:
+      // the length, the sign or the tail bits count, and the bytes
+      buffer.skipBytes(buffer.readInt() + 1);
+      return 0;
+    case FLOAT:
+      buffer.skipBytes(31);
+      return 0;
+    case NEW_FLOAT:
+      buffer.skipBytes(Double.BYTES);
+      return 0;
+    case SMALL_TUPLE:
+      return buffer.readUnsignedByte();
+    case LARGE_TUPLE:
+      return buffer.readUnsignedInt();
+    case MAP:
+      return buffer.readUnsignedInt() * 2;
+    case LIST:
+      return buffer.readUnsignedInt() + 1;
+    case NIL:
+      return 0;
+    default:
+      return skipValue(tag);
+    }
+  }
+
+  private long skipValue (byte tag) {
+    switch (TermType.of(tag)) {
+    case STRING:
+      buffer.skipBytes(buffer.readUnsignedShort());
+      return 0;
+    case BINARY:
+      buffer.skipBytes(buffer.readInt());
+      return 0;
+    case SMALL_ATOM:
+    case SMALL_ATOM_UTF8:
+    case ATOM:
+    case ATOM_UTF8:
+      skipAtomBody(tag);
+      return 0;
+    case PID:
+    case NEW_PID:
+    case PORT:
+    case NEW_PORT:
+    case REFERENCE:
+      skipAtom();
+      buffer.skipBytes(identifiersLength(tag));
+      return 0;
+    case NEW_REFERENCE:
+    case NEWER_REFERENCE:
+      int words = buffer.readUnsignedShort();
+      skipAtom();
+      buffer.skipBytes(identifiersLength(tag) + words * Integer.BYTES);
+      return 0;
+    case NEW_FUNCTION:
+      buffer.skipBytes(buffer.readInt() - Integer.BYTES);
+      return 0;
+    case FUNCTION:
+      // the pid, the module, the index, the unique and the free variables
+      return buffer.readUnsignedInt() + 4;
+    case EXTERNAL_FUNCTION:
+      // the module, the name and the arity
+      return 3;
+    default:
+      throw unknown(tag);
+    }
+  }
+
+  // the fixed size fields after the node's atom
+  private static int identifiersLength (byte tag) {
+    switch (TermType.of(tag)) {
+    case PID:
+      return 9;
+    case NEW_PID:
+      return 12;
+    case PORT:
+    case REFERENCE:
+      return 5;
+    case NEW_PORT:
+      return 8;
+    case NEW_REFERENCE:
+      return 1;
+    default:
+      return Integer.BYTES;
+    }
+  }
+
+  private void skipAtom () {
+    skipAtomBody(buffer.readByte());
+  }
+
+  private void skipAtomBody (byte tag) {
+    switch (TermType.of(tag)) {
+    case SMALL_ATOM:
+    case SMALL_ATOM_UTF8:
+      buffer.skipBytes(buffer.readUnsignedByte());
+      break;
+    case ATOM:
+    case ATOM_UTF8:
+      buffer.skipBytes(buffer.readUnsignedShort());
+      break;
+    default:
+      throw unknown(tag);
+    }
+  }
+
+  private void checkBytes () {
+    if (current != TermEvent.ATOM && current != TermEvent.STRING
+        && current != TermEvent.BINARY && current != TermEvent.BIT_STRING) {
+      throw illegalState();
+    }
+  }
+
+  private IllegalStateException illegalState () {
+    return new IllegalStateException("Unexpected current event " + current);
+  }
+
+  private static ErlangTermDecodeException unknown (byte tag) {
+    String message = String.format("Unsupported term type %s (%d)", TermType.of(tag).name(), tag);
+    return new ErlangTermDecodeException(message);
+  }
+}
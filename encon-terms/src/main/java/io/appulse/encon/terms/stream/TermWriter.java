@@ -0,0 +1,489 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.stream;
+
+import static io.appulse.encon.terms.TermType.ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.BINARY;
+import static io.appulse.encon.terms.TermType.INTEGER;
+import static io.appulse.encon.terms.TermType.LARGE_TUPLE;
+import static io.appulse.encon.terms.TermType.LIST;
+import static io.appulse.encon.terms.TermType.MAP;
+import static io.appulse.encon.terms.TermType.NEW_FLOAT;
+import static io.appulse.encon.terms.TermType.NIL;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.SMALL_BIG;
+import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
+import static io.appulse.encon.terms.TermType.SMALL_TUPLE;
+import static io.appulse.encon.terms.TermType.STRING;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import io.appulse.encon.terms.Erlang;
+import io.appulse.encon.terms.ErlangTerm;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Streaming writer of the terms in the Erlang's external format.
+ * <p>
+ * The writer encodes the terms right into the buffer, without building the terms' objects,
+ * and it always chooses the smallest encoding, like {@code SMALL_INTEGER} or
+ * {@code SMALL_ATOM_UTF8}. Every container is started with its arity and finished
+ * by {@link #end()}, which checks, that the container got exactly the declared number of terms.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * TermWriter.of(buffer)
+ *     .startTuple(3)
+ *         .writeAtom("ok")
+ *         .writeLong(42)
+ *         .startList(2)
+ *             .writeBinary(bytes)
+ *             .writeDouble(1.5)
+ *         .end()
+ *     .end();
+ * }</pre>
+ * <p>
+ * The writer is not thread safe.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE)
+@SuppressWarnings({
+    "PMD.GodClass",
+    "PMD.TooManyMethods",
+    "PMD.AvoidLiteralsInIfCondition"
+})
+public final class TermWriter {
+
+  private static final int INITIAL_DEPTH = 8;
+
+  private static final int MAX_SMALL_LENGTH = 255;
+
+  private static final int MAX_STRING_LENGTH = 65_535;
+
+  private static final int MAX_ATOM_CODE_POINTS = 255;
+
+  /**
+   * Creates a new writer, which appends the terms to the buffer.
+   *
+   * @param buffer the terms' buffer
+   *
+   * @return a new writer
+   */
+  public static TermWriter of (@NonNull ByteBuf buffer) {
+    return new TermWriter(buffer);
+  }
+
+  /**
+   * Writes exactly one term by the callback.
+   *
+   * @param buffer the term's buffer
+   *
+   * @param callback the term's writing callback
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public static void writeTerm (@NonNull ByteBuf buffer, @NonNull Consumer<TermWriter> callback) {
+    TermWriter writer = new TermWriter(buffer);
+    callback.accept(writer);
+    if (writer.depth != 0 || writer.count != 1) {
+      String message = String.format("The callback must write exactly one complete term, but it wrote %d terms "
+                                     + "and left %d containers open", writer.count, writer.depth);
+      throw new IllegalStateException(message);
+    }
+  }
+
+  final ByteBuf buffer;
+
+  // the open containers' kinds and the numbers of their not written terms
+  TermEvent[] kinds = new TermEvent[INITIAL_DEPTH];
+
+  long[] remaining = new long[INITIAL_DEPTH];
+
+  /**
+   * The number of the open containers.
+   */
+  @Getter
+  int depth;
+
+  /**
+   * The number of the written top level terms.
+   */
+  @Getter
+  long count;
+
+  private TermWriter (ByteBuf buffer) {
+    super();
+    this.buffer = buffer;
+  }
+
+  /**
+   * Tells if there are no open containers.
+   *
+   * @return {@code true} if all the started containers are finished
+   */
+  public boolean isComplete () {
+    return depth == 0;
+  }
+
+  /**
+   * Starts a tuple.
+   *
+   * @param arity the number of the tuple's elements
+   *
+   * @return this writer
+   *
+   * @throws IllegalArgumentException if the arity is negative
+   */
+  public TermWriter startTuple (int arity) {
+    checkArity(arity);
+    element();
+    if (arity <= MAX_SMALL_LENGTH) {
+      buffer.writeByte(SMALL_TUPLE.getCode());
+      buffer.writeByte(arity);
+    } else {
+      buffer.writeByte(LARGE_TUPLE.getCode());
+      buffer.writeInt(arity);
+    }
+    return open(TermEvent.START_TUPLE, arity);
+  }
+
+  /**
+   * Starts a proper list, its tail is added by {@link #end()}.
+   *
+   * @param length the number of the list's elements
+   *
+   * @return this writer
+   *
+   * @throws IllegalArgumentException if the length is negative
+   */
+  public TermWriter startList (int length) {
+    checkArity(length);
+    element();
+    if (length == 0) {
+      // an empty list is just the tail
+      buffer.writeByte(NIL.getCode());
+      return open(TermEvent.NIL, 0);
+    }
+    buffer.writeByte(LIST.getCode());
+    buffer.writeInt(length);
+    return open(TermEvent.START_LIST, length);
+  }
+
+  /**
+   * Starts a map, its content is the keys and the values one by one.
+   *
+   * @param arity the number of the map's pairs
+   *
+   * @return this writer
+   *
+   * @throws IllegalArgumentException if the arity is negative
+   */
+  public TermWriter startMap (int arity) {
+    checkArity(arity);
+    element();
+    buffer.writeByte(MAP.getCode());
+    buffer.writeInt(arity);
+    return open(TermEvent.START_MAP, arity * 2L);
+  }
+
+  /**
+   * Finishes the last started container.
+   *
+   * @return this writer
+   *
+   * @throws IllegalStateException if there is no open container or the container didn't get all its terms
+   */
+  public TermWriter end () {
+    if (depth == 0) {
+      throw new IllegalStateException("There is no open container");
+    }
+    int last = depth - 1;
+    if (remaining[last] != 0) {
+      String message = String.format("The %s is finished, but %d more terms are expected",
+                                     name(kinds[last]), remaining[last]);
+      throw new IllegalStateException(message);
+    }
+    if (kinds[last] == TermEvent.START_LIST) {
+      buffer.writeByte(NIL.getCode());
+    }
+    depth = last;
+    return written();
+  }
+
+  /**
+   * Writes an empty list.
+   *
+   * @return this writer
+   */
+  public TermWriter writeNil () {
+    element();
+    buffer.writeByte(NIL.getCode());
+    return written();
+  }
+
+  /**
+   * Writes an atom in UTF-8.
+   *
+   * @param value the atom's text
+   *
+   * @return this writer
+   *
+   * @throws IllegalArgumentException if the atom is longer than 255 characters
+   */
+  public TermWriter writeAtom (@NonNull String value) {
+    if (value.codePointCount(0, value.length()) > MAX_ATOM_CODE_POINTS) {
+      throw new IllegalArgumentException("Atom is longer than " + MAX_ATOM_CODE_POINTS + " characters");
+    }
+    element();
+    int length = ByteBufUtil.utf8Bytes(value);
+    if (length <= MAX_SMALL_LENGTH) {
+      buffer.writeByte(SMALL_ATOM_UTF8.getCode());
+      buffer.writeByte(length);
+    } else {
+      buffer.writeByte(ATOM_UTF8.getCode());
+      buffer.writeShort(length);
+    }
+    ByteBufUtil.writeUtf8(buffer, value);
+    return written();
+  }
+
+  /**
+   * Writes a boolean atom.
+   *
+   * @param value the boolean value
+   *
+   * @return this writer
+   */
+  public TermWriter writeAtom (boolean value) {
+    return writeAtom(Boolean.toString(value));
+  }
+
+  /**
+   * Writes an integer.
+   *
+   * @param value the integer's value
+   *
+   * @return this writer
+   */
+  public TermWriter writeInt (int value) {
+    return writeLong(value);
+  }
+
+  /**
+   * Writes an integer.
+   *
+   * @param value the integer's value
+   *
+   * @return this writer
+   */
+  public TermWriter writeLong (long value) {
+    element();
+    if (value >= 0 && value <= MAX_SMALL_LENGTH) {
+      buffer.writeByte(SMALL_INTEGER.getCode());
+      buffer.writeByte((int) value);
+    } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+      buffer.writeByte(INTEGER.getCode());
+      buffer.writeInt((int) value);
+    } else {
+      // the magnitude of Long.MIN_VALUE is the same bits as unsigned
+      long magnitude = value < 0
+                       ? -value
+                       : value;
+      int digits = (Long.SIZE - Long.numberOfLeadingZeros(magnitude) + Byte.SIZE - 1) / Byte.SIZE;
+      buffer.writeByte(SMALL_BIG.getCode());
+      buffer.writeByte(digits);
+      buffer.writeByte(value < 0 ? 1 : 0);
+      for (int index = 0; index < digits; index++) {
+        buffer.writeByte((int) (magnitude >>> (index * Byte.SIZE)));
+      }
+    }
+    return written();
+  }
+
+  /**
+   * Writes an integer.
+   *
+   * @param value the integer's value
+   *
+   * @return this writer
+   */
+  public TermWriter writeBigInteger (@NonNull BigInteger value) {
+    return value.bitLength() < Long.SIZE
+           ? writeLong(value.longValue())
+           : writeTerm(Erlang.number(value));
+  }
+
+  /**
+   * Writes a float.
+   *
+   * @param value the float's value
+   *
+   * @return this writer
+   */
+  public TermWriter writeDouble (double value) {
+    element();
+    buffer.writeByte(NEW_FLOAT.getCode());
+    buffer.writeDouble(value);
+    return written();
+  }
+
+  /**
+   * Writes a binary.
+   *
+   * @param value the binary's bytes
+   *
+   * @return this writer
+   */
+  public TermWriter writeBinary (@NonNull byte[] value) {
+    element();
+    buffer.writeByte(BINARY.getCode());
+    buffer.writeInt(value.length);
+    buffer.writeBytes(value);
+    return written();
+  }
+
+  /**
+   * Writes the buffer's remaining bytes as a binary, the buffer's position is not changed.
+   *
+   * @param value the binary's bytes
+   *
+   * @return this writer
+   */
+  public TermWriter writeBinary (@NonNull ByteBuffer value) {
+    element();
+    buffer.writeByte(BINARY.getCode());
+    buffer.writeInt(value.remaining());
+    buffer.writeBytes(value.duplicate());
+    return written();
+  }
+
+  /**
+   * Writes the buffer's readable bytes as a binary, the buffer's reader index is not changed.
+   *
+   * @param value the binary's bytes
+   *
+   * @return this writer
+   */
+  public TermWriter writeBinary (@NonNull ByteBuf value) {
+    element();
+    buffer.writeByte(BINARY.getCode());
+    buffer.writeInt(value.readableBytes());
+    buffer.writeBytes(value, value.readerIndex(), value.readableBytes());
+    return written();
+  }
+
+  /**
+   * Writes a string as the Erlang's list of the characters' codes. The short Latin-1 strings
+   * have the compact form, the others are written as the lists of the integers.
+   *
+   * @param value the string
+   *
+   * @return this writer
+   */
+  public TermWriter writeString (@NonNull String value) {
+    if (value.isEmpty()) {
+      return writeNil();
+    } else if (value.length() > MAX_STRING_LENGTH || !isLatin1(value)) {
+      startList(value.codePointCount(0, value.length()));
+      value.codePoints().forEach(this::writeInt);
+      return end();
+    }
+    element();
+    buffer.writeByte(STRING.getCode());
+    buffer.writeShort(value.length());
+    buffer.writeCharSequence(value, ISO_8859_1);
+    return written();
+  }
+
+  /**
+   * Writes an already built term, like a pid or a reference.
+   *
+   * @param term the term
+   *
+   * @return this writer
+   */
+  public TermWriter writeTerm (@NonNull ErlangTerm term) {
+    element();
+    term.writeTo(buffer);
+    return written();
+  }
+
+  private void element () {
+    if (depth == 0) {
+      return;
+    }
+    int last = depth - 1;
+    if (remaining[last] == 0) {
+      throw new IllegalStateException("The " + name(kinds[last]) + " already has all its terms");
+    }
+    remaining[last]--;
+  }
+
+  private TermWriter written () {
+    if (depth == 0) {
+      count++;
+    }
+    return this;
+  }
+
+  private TermWriter open (TermEvent kind, long terms) {
+    if (depth == kinds.length) {
+      kinds = Arrays.copyOf(kinds, depth * 2);
+      remaining = Arrays.copyOf(remaining, depth * 2);
+    }
+    kinds[depth] = kind;
+    remaining[depth] = terms;
+    depth++;
+    return this;
+  }
+
+  private static void checkArity (int arity) {
+    if (arity < 0) {
+      throw new IllegalArgumentException("Arity must not be negative: " + arity);
+    }
+  }
+
+  private static String name (TermEvent kind) {
+    if (kind == TermEvent.START_TUPLE) {
+      return "tuple";
+    }
+    return kind == TermEvent.START_MAP
+           ? "map"
+           : "list";
+  }
+
+  private static boolean isLatin1 (String value) {
+    for (int index = 0; index < value.length(); index++) {
+      if (value.charAt(index) > MAX_SMALL_LENGTH) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
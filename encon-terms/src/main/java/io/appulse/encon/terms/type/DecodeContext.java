@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.type;
+
+import static io.appulse.encon.terms.TermType.ATOM;
+import static io.appulse.encon.terms.TermType.ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM_UTF8;
+import static lombok.AccessLevel.PRIVATE;
+
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.TermType;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.FastThreadLocal;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Decoding context of a connection, which canonicalizes the node atoms of the decoded
+ * {@link ErlangPid}, {@link ErlangPort} and {@link ErlangReference} terms.
+ * <p>
+ * Within one connection almost all of them belong to one of a few nodes, so the context remembers
+ * the last seen nodes, matches a node atom right against the buffer's bytes, and binds the node's
+ * {@link NodeDescriptor} to the decoded term, so the node's name is never parsed again.
+ * <p>
+ * The context is not thread-safe, it must be used by the connection's decoding thread only.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class DecodeContext {
+
+  private static final int SIZE = 8;
+
+  private static final FastThreadLocal<DecodeContext> CURRENT = new FastThreadLocal<>();
+
+  static ErlangAtom readNode (ByteBuf buffer) {
+    DecodeContext context = CURRENT.get();
+    return context == null
+           ? ErlangTerm.newInstance(buffer)
+           : context.read(buffer);
+  }
+
+  static NodeDescriptor descriptorOf (ErlangAtom node) {
+    DecodeContext context = CURRENT.get();
+    return context == null
+           ? null
+           : context.descriptor(node);
+  }
+
+  ErlangAtom[] nodes = new ErlangAtom[SIZE];
+
+  NodeDescriptor[] descriptors = new NodeDescriptor[SIZE];
+
+  @NonFinal
+  int size;
+
+  @NonFinal
+  int next;
+
+  /**
+   * Reads a term from the buffer within this context.
+   *
+   * @param buffer byte buffer
+   *
+   * @param <T> the term's type
+   *
+   * @return the decoded term
+   */
+  public <T extends ErlangTerm> T decode (@NonNull ByteBuf buffer) {
+    DecodeContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return ErlangTerm.newInstance(buffer);
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  private ErlangAtom read (ByteBuf buffer) {
+    int start = buffer.readerIndex();
+    TermType type = TermType.of(buffer.getByte(start));
+    boolean small = type == SMALL_ATOM || type == SMALL_ATOM_UTF8;
+    if (!small && type != ATOM && type != ATOM_UTF8) {
+      return ErlangTerm.newInstance(buffer);
+    }
+
+    int offset = small
+                 ? start + 2
+                 : start + 3;
+    int length = small
+                 ? buffer.getUnsignedByte(start + 1)
+                 : buffer.getUnsignedShort(start + 1);
+    boolean utf8 = type == SMALL_ATOM_UTF8 || type == ATOM_UTF8;
+    for (int index = 0; index < size; index++) {
+      if (nodes[index].matches(buffer, offset, length, utf8)) {
+        buffer.readerIndex(offset + length);
+        return nodes[index];
+      }
+    }
+
+    ErlangAtom node = ErlangTerm.newInstance(buffer);
+    remember(node);
+    return node;
+  }
+
+  private NodeDescriptor descriptor (ErlangAtom node) {
+    for (int index = 0; index < size; index++) {
+      if (nodes[index] == node) {
+        if (descriptors[index] == null) {
+          descriptors[index] = NodeDescriptor.from(node.asText());
+        }
+        return descriptors[index];
+      }
+    }
+    return null;
+  }
+
+  // when the context is full, the new node replaces the oldest one
+  @SuppressWarnings("PMD.NullAssignment")
+  private void remember (ErlangAtom node) {
+    nodes[next] = node;
+    descriptors[next] = null;
+    next = (next + 1) % SIZE;
+    if (size < SIZE) {
+      size++;
+    }
+  }
+}
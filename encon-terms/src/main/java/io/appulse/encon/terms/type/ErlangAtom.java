@@ -24,17 +24,20 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
+import io.netty.buffer.Unpooled;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
+import lombok.val;
 
 /**
  * An atom is a literal, a constant with name. An atom is to be enclosed in
@@ -47,11 +50,6 @@ import lombok.experimental.FieldDefaults;
  */
 @ToString
 @SuppressWarnings("deprecation")
-@EqualsAndHashCode(
-    of = "bytes",
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangAtom extends ErlangTerm {
 
@@ -73,6 +71,33 @@ public class ErlangAtom extends ErlangTerm {
 
   private static final int MAX_SMALL_ATOM_BYTES_LENGTH = 255;
 
+  /**
+   * Returns the canonical {@link ErlangAtom} instance from the atoms' intern table,
+   * a new atom is created and interned only if there is no such atom yet.
+   *
+   * @param value {@link String} atom's value
+   *
+   * @return cached or new {@link ErlangAtom} object
+   */
+  public static ErlangAtom cached (@NonNull String value) {
+    return ErlangAtomCache.get(value);
+  }
+
+  /**
+   * Reads an atom from {@link ByteBuf} and returns its canonical {@link ErlangAtom} instance
+   * from the atoms' intern table. The known atom is matched against the buffer's bytes,
+   * so it is read without any allocations.
+   *
+   * @param type   atom's type
+   *
+   * @param buffer byte buffer
+   *
+   * @return cached or new {@link ErlangAtom} object
+   */
+  public static ErlangAtom cached (@NonNull TermType type, @NonNull ByteBuf buffer) {
+    return ErlangAtomCache.get(type, buffer);
+  }
+
   @Getter(lazy = true, value = PRIVATE)
   String value = createString();
 
@@ -143,7 +168,10 @@ public class ErlangAtom extends ErlangTerm {
 
   @Override
   public boolean isBoolean () {
-    return "true".equalsIgnoreCase(asText()) || "false".equalsIgnoreCase(asText());
+    return this == ATOM_TRUE
+           || this == ATOM_FALSE
+           || "true".equalsIgnoreCase(asText())
+           || "false".equalsIgnoreCase(asText());
   }
 
   @Override
@@ -171,6 +199,28 @@ public class ErlangAtom extends ErlangTerm {
     return true;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangAtom)) {
+      return false;
+    }
+    ErlangAtom other = (ErlangAtom) obj;
+    return !hashCodesDiffer(other)
+           && Arrays.equals(bytes, other.bytes);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return Arrays.hashCode(bytes);
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
@@ -191,4 +241,158 @@ public class ErlangAtom extends ErlangTerm {
   private String createString () {
     return new String(bytes, charset);
   }
+
+  final boolean isUtf8 () {
+    return UTF_8.equals(charset);
+  }
+
+  final boolean matches (ByteBuf buffer, int offset, int length, boolean utf8) {
+    if (bytes.length != length || isUtf8() != utf8) {
+      return false;
+    }
+    for (int index = 0; index < length; index++) {
+      if (bytes[index] != buffer.getByte(offset + index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  final boolean matches (String ascii) {
+    if (bytes.length != ascii.length() || !isUtf8()) {
+      return false;
+    }
+    for (int index = 0; index < bytes.length; index++) {
+      if (bytes[index] != ascii.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /*
+   * Bounded lock-free intern table of the atoms. An atom is looked for in a short window of slots
+   * after its hash's slot, if the window is full, the new atom replaces the first one. So the table never grows,
+   * and in practice, where the atoms are a small closed set, every atom has a single instance.
+   * The rare races could create the atom's duplicates, so the atoms are still compared by their bytes.
+   */
+  private static final class ErlangAtomCache {
+
+    private static final int SIZE = 4096;
+
+    private static final int MASK = SIZE - 1;
+
+    private static final int PROBES = 4;
+
+    private static final int MAX_ASCII = 0x7F;
+
+    private static final AtomicReferenceArray<ErlangAtom> TABLE = new AtomicReferenceArray<>(SIZE);
+
+    static {
+      intern(ATOM_TRUE);
+      intern(ATOM_FALSE);
+    }
+
+    static ErlangAtom get (TermType type, ByteBuf buffer) {
+      boolean small = type == SMALL_ATOM || type == SMALL_ATOM_UTF8;
+      boolean utf8 = type == SMALL_ATOM_UTF8 || type == ATOM_UTF8;
+      int start = buffer.readerIndex();
+      int offset = small
+                   ? start + Byte.BYTES
+                   : start + Short.BYTES;
+      int length = small
+                   ? buffer.getUnsignedByte(start)
+                   : buffer.getUnsignedShort(start);
+
+      int hash = hash(buffer, offset, length, utf8);
+      for (int probe = 0; probe < PROBES; probe++) {
+        ErlangAtom atom = TABLE.get((hash + probe) & MASK);
+        if (atom == null) {
+          break;
+        } else if (atom.matches(buffer, offset, length, utf8)) {
+          buffer.readerIndex(offset + length);
+          return atom;
+        }
+      }
+
+      ErlangAtom atom = new ErlangAtom(type, buffer);
+      put(hash, atom);
+      return atom;
+    }
+
+    static ErlangAtom get (String value) {
+      if (value.length() > MAX_SMALL_ATOM_BYTES_LENGTH || !isAscii(value)) {
+        return intern(new ErlangAtom(value));
+      }
+
+      int hash = hash(value);
+      for (int probe = 0; probe < PROBES; probe++) {
+        ErlangAtom atom = TABLE.get((hash + probe) & MASK);
+        if (atom == null) {
+          break;
+        } else if (atom.matches(value)) {
+          return atom;
+        }
+      }
+
+      ErlangAtom atom = new ErlangAtom(value);
+      put(hash, atom);
+      return atom;
+    }
+
+    private static ErlangAtom intern (ErlangAtom atom) {
+      val buffer = Unpooled.wrappedBuffer(atom.bytes);
+      boolean utf8 = atom.isUtf8();
+      int hash = hash(buffer, 0, atom.bytes.length, utf8);
+      for (int probe = 0; probe < PROBES; probe++) {
+        ErlangAtom existing = TABLE.get((hash + probe) & MASK);
+        if (existing == null) {
+          break;
+        } else if (existing.matches(buffer, 0, atom.bytes.length, utf8)) {
+          return existing;
+        }
+      }
+      put(hash, atom);
+      return atom;
+    }
+
+    private static void put (int hash, ErlangAtom atom) {
+      for (int probe = 0; probe < PROBES; probe++) {
+        if (TABLE.compareAndSet((hash + probe) & MASK, null, atom)) {
+          return;
+        }
+      }
+      TABLE.set(hash & MASK, atom);
+    }
+
+    private static int hash (ByteBuf buffer, int offset, int length, boolean utf8) {
+      int hash = utf8 ? 1 : 0;
+      for (int index = 0; index < length; index++) {
+        hash = 31 * hash + buffer.getByte(offset + index);
+      }
+      return hash ^ (hash >>> 16);
+    }
+
+    // the same hash as of the string's UTF-8 bytes, for the ASCII strings only
+    private static int hash (String ascii) {
+      int hash = 1;
+      for (int index = 0; index < ascii.length(); index++) {
+        hash = 31 * hash + ascii.charAt(index);
+      }
+      return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isAscii (String value) {
+      for (int index = 0; index < value.length(); index++) {
+        if (value.charAt(index) > MAX_ASCII) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private ErlangAtomCache () {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
@@ -20,34 +20,47 @@ import static io.appulse.encon.terms.TermType.BINARY;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
 import lombok.NonNull;
-import lombok.ToString;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.val;
 
 /**
  * Provides a Java representation of Erlang binaries. Anything that can be
  * represented as a sequence of bytes can be made into an Erlang binary.
+ * <p>
+ * The binary's bytes are kept in a {@link ByteBuf}. A binary, which is created from
+ * a {@link ByteBuf} or a {@link ByteBuffer}, is just a view of its memory, so the large blobs are never copied
+ * by {@link #asByteBuffer()}, {@link #writeTo(OutputStream)}, {@link #writeTo(WritableByteChannel)}
+ * and the term's serialization. The binary is {@link ReferenceCounted} by its buffer,
+ * so a view of a pooled or a direct buffer must be released by its owner.
  *
  * @since 1.0.0
  * @author Artem Labazin
  */
-@ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
-@FieldDefaults(level = PRIVATE, makeFinal = true)
-public class ErlangBinary extends ErlangTerm {
+@FieldDefaults(level = PRIVATE)
+public class ErlangBinary extends ErlangTerm implements ReferenceCounted {
 
   private static final long serialVersionUID = 2120051138040192507L;
 
-  byte[] bytes;
+  private static final int TO_STRING_BYTES = 64;
+
+  @NonFinal
+  transient ByteBuf content;
 
   /**
    * Constructs Erlang's term object with specific {@link TermType} from {@link ByteBuf}.
@@ -60,35 +73,198 @@ public class ErlangBinary extends ErlangTerm {
     super(type);
 
     val length = buffer.readInt();
-    bytes = new byte[length];
+    val bytes = new byte[length];
     buffer.readBytes(bytes);
+    content = Unpooled.wrappedBuffer(bytes);
   }
 
   /**
    * Constructs Erlang's binary object.
    *
-   * @param bytes object's binary value
+   * @param bytes object's binary value, it is copied
    */
   public ErlangBinary (@NonNull byte[] bytes) {
     super(BINARY);
+    content = Unpooled.copiedBuffer(bytes);
+  }
+
+  /**
+   * Constructs Erlang's binary object, which is a view of the buffer's readable bytes.
+   * The binary takes over the buffer's reference, so the buffer is released with the binary.
+   *
+   * @param buffer the binary's bytes, they are not copied
+   *
+   * @since 1.6.11
+   */
+  public ErlangBinary (@NonNull ByteBuf buffer) {
+    super(BINARY);
+    content = buffer.slice();
+  }
+
+  /**
+   * Constructs Erlang's binary object, which is a view of the buffer's remaining bytes.
+   * The buffer's position is not changed.
+   *
+   * @param buffer the binary's bytes, they are not copied
+   *
+   * @since 1.6.11
+   */
+  public ErlangBinary (@NonNull ByteBuffer buffer) {
+    super(BINARY);
+    content = Unpooled.wrappedBuffer(buffer);
+  }
 
-    this.bytes = new byte[bytes.length];
-    System.arraycopy(bytes, 0, this.bytes, 0, bytes.length);
+  /**
+   * Returns the binary's length.
+   *
+   * @return the number of the binary's bytes
+   *
+   * @since 1.6.11
+   */
+  public int length () {
+    return content.readableBytes();
+  }
+
+  /**
+   * Returns the read-only view of the binary's bytes, without copying.
+   *
+   * @return the binary's bytes
+   *
+   * @since 1.6.11
+   */
+  public ByteBuffer asByteBuffer () {
+    return content.nioBuffer().asReadOnlyBuffer();
+  }
+
+  /**
+   * Writes the binary's bytes, not the encoded term, to the stream.
+   *
+   * @param out the target stream
+   *
+   * @throws IOException in case of the stream's errors
+   *
+   * @since 1.6.11
+   */
+  public void writeTo (@NonNull OutputStream out) throws IOException {
+    content.getBytes(content.readerIndex(), out, content.readableBytes());
+  }
+
+  /**
+   * Writes the binary's bytes, not the encoded term, to the channel.
+   *
+   * @param channel the target channel
+   *
+   * @throws IOException in case of the channel's errors
+   *
+   * @since 1.6.11
+   */
+  public void writeTo (@NonNull WritableByteChannel channel) throws IOException {
+    for (ByteBuffer buffer : content.nioBuffers()) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
   }
 
   @Override
   public byte[] asBinary (byte[] defaultValue) {
-    return bytes.clone();
+    return ByteBufUtil.getBytes(content);
   }
 
   @Override
   public String asText (String defaultValue) {
-    return new String(bytes, UTF_8);
+    return content.toString(UTF_8);
+  }
+
+  @Override
+  public int refCnt () {
+    return content.refCnt();
+  }
+
+  @Override
+  public ErlangBinary retain () {
+    content.retain();
+    return this;
+  }
+
+  @Override
+  public ErlangBinary retain (int increment) {
+    content.retain(increment);
+    return this;
+  }
+
+  @Override
+  public ErlangBinary touch () {
+    content.touch();
+    return this;
+  }
+
+  @Override
+  public ErlangBinary touch (Object hint) {
+    content.touch(hint);
+    return this;
+  }
+
+  @Override
+  public boolean release () {
+    return content.release();
+  }
+
+  @Override
+  public boolean release (int decrement) {
+    return content.release(decrement);
+  }
+
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (this == obj) {
+      return true;
+    } else if (!(obj instanceof ErlangBinary)) {
+      return false;
+    }
+    val other = (ErlangBinary) obj;
+    return !hashCodesDiffer(other)
+           && ByteBufUtil.equals(content, other.content);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return ByteBufUtil.hashCode(content);
+  }
+
+  // the binary could be a view of its creator's buffer, which bytes could be changed
+  @Override
+  protected boolean isHashCodeCacheable () {
+    return false;
+  }
+
+  @Override
+  public String toString () {
+    val length = content.readableBytes();
+    val dump = ByteBufUtil.hexDump(content, content.readerIndex(), Math.min(length, TO_STRING_BYTES));
+    return "ErlangBinary(length=" + length + ", bytes=" + dump + (length > TO_STRING_BYTES ? "...)" : ")");
   }
 
   @Override
   protected void serialize (ByteBuf buffer) {
-    buffer.writeInt(bytes.length);
-    buffer.writeBytes(bytes);
+    buffer.writeInt(content.readableBytes());
+    buffer.writeBytes(content, content.readerIndex(), content.readableBytes());
+  }
+
+  private void writeObject (ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(content.readableBytes());
+    writeTo(out);
+  }
+
+  private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    val bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    content = Unpooled.wrappedBuffer(bytes);
   }
 }
@@ -19,6 +19,8 @@ package io.appulse.encon.terms.type;
 import static io.appulse.encon.terms.TermType.BIT_BINNARY;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Arrays;
+
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
@@ -27,7 +29,6 @@ import io.appulse.encon.terms.exception.ErlangTermValidationException;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -44,10 +45,6 @@ import lombok.val;
  */
 @Getter
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangBitString extends ErlangTerm {
 
@@ -111,6 +108,29 @@ public class ErlangBitString extends ErlangTerm {
     return bits.clone();
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangBitString)) {
+      return false;
+    }
+    ErlangBitString other = (ErlangBitString) obj;
+    return !hashCodesDiffer(other)
+           && pad == other.pad
+           && Arrays.equals(bits, other.bits);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return 31 * Arrays.hashCode(bits) + pad;
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     if (pad == 0) {
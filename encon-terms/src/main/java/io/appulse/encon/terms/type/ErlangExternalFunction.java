@@ -19,13 +19,14 @@ package io.appulse.encon.terms.type;
 import static io.appulse.encon.terms.TermType.EXTERNAL_FUNCTION;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Objects;
+
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -40,10 +41,6 @@ import lombok.val;
  */
 @Getter
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangExternalFunction extends ErlangTerm {
 
@@ -93,6 +90,32 @@ public class ErlangExternalFunction extends ErlangTerm {
     this.arity = arity;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangExternalFunction)) {
+      return false;
+    }
+    ErlangExternalFunction other = (ErlangExternalFunction) obj;
+    return !hashCodesDiffer(other)
+           && arity == other.arity
+           && Objects.equals(module, other.module)
+           && Objects.equals(name, other.name);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    int result = Objects.hashCode(module);
+    result = 31 * result + Objects.hashCode(name);
+    return 31 * result + arity;
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     Erlang.atom(module).writeTo(buffer);
@@ -28,7 +28,6 @@ import io.appulse.encon.terms.TermType;
 import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -41,10 +40,6 @@ import lombok.val;
  * @author Artem Labazin
  */
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangFloat extends ErlangTerm {
 
@@ -168,6 +163,28 @@ public class ErlangFloat extends ErlangTerm {
     return BigDecimal.valueOf(value);
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangFloat)) {
+      return false;
+    }
+    ErlangFloat other = (ErlangFloat) obj;
+    return !hashCodesDiffer(other)
+           && Double.compare(value, other.value) == 0;
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return Double.hashCode(value);
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
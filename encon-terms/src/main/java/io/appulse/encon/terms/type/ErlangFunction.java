@@ -21,8 +21,8 @@ import static io.appulse.encon.terms.TermType.NEW_FUNCTION;
 import static java.util.Optional.ofNullable;
 import static lombok.AccessLevel.PRIVATE;
 
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.Objects;
 
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
@@ -31,7 +31,6 @@ import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -46,10 +45,6 @@ import lombok.experimental.NonFinal;
  */
 @Getter
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangFunction extends ErlangTerm {
 
@@ -102,7 +97,7 @@ public class ErlangFunction extends ErlangTerm {
     } else if (type == NEW_FUNCTION) {
       buffer.readInt(); // skip size
 
-      arity = buffer.readByte();
+      arity = buffer.readUnsignedByte();
 
       md5 = new byte[16];
       buffer.readBytes(md5);
@@ -125,9 +120,10 @@ public class ErlangFunction extends ErlangTerm {
       throw new IllegalErlangTermTypeException(getClass(), type);
     }
 
-    variables = IntStream.range(0, freeVariablesCount)
-        .mapToObj(it -> ErlangTerm.newInstance(buffer))
-        .toArray(ErlangTerm[]::new);
+    variables = new ErlangTerm[freeVariablesCount];
+    for (int variable = 0; variable < freeVariablesCount; variable++) {
+      variables[variable] = ErlangTerm.newInstance(buffer);
+    }
   }
 
   @Builder
@@ -151,6 +147,42 @@ public class ErlangFunction extends ErlangTerm {
         .orElse(null);
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangFunction)) {
+      return false;
+    }
+    ErlangFunction other = (ErlangFunction) obj;
+    return !hashCodesDiffer(other)
+           && index == other.index
+           && unique == other.unique
+           && arity == other.arity
+           && oldIndex == other.oldIndex
+           && Objects.equals(pid, other.pid)
+           && Objects.equals(module, other.module)
+           && Arrays.equals(md5, other.md5)
+           && Arrays.equals(variables, other.variables);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    int result = Objects.hashCode(pid);
+    result = 31 * result + Objects.hashCode(module);
+    result = 31 * result + index;
+    result = 31 * result + unique;
+    result = 31 * result + arity;
+    result = 31 * result + oldIndex;
+    result = 31 * result + Arrays.hashCode(md5);
+    return 31 * result + Arrays.hashCode(variables);
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
@@ -160,8 +192,7 @@ public class ErlangFunction extends ErlangTerm {
       Erlang.atom(module).writeTo(buffer);
       Erlang.number(index).writeTo(buffer);
       Erlang.number(unique).writeTo(buffer);
-      Stream.of(variables)
-          .forEach(it -> it.writeTo(buffer));
+      writeVariables(buffer);
       break;
     case NEW_FUNCTION:
       int position1 = buffer.writerIndex();
@@ -175,8 +206,7 @@ public class ErlangFunction extends ErlangTerm {
       Erlang.number(oldIndex).writeTo(buffer);
       Erlang.number(unique).writeTo(buffer);
       pid.writeTo(buffer);
-      Stream.of(variables)
-          .forEach(it -> it.writeTo(buffer));
+      writeVariables(buffer);
 
       int position2 = buffer.writerIndex();
       buffer.writerIndex(position1);
@@ -187,4 +217,10 @@ public class ErlangFunction extends ErlangTerm {
       throw new IllegalErlangTermTypeException(getClass(), getType());
     }
   }
+
+  private void writeVariables (ByteBuf buffer) {
+    for (ErlangTerm variable : variables) {
+      variable.writeTo(buffer);
+    }
+  }
 }
@@ -20,20 +20,18 @@ import static io.appulse.encon.terms.TermType.INTEGER;
 import static io.appulse.encon.terms.TermType.LARGE_BIG;
 import static io.appulse.encon.terms.TermType.SMALL_BIG;
 import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
-import static java.math.BigInteger.ZERO;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Objects;
 
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
-import io.appulse.encon.terms.exception.ErlangTermDecodeException;
 import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -42,15 +40,18 @@ import lombok.val;
 
 /**
  * Erlang's integer number representation.
+ * <p>
+ * The values, which fit into {@code long}, are kept as the primitive,
+ * the {@link BigInteger} is created only for the bigger ones.
  *
  * @since 1.0.0
  * @author Artem Labazin
  */
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
+@SuppressWarnings({
+    "PMD.GodClass",
+    "PMD.NullAssignment"
+})
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangInteger extends ErlangTerm {
 
@@ -139,16 +140,58 @@ public class ErlangInteger extends ErlangTerm {
    * @return new or cached {@link ErlangInteger} object
    */
   public static ErlangInteger cached (BigInteger value) {
-    if (value.bitLength() < Long.BYTES) {
+    if (value.bitLength() < Long.SIZE) {
       return cached(value.longValue());
     }
     return new ErlangInteger(value);
   }
 
-  BigInteger value;
+  /**
+   * Tells if the {@code int} value, decoded from the specified type, could be re-created
+   * by {@link #cached(int)} without changing the term, so a container could keep it unboxed.
+   *
+   * @param type  the decoded value's type
+   *
+   * @param value the decoded value
+   *
+   * @return {@code true} if the value has its canonical type
+   */
+  static boolean isCanonical (TermType type, int value) {
+    if (type == SMALL_INTEGER) {
+      return true;
+    }
+    return type == INTEGER
+           && (value & MAX_SMALL_INTEGER) != value
+           && value >= MIN_INTEGER
+           && value <= MAX_INTEGER;
+  }
+
+  /**
+   * Writes the {@code int} value with its canonical type, the same way
+   * as the {@link #cached(int)} instance would do it.
+   *
+   * @param buffer the target buffer
+   *
+   * @param value  the value, which has its canonical type
+   */
+  static void writeCanonical (ByteBuf buffer, int value) {
+    if ((value & MAX_SMALL_INTEGER) == value) {
+      buffer.writeByte(SMALL_INTEGER.getCode());
+      buffer.writeByte(value);
+    } else {
+      buffer.writeByte(INTEGER.getCode());
+      buffer.writeInt(value);
+    }
+  }
+
+  // the value itself or the lowest 64 bits of the big value
+  long longValue;
+
+  // null if the value fits into long
+  BigInteger bigValue;
 
   @NonFinal
-  byte[] cachedMagnitude;
+  transient byte[] cachedMagnitude;
 
   /**
    * Constructs Erlang's term object with specific {@link TermType} from {@link ByteBuf}.
@@ -162,26 +205,48 @@ public class ErlangInteger extends ErlangTerm {
 
     switch (type) {
     case SMALL_INTEGER:
-      value = BigInteger.valueOf(buffer.readUnsignedByte());
+      longValue = buffer.readUnsignedByte();
+      bigValue = null;
       break;
     case INTEGER:
-      value = BigInteger.valueOf(buffer.readInt());
+      longValue = buffer.readInt();
+      bigValue = null;
       break;
     case SMALL_BIG:
     case LARGE_BIG:
-      val arity = type == SMALL_BIG
-                  ? buffer.readByte()
+      int arity = type == SMALL_BIG
+                  ? buffer.readUnsignedByte()
                   : buffer.readInt();
 
-      val sign = buffer.readByte();
-
-      val bytes = new byte[arity];
-      buffer.readBytes(bytes);
-      reverse(bytes);
+      byte sign = buffer.readByte();
+
+      BigInteger big;
+      if (arity <= Long.BYTES) {
+        long magnitude = readMagnitude(buffer, arity);
+        // Long.MIN_VALUE is its own magnitude
+        if (magnitude >= 0 || magnitude == Long.MIN_VALUE && sign != 0) {
+          longValue = sign == 0
+                      ? magnitude
+                      : -magnitude;
+          bigValue = null;
+          break;
+        }
+        big = BigInteger.valueOf(magnitude & Long.MAX_VALUE).setBit(Long.SIZE - 1);
+        if (sign != 0) {
+          big = big.negate();
+        }
+      } else {
+        val bytes = new byte[arity];
+        buffer.readBytes(bytes);
+        reverse(bytes);
 
-      value = sign == 0
-              ? new BigInteger(bytes)
-              : new BigInteger(bytes).negate();
+        // the digits are the magnitude, not the two's complement
+        big = new BigInteger(sign == 0 ? 1 : -1, bytes);
+      }
+      longValue = big.longValue();
+      bigValue = big.bitLength() < Long.SIZE
+                 ? null
+                 : big;
       break;
     default:
       throw new IllegalErlangTermTypeException(getClass(), type);
@@ -231,7 +296,8 @@ public class ErlangInteger extends ErlangTerm {
    */
   public ErlangInteger (long value) {
     super();
-    this.value = BigInteger.valueOf(value);
+    longValue = value;
+    bigValue = null;
     setupType(value);
   }
 
@@ -242,34 +308,59 @@ public class ErlangInteger extends ErlangTerm {
    */
   public ErlangInteger (@NonNull BigInteger value) {
     super();
-    this.value = value;
-    if (value.bitLength() < Long.BYTES) {
-      setupType(value.longValue());
+    longValue = value.longValue();
+    if (value.bitLength() < Long.SIZE) {
+      bigValue = null;
+      setupType(longValue);
     } else if (value.abs().toByteArray().length <= MAX_SMALL_BIG_BYTES_LENGTH) {
+      bigValue = value;
       setType(SMALL_BIG);
     } else {
+      bigValue = value;
       setType(LARGE_BIG);
     }
   }
 
+  // reads the little-endian magnitude of up to 8 bytes
+  private static long readMagnitude (ByteBuf buffer, int arity) {
+    long result = 0;
+    for (int index = 0; index < arity; index++) {
+      result |= (long) buffer.readUnsignedByte() << (index * Byte.SIZE);
+    }
+    return result;
+  }
+
+  private static void reverse (byte[] data) {
+    int left = 0;
+    int right = data.length - 1;
+    while (left < right) {
+      byte temp = data[left];
+      data[left] = data[right];
+      data[right] = temp;
+
+      left++;
+      right--;
+    }
+  }
+
   @Override
   public boolean isByte () {
-    return (value.bitLength() + 1) <= Byte.SIZE;
+    return bigValue == null && longValue == (byte) longValue;
   }
 
   @Override
   public boolean isShort () {
-    return (value.bitLength() + 1) <= Short.SIZE;
+    return bigValue == null && longValue == (short) longValue;
   }
 
   @Override
   public boolean isInt () {
-    return (value.bitLength() + 1) <= java.lang.Integer.SIZE;
+    return bigValue == null && longValue == (int) longValue;
   }
 
   @Override
   public boolean isLong () {
-    return (value.bitLength() + 1) <= Long.SIZE;
+    return bigValue == null;
   }
 
   @Override
@@ -279,125 +370,164 @@ public class ErlangInteger extends ErlangTerm {
 
   @Override
   public Number asNumber () {
-    return value;
+    return asBigInteger();
   }
 
   @Override
   public byte[] asBinary (byte[] defaultValue) {
-    return value.toByteArray();
+    return asBigInteger().toByteArray();
   }
 
   @Override
   public boolean asBoolean (boolean defaultValue) {
-    return value.equals(ZERO);
+    return bigValue == null && longValue == 0;
   }
 
   @Override
   public String asText (String defaultValue) {
-    return value.toString();
+    return bigValue == null
+           ? Long.toString(longValue)
+           : bigValue.toString();
   }
 
   @Override
   public byte asByte (byte defaultValue) {
-    return value.byteValue();
+    return (byte) longValue;
   }
 
   @Override
   public short asShort (short defaultValue) {
-    return value.shortValue();
+    return (short) longValue;
   }
 
   @Override
   public int asInt (int defaultValue) {
-    return value.intValue();
+    return (int) longValue;
   }
 
   @Override
   public long asLong (long defaultValue) {
-    return value.longValue();
+    return longValue;
   }
 
   @Override
   public BigInteger asBigInteger (BigInteger defaultValue) {
-    return value;
+    return bigValue == null
+           ? BigInteger.valueOf(longValue)
+           : bigValue;
   }
 
   @Override
   public float asFloat (float defaultValue) {
-    return value.floatValue();
+    return bigValue == null
+           ? (float) longValue
+           : bigValue.floatValue();
   }
 
   @Override
   public double asDouble (double defaultValue) {
-    return value.doubleValue();
+    return bigValue == null
+           ? (double) longValue
+           : bigValue.doubleValue();
   }
 
   @Override
   public BigDecimal asDecimal (BigDecimal defaultValue) {
-    return new BigDecimal(value);
+    return bigValue == null
+           ? BigDecimal.valueOf(longValue)
+           : new BigDecimal(bigValue);
+  }
+
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangInteger)) {
+      return false;
+    }
+    val other = (ErlangInteger) obj;
+    return !hashCodesDiffer(other)
+           && longValue == other.longValue
+           && Objects.equals(bigValue, other.bigValue);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return bigValue == null
+           ? Long.hashCode(longValue)
+           : bigValue.hashCode();
   }
 
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
     case SMALL_INTEGER:
-      buffer.writeByte(value.shortValue());
+      buffer.writeByte((int) longValue);
       break;
     case INTEGER:
-      buffer.writeInt(value.intValue());
+      buffer.writeInt((int) longValue);
       break;
     case SMALL_BIG:
     case LARGE_BIG:
-      if (cachedMagnitude == null) {
-        byte[] bytes = value.abs().toByteArray();
-        int index = 0;
-        for (; index < bytes.length && bytes[index] == 0; index++) {
-          // skip leading zeros
-        }
-
-        cachedMagnitude = Arrays.copyOfRange(bytes, index, bytes.length);
-        reverse(cachedMagnitude);
-      }
-
-      int length = cachedMagnitude.length;
-      if ((length & 0xFF) == length) {
-        buffer.writeByte(length); // length
+      if (bigValue == null) {
+        writeLongBig(buffer);
       } else {
-        buffer.writeInt(length); // length
+        writeBig(buffer);
       }
-      val sign = value.signum() < 0
-                 ? 1
-                 : 0;
-      buffer.writeByte(sign);
-      buffer.writeBytes(cachedMagnitude);
       break;
     default:
       throw new IllegalErlangTermTypeException(getClass(), getType());
     }
   }
 
-  private void setupType (long longValue) {
-    if ((longValue & MAX_SMALL_INTEGER) == longValue) {
-      setType(SMALL_INTEGER);
-    } else if (longValue >= MIN_INTEGER && longValue <= MAX_INTEGER) {
-      setType(INTEGER);
-    } else if (value.abs().toByteArray().length <= MAX_SMALL_BIG_BYTES_LENGTH) {
-      setType(SMALL_BIG);
-    } else {
-      throw new ErlangTermDecodeException();
+  private void writeLongBig (ByteBuf buffer) {
+    // Long.MIN_VALUE stays the same, but it is the right unsigned magnitude
+    val magnitude = Math.abs(longValue);
+    val length = (Long.SIZE - Long.numberOfLeadingZeros(magnitude) + Byte.SIZE - 1) / Byte.SIZE;
+    writeLength(buffer, length);
+    buffer.writeByte(longValue < 0 ? 1 : 0);
+    for (int index = 0; index < length; index++) {
+      buffer.writeByte((int) (magnitude >>> (index * Byte.SIZE)));
     }
   }
 
-  private void reverse (byte[] data) {
-    int left = 0;
-    int right = data.length - 1;
-    while (left < right) {
-      byte temp = data[left];
-      data[left] = data[right];
-      data[right] = temp;
+  private void writeBig (ByteBuf buffer) {
+    if (cachedMagnitude == null) {
+      byte[] bytes = bigValue.abs().toByteArray();
+      int index = 0;
+      for (; index < bytes.length && bytes[index] == 0; index++) {
+        // skip leading zeros
+      }
 
-      left++;
-      right--;
+      cachedMagnitude = Arrays.copyOfRange(bytes, index, bytes.length);
+      reverse(cachedMagnitude);
+    }
+
+    writeLength(buffer, cachedMagnitude.length);
+    buffer.writeByte(bigValue.signum() < 0 ? 1 : 0);
+    buffer.writeBytes(cachedMagnitude);
+  }
+
+  private void writeLength (ByteBuf buffer, int length) {
+    if (getType() == SMALL_BIG) {
+      buffer.writeByte(length);
+    } else {
+      buffer.writeInt(length);
+    }
+  }
+
+  private void setupType (long value) {
+    if ((value & MAX_SMALL_INTEGER) == value) {
+      setType(SMALL_INTEGER);
+    } else if (value >= MIN_INTEGER && value <= MAX_INTEGER) {
+      setType(INTEGER);
+    } else {
+      setType(SMALL_BIG);
     }
   }
 
@@ -406,7 +536,7 @@ public class ErlangInteger extends ErlangTerm {
 
     private static final int LOW = -128;
 
-    private static final int HIGH = 127;
+    private static final int HIGH = 255;
 
     private static final ErlangInteger[] CACHE;
 
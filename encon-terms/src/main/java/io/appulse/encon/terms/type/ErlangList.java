@@ -17,7 +17,9 @@
 package io.appulse.encon.terms.type;
 
 import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.terms.TermType.INTEGER;
 import static io.appulse.encon.terms.TermType.LIST;
+import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
 import static java.util.Optional.ofNullable;
 import static lombok.AccessLevel.PRIVATE;
 
@@ -25,21 +27,19 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Singular;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
-import lombok.val;
 
 /**
  * A list is a compound data type with a variable number of terms.
@@ -64,22 +64,29 @@ import lombok.val;
  * A list where the tail is a list is sometimes called a <b>proper list</b>.
  * It is allowed to have a list where the tail is not a list, for example, {@code [a|b]}.
  * However, this type of list is of little practical use.
+ * <p>
+ * A decoded list of small integers, like a not 8-bit Erlang string, keeps its elements
+ * as a plain {@code int} array, the {@link ErlangInteger} elements are created on demand.
  *
  * @since 1.0.0
  * @author Artem Labazin
  */
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
+@SuppressWarnings("PMD.NullAssignment")
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangList extends ErlangTerm {
 
   private static final long serialVersionUID = 6923705109793240922L;
 
+  private static final byte SMALL_INTEGER_CODE = SMALL_INTEGER.getCode();
+
+  private static final byte INTEGER_CODE = INTEGER.getCode();
+
   ErlangTerm[] elements;
 
+  // the compact form of the decoded small integers list, elements are null in that case
+  int[] codePoints;
+
   @Getter
   ErlangTerm tail;
 
@@ -93,11 +100,29 @@ public class ErlangList extends ErlangTerm {
   public ErlangList (TermType type, @NonNull ByteBuf buffer) {
     super(type);
 
-    val arity = buffer.readInt();
-    elements = IntStream.range(0, arity)
-        .boxed()
-        .map(it -> ErlangTerm.newInstance(buffer))
-        .toArray(ErlangTerm[]::new);
+    int arity = buffer.readInt();
+    // the arity comes from the wire, so the compact form is allocated only for an integers list's head
+    int[] integers = startsWithInteger(buffer, arity)
+                     ? new int[arity]
+                     : null;
+    int index = 0;
+    while (integers != null && index < arity && readCanonicalInteger(buffer, integers, index)) {
+      index++;
+    }
+
+    if (integers != null && index == arity) {
+      elements = null;
+      codePoints = integers;
+    } else {
+      elements = new ErlangTerm[arity];
+      for (int integer = 0; integer < index; integer++) {
+        elements[integer] = ErlangInteger.cached(integers[integer]);
+      }
+      for (; index < arity; index++) {
+        elements[index] = ErlangTerm.newInstance(buffer);
+      }
+      codePoints = null;
+    }
 
     tail = ErlangTerm.newInstance(buffer);
   }
@@ -120,6 +145,7 @@ public class ErlangList extends ErlangTerm {
     super(LIST);
 
     this.elements = elements.toArray(new ErlangTerm[0]);
+    codePoints = null;
     tail = NIL;
   }
 
@@ -138,9 +164,39 @@ public class ErlangList extends ErlangTerm {
         .map(it -> it.toArray(new ErlangTerm[0]))
         .orElse(new ErlangTerm[0]);
 
+    codePoints = null;
     this.tail = tail;
   }
 
+  // every integer element takes at least 2 bytes, so a shorter buffer couldn't hold the whole list
+  private static boolean startsWithInteger (ByteBuf buffer, int arity) {
+    if (arity <= 0 || buffer.readableBytes() < 2L * arity) {
+      return false;
+    }
+    byte code = buffer.getByte(buffer.readerIndex());
+    return code == SMALL_INTEGER_CODE || code == INTEGER_CODE;
+  }
+
+  private static boolean readCanonicalInteger (ByteBuf buffer, int[] integers, int index) {
+    int position = buffer.readerIndex();
+    byte code = buffer.getByte(position);
+    if (code == SMALL_INTEGER_CODE) {
+      integers[index] = buffer.getUnsignedByte(position + 1);
+      buffer.skipBytes(2);
+      return true;
+    }
+    if (code != INTEGER_CODE) {
+      return false;
+    }
+    int value = buffer.getInt(position + 1);
+    if (!ErlangInteger.isCanonical(INTEGER, value)) {
+      return false;
+    }
+    integers[index] = value;
+    buffer.skipBytes(1 + Integer.BYTES);
+    return true;
+  }
+
   /**
    * Is proper list or not.
    *
@@ -152,7 +208,18 @@ public class ErlangList extends ErlangTerm {
 
   @Override
   public boolean isTextual () {
-    return isProper() && Stream.of(elements).allMatch(ErlangTerm::isIntegralNumber);
+    if (!isProper()) {
+      return false;
+    }
+    if (codePoints != null) {
+      return true;
+    }
+    for (ErlangTerm element : elements) {
+      if (!element.isIntegralNumber()) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
@@ -160,12 +227,15 @@ public class ErlangList extends ErlangTerm {
     if (!isTextual()) {
       return defaultValue;
     }
+    if (codePoints != null) {
+      return new String(codePoints, 0, codePoints.length);
+    }
 
-    val codePoints = Stream.of(elements)
-        .mapToInt(ErlangTerm::asInt)
-        .toArray();
-
-    return new String(codePoints, 0, codePoints.length);
+    int[] integers = new int[elements.length];
+    for (int index = 0; index < integers.length; index++) {
+      integers[index] = elements[index].asInt();
+    }
+    return new String(integers, 0, integers.length);
   }
 
   @Override
@@ -175,25 +245,113 @@ public class ErlangList extends ErlangTerm {
 
   @Override
   public Iterator<ErlangTerm> elements () {
-    return Stream.of(elements).iterator();
+    if (codePoints != null) {
+      return new CodePointsIterator(codePoints);
+    }
+    return Arrays.asList(elements).iterator();
   }
 
   @Override
   public ErlangTerm getUnsafe (int index) {
+    if (codePoints != null) {
+      return ErlangInteger.cached(codePoints[index]);
+    }
     return elements[index];
   }
 
   @Override
   public int size () {
-    return elements.length;
+    return codePoints == null
+           ? elements.length
+           : codePoints.length;
+  }
+
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangList)) {
+      return false;
+    }
+    ErlangList other = (ErlangList) obj;
+    return !hashCodesDiffer(other)
+           && Objects.equals(tail, other.tail)
+           && elementsEqual(other);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    int result = 1;
+    int size = size();
+    for (int index = 0; index < size; index++) {
+      ErlangTerm element = getUnsafe(index);
+      result = 31 * result + (element == null ? 0 : element.hashCode());
+    }
+    return 59 * (59 + result) + (tail == null ? 43 : tail.hashCode());
+  }
+
+  private boolean elementsEqual (ErlangList other) {
+    if (codePoints != null && other.codePoints != null) {
+      return Arrays.equals(codePoints, other.codePoints);
+    }
+    int size = size();
+    if (size != other.size()) {
+      return false;
+    }
+    for (int index = 0; index < size; index++) {
+      if (!Objects.equals(getUnsafe(index), other.getUnsafe(index))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   protected void serialize (ByteBuf buffer) {
-    buffer.writeInt(elements.length);
-    Stream.of(elements)
-        .forEachOrdered(it -> it.writeTo(buffer));
+    if (codePoints == null) {
+      buffer.writeInt(elements.length);
+      for (ErlangTerm element : elements) {
+        element.writeTo(buffer);
+      }
+    } else {
+      buffer.writeInt(codePoints.length);
+      for (int codePoint : codePoints) {
+        ErlangInteger.writeCanonical(buffer, codePoint);
+      }
+    }
 
     tail.writeTo(buffer);
   }
+
+  @FieldDefaults(level = PRIVATE)
+  @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+  private static final class CodePointsIterator implements Iterator<ErlangTerm> {
+
+    final int[] codePoints;
+
+    int index;
+
+    CodePointsIterator (int[] codePoints) {
+      super();
+      this.codePoints = codePoints;
+    }
+
+    @Override
+    public boolean hasNext () {
+      return index < codePoints.length;
+    }
+
+    @Override
+    public ErlangTerm next () {
+      if (index >= codePoints.length) {
+        throw new NoSuchElementException();
+      }
+      return ErlangInteger.cached(codePoints[index++]);
+    }
+  }
 }
@@ -17,27 +17,26 @@
 package io.appulse.encon.terms.type;
 
 import static io.appulse.encon.terms.TermType.MAP;
-import static java.util.stream.Collectors.toMap;
 import static lombok.AccessLevel.PRIVATE;
 
-import java.util.AbstractMap.SimpleEntry;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
-import java.util.function.BinaryOperator;
-import java.util.function.IntFunction;
-import java.util.stream.IntStream;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 import io.appulse.encon.terms.exception.ErlangTermDecodeException;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
-import lombok.val;
+import lombok.experimental.NonFinal;
 
 /**
  * A map is a compound data type with a variable number of key-value associations.
@@ -45,22 +44,41 @@ import lombok.val;
  * Each key-value association in the map is called an <b>association pair</b>.
  * The key and value parts of the pair are called <b>elements</b>.
  * The number of association pairs is said to be the <b>size</b> of the map.
+ * <p>
+ * The pairs are kept in the insertion order, in two parallel arrays of keys and values.
+ * The small maps are scanned linearly, comparing the keys by identity first, so the interned atom
+ * keys are found without {@code equals} calls. The bigger ones have an open-addressing hash index.
+ * The hot paths could traverse the pairs by a {@link #cursor()}, which doesn't create an entry per pair.
  *
  * @since 1.0.0
  * @author Artem Labazin
  */
-@ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
-@SuppressWarnings("PMD.LooseCoupling") // we realy need to use LinkedHashMap
+@ToString(of = {
+    "keys",
+    "values"
+})
+@SuppressWarnings({
+    "PMD.LooseCoupling", // we realy need to use LinkedHashMap
+    "PMD.NullAssignment"
+})
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangMap extends ErlangTerm {
 
   private static final long serialVersionUID = -4889715199209923662L;
 
-  LinkedHashMap<? extends ErlangTerm, ? extends ErlangTerm> map;
+  // the maps of this size and less are scanned linearly
+  private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+  ErlangTerm[] keys;
+
+  ErlangTerm[] values;
+
+  // the keys' hash codes and the open-addressing table of (index + 1), null for the small maps
+  @NonFinal
+  transient int[] hashes;
+
+  @NonFinal
+  transient int[] table;
 
   /**
    * Constructs Erlang term object with specific {@link TermType} from {@link ByteBuf}.
@@ -72,19 +90,14 @@ public class ErlangMap extends ErlangTerm {
   public ErlangMap (TermType type, @NonNull ByteBuf buffer) {
     super(type);
 
-    IntFunction<ErlangTerm[]> mapFunction = it -> new ErlangTerm[] {
-        ErlangTerm.newInstance(buffer),
-        ErlangTerm.newInstance(buffer)
-    };
-
-    BinaryOperator<ErlangTerm> mergeFunction = (left, right) -> {
-      throw new ErlangTermDecodeException("Duplicate key " + left);
-    };
-
-    val arity = buffer.readInt();
-    map = IntStream.range(0, arity)
-        .mapToObj(mapFunction)
-        .collect(toMap(it -> it[0], it -> it[1], mergeFunction, LinkedHashMap::new));
+    int arity = buffer.readInt();
+    keys = new ErlangTerm[arity];
+    values = new ErlangTerm[arity];
+    for (int index = 0; index < arity; index++) {
+      keys[index] = ErlangTerm.newInstance(buffer);
+      values[index] = ErlangTerm.newInstance(buffer);
+    }
+    index();
   }
 
   /**
@@ -94,7 +107,23 @@ public class ErlangMap extends ErlangTerm {
    */
   public ErlangMap (@NonNull LinkedHashMap<? extends ErlangTerm, ? extends ErlangTerm> map) {
     super(MAP);
-    this.map = map;
+
+    int size = map.size();
+    keys = new ErlangTerm[size];
+    values = new ErlangTerm[size];
+
+    int index = 0;
+    for (Entry<? extends ErlangTerm, ? extends ErlangTerm> entry : map.entrySet()) {
+      keys[index] = entry.getKey();
+      values[index] = entry.getValue();
+      index++;
+    }
+    index();
+  }
+
+  private static int hash (Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
   }
 
   @Override
@@ -104,54 +133,288 @@ public class ErlangMap extends ErlangTerm {
 
   @Override
   public Iterator<ErlangTerm> elements () {
-    return map.values()
-        .stream()
-        .map(it -> (ErlangTerm) it)
-        .iterator();
+    return new ArrayIterator(values);
   }
 
   @Override
   public Iterator<Entry<ErlangTerm, ErlangTerm>> fields () {
-    return map.entrySet()
-        .stream()
-        .map(it -> new SimpleEntry<>(
-            it.getKey(),
-            it.getValue()
-        ))
-        .map(it -> (Entry<ErlangTerm, ErlangTerm>) it)
-        .iterator();
+    return new EntryIterator();
   }
 
   @Override
   public Iterator<ErlangTerm> fieldNames () {
-    return map.keySet()
-        .stream()
-        .map(it -> (ErlangTerm) it)
-        .iterator();
+    return new ArrayIterator(keys);
+  }
+
+  /**
+   * Returns a cursor over the map's association pairs, in their insertion order.
+   * Unlike the {@link #fields()} iterator, it doesn't create an entry per pair.
+   *
+   * @return a new cursor, positioned before the first pair
+   *
+   * @since 1.6.11
+   */
+  public Cursor cursor () {
+    return new Cursor();
   }
 
   @Override
   public ErlangTerm getUnsafe (ErlangTerm term) {
-    return map.get(term);
+    if (term == null) {
+      return null;
+    }
+    int index = indexOf(term);
+    return index < 0
+           ? null
+           : values[index];
   }
 
   @Override
   public ErlangTerm getUnsafe (int index) {
-    val term = new ErlangInteger(index);
-    return map.get(term);
+    // the same lookup as for the ErlangInteger key, but without its instance
+    if (table == null) {
+      for (int position = 0; position < keys.length; position++) {
+        if (isInteger(keys[position], index)) {
+          return values[position];
+        }
+      }
+      return null;
+    }
+
+    int hash = Long.hashCode(index);
+    hash ^= hash >>> 16;
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int position = table[slot] - 1;
+      if (hashes[position] == hash && isInteger(keys[position], index)) {
+        return values[position];
+      }
+    }
+    return null;
   }
 
   @Override
   public int size () {
-    return map.size();
+    return keys.length;
+  }
+
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangMap)) {
+      return false;
+    }
+    ErlangMap other = (ErlangMap) obj;
+    if (hashCodesDiffer(other) || keys.length != other.keys.length) {
+      return false;
+    }
+    for (int index = 0; index < keys.length; index++) {
+      int otherIndex = other.indexOf(keys[index]);
+      if (otherIndex < 0 || !Objects.equals(values[index], other.values[otherIndex])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected int computeHashCode () {
+    // the same as the java.util.Map's hash code
+    int result = 0;
+    for (int index = 0; index < keys.length; index++) {
+      result += Objects.hashCode(keys[index]) ^ Objects.hashCode(values[index]);
+    }
+    return result;
   }
 
   @Override
   protected void serialize (ByteBuf buffer) {
-    buffer.writeInt(map.size());
-    map.entrySet().forEach(it -> {
-      it.getKey().writeTo(buffer);
-      it.getValue().writeTo(buffer);
-    });
+    buffer.writeInt(keys.length);
+    for (int index = 0; index < keys.length; index++) {
+      keys[index].writeTo(buffer);
+      values[index].writeTo(buffer);
+    }
+  }
+
+  private boolean isInteger (ErlangTerm term, int value) {
+    return term instanceof ErlangInteger && term.isLong() && term.asLong() == value;
+  }
+
+  private int indexOf (ErlangTerm key) {
+    if (table == null) {
+      for (int index = 0; index < keys.length; index++) {
+        if (keys[index] == key) {
+          return index;
+        }
+      }
+      for (int index = 0; index < keys.length; index++) {
+        if (keys[index].equals(key)) {
+          return index;
+        }
+      }
+      return -1;
+    }
+
+    int hash = hash(key);
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int index = table[slot] - 1;
+      if (keys[index] == key || hashes[index] == hash && keys[index].equals(key)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  // builds the hash index of the big maps and checks the keys' uniqueness
+  private void index () {
+    if (keys.length <= LINEAR_SCAN_THRESHOLD) {
+      hashes = null;
+      table = null;
+      for (int index = 1; index < keys.length; index++) {
+        for (int previous = 0; previous < index; previous++) {
+          if (keys[previous].equals(keys[index])) {
+            throw new ErlangTermDecodeException("Duplicate key " + keys[index]);
+          }
+        }
+      }
+      return;
+    }
+
+    int[] newHashes = new int[keys.length];
+    int[] newTable = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+    int mask = newTable.length - 1;
+    for (int index = 0; index < keys.length; index++) {
+      int hash = hash(keys[index]);
+      newHashes[index] = hash;
+
+      int slot = hash & mask;
+      for (; newTable[slot] != 0; slot = (slot + 1) & mask) {
+        int previous = newTable[slot] - 1;
+        if (newHashes[previous] == hash && keys[previous].equals(keys[index])) {
+          throw new ErlangTermDecodeException("Duplicate key " + keys[index]);
+        }
+      }
+      newTable[slot] = index + 1;
+    }
+    hashes = newHashes;
+    table = newTable;
+  }
+
+  private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    index();
+  }
+
+  @FieldDefaults(level = PRIVATE)
+  @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+  private static final class ArrayIterator implements Iterator<ErlangTerm> {
+
+    final ErlangTerm[] array;
+
+    int index;
+
+    ArrayIterator (ErlangTerm[] array) {
+      super();
+      this.array = array;
+    }
+
+    @Override
+    public boolean hasNext () {
+      return index < array.length;
+    }
+
+    @Override
+    public ErlangTerm next () {
+      if (index >= array.length) {
+        throw new NoSuchElementException();
+      }
+      return array[index++];
+    }
+  }
+
+  @FieldDefaults(level = PRIVATE)
+  private final class EntryIterator implements Iterator<Entry<ErlangTerm, ErlangTerm>> {
+
+    int index;
+
+    @Override
+    public boolean hasNext () {
+      return index < keys.length;
+    }
+
+    @Override
+    public Entry<ErlangTerm, ErlangTerm> next () {
+      if (index >= keys.length) {
+        throw new NoSuchElementException();
+      }
+      Entry<ErlangTerm, ErlangTerm> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+      index++;
+      return entry;
+    }
+  }
+
+  /**
+   * A cursor over the map's association pairs. Its key and value are the current pair's ones,
+   * after the {@link #next()} call returned {@code true}.
+   *
+   * @since 1.6.11
+   */
+  @FieldDefaults(level = PRIVATE)
+  public final class Cursor {
+
+    int index = -1;
+
+    Cursor () {
+      super();
+    }
+
+    /**
+     * Moves the cursor to the next pair.
+     *
+     * @return {@code true} if there is the next pair, {@code false} if the pairs are over
+     */
+    public boolean next () {
+      if (index < keys.length) {
+        index++;
+      }
+      return index < keys.length;
+    }
+
+    /**
+     * Returns the current pair's key.
+     *
+     * @return the key
+     *
+     * @throws NoSuchElementException if the cursor is not on a pair
+     */
+    public ErlangTerm getKey () {
+      checkPosition();
+      return keys[index];
+    }
+
+    /**
+     * Returns the current pair's value.
+     *
+     * @return the value
+     *
+     * @throws NoSuchElementException if the cursor is not on a pair
+     */
+    public ErlangTerm getValue () {
+      checkPosition();
+      return values[index];
+    }
+
+    private void checkPosition () {
+      if (index < 0 || index >= keys.length) {
+        throw new NoSuchElementException();
+      }
+    }
   }
 }
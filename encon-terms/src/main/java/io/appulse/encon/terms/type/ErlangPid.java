@@ -20,6 +20,8 @@ import static io.appulse.encon.terms.TermType.PID;
 import static java.util.Optional.ofNullable;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Objects;
+
 import io.appulse.encon.common.NodeDescriptor;
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
@@ -28,7 +30,6 @@ import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.FieldDefaults;
@@ -41,10 +42,6 @@ import lombok.experimental.NonFinal;
  * @author Artem Labazin
  */
 @Getter
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangPid extends ErlangTerm {
 
@@ -70,7 +67,8 @@ public class ErlangPid extends ErlangTerm {
    */
   public ErlangPid (TermType type, @NonNull ByteBuf buffer) {
     super(type);
-    node = ErlangTerm.newInstance(buffer);
+    node = DecodeContext.readNode(buffer);
+    descriptor = DecodeContext.descriptorOf(node);
 
     switch (type) {
     case PID:
@@ -137,6 +135,34 @@ public class ErlangPid extends ErlangTerm {
     return descriptor;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangPid)) {
+      return false;
+    }
+    ErlangPid other = (ErlangPid) obj;
+    return !hashCodesDiffer(other)
+           && id == other.id
+           && serial == other.serial
+           && creation == other.creation
+           && Objects.equals(node, other.node);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    int result = Objects.hashCode(node);
+    result = 31 * result + id;
+    result = 31 * result + serial;
+    return 31 * result + creation;
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     node.writeTo(buffer);
@@ -20,7 +20,8 @@ import static io.appulse.encon.terms.TermType.NEW_REFERENCE;
 import static java.util.Optional.ofNullable;
 import static lombok.AccessLevel.PRIVATE;
 
-import java.util.stream.LongStream;
+import java.util.Arrays;
+import java.util.Objects;
 
 import io.appulse.encon.common.NodeDescriptor;
 import io.appulse.encon.terms.Erlang;
@@ -30,7 +31,6 @@ import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.experimental.FieldDefaults;
@@ -43,10 +43,6 @@ import lombok.experimental.NonFinal;
  * @author Artem Labazin
  */
 @Getter
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangReference extends ErlangTerm {
 
@@ -75,7 +71,8 @@ public class ErlangReference extends ErlangTerm {
 
     switch (getType()) {
     case REFERENCE:
-      node = ErlangTerm.newInstance(buffer);
+      node = DecodeContext.readNode(buffer);
+      descriptor = DecodeContext.descriptorOf(node);
       ids = new long[] { buffer.readInt() & 0x3FFFF };
       creation = buffer.readByte() & 0x03;
       return;
@@ -91,7 +88,8 @@ public class ErlangReference extends ErlangTerm {
       throw new IllegalArgumentException("Maximum arity value is " + MAX_REFERENCE_ARITY + ", but was " + arity);
     }
 
-    node = ErlangTerm.newInstance(buffer);
+    node = DecodeContext.readNode(buffer);
+    descriptor = DecodeContext.descriptorOf(node);
 
     if (getType() == NEW_REFERENCE) {
       creation = buffer.readByte() & 0x3;
@@ -99,9 +97,10 @@ public class ErlangReference extends ErlangTerm {
       creation = buffer.readInt();
     }
 
-    ids = LongStream.range(0, arity)
-        .map(it -> buffer.readInt() & 0xFFFFFFFFL)
-        .toArray();
+    ids = new long[arity];
+    for (int index = 0; index < arity; index++) {
+      ids[index] = buffer.readUnsignedInt();
+    }
 
     if (getType() == NEW_REFERENCE) {
       ids[0] &= 0x3FFFF;
@@ -182,6 +181,32 @@ public class ErlangReference extends ErlangTerm {
     return descriptor;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangReference)) {
+      return false;
+    }
+    ErlangReference other = (ErlangReference) obj;
+    return !hashCodesDiffer(other)
+           && creation == other.creation
+           && Objects.equals(node, other.node)
+           && Arrays.equals(ids, other.ids);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    int result = Objects.hashCode(node);
+    result = 31 * result + Arrays.hashCode(ids);
+    return 31 * result + creation;
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
@@ -211,8 +236,8 @@ public class ErlangReference extends ErlangTerm {
       buffer.writeInt((int) ids[0]);
     }
 
-    LongStream.of(ids)
-        .skip(1)
-        .forEachOrdered(it -> buffer.writeInt((int) it));
+    for (int index = 1; index < ids.length; index++) {
+      buffer.writeInt((int) ids[index]);
+    }
   }
 }
@@ -21,12 +21,13 @@ import static io.appulse.encon.terms.TermType.STRING;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Objects;
+
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
 
 import io.netty.buffer.ByteBuf;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.experimental.FieldDefaults;
@@ -41,10 +42,6 @@ import lombok.val;
  * @author Artem Labazin
  */
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangString extends ErlangTerm {
 
@@ -62,7 +59,7 @@ public class ErlangString extends ErlangTerm {
   public ErlangString (TermType type, @NonNull ByteBuf buffer) {
     super(type);
 
-    val length = buffer.readShort();
+    val length = buffer.readUnsignedShort();
     value = buffer.readCharSequence(length, ISO_8859_1).toString();
   }
 
@@ -87,6 +84,28 @@ public class ErlangString extends ErlangTerm {
     return value;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangString)) {
+      return false;
+    }
+    ErlangString other = (ErlangString) obj;
+    return !hashCodesDiffer(other)
+           && Objects.equals(value, other.value);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return Objects.hashCode(value);
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     val positionBefore = buffer.writerIndex() - 1;
@@ -103,13 +122,14 @@ public class ErlangString extends ErlangTerm {
       buffer.writeCharSequence(value, ISO_8859_1);
       break;
     case LIST:
-      val elements = value.codePoints()
-          .boxed()
-          .map(ErlangInteger::cached)
-          .toArray(ErlangInteger[]::new);
-
-      buffer.writerIndex(positionBefore);
-      Erlang.list(elements).writeTo(buffer);
+      buffer.writeInt(value.codePointCount(0, length));
+      int index = 0;
+      while (index < length) {
+        val codePoint = value.codePointAt(index);
+        ErlangInteger.writeCanonical(buffer, codePoint);
+        index += Character.charCount(codePoint);
+      }
+      Erlang.NIL.writeTo(buffer);
       break;
     default:
       buffer.writerIndex(positionBefore);
@@ -23,8 +23,6 @@ import static lombok.AccessLevel.PRIVATE;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.TermType;
@@ -32,7 +30,6 @@ import io.appulse.encon.terms.exception.IllegalErlangTermTypeException;
 
 import io.netty.buffer.ByteBuf;
 import lombok.Builder;
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.Singular;
 import lombok.ToString;
@@ -48,10 +45,6 @@ import lombok.experimental.FieldDefaults;
  * @author Artem Labazin
  */
 @ToString
-@EqualsAndHashCode(
-    callSuper = false,
-    doNotUseGetters = false
-)
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ErlangTuple extends ErlangTerm {
 
@@ -74,7 +67,7 @@ public class ErlangTuple extends ErlangTerm {
     int arity;
     switch (getType()) {
     case SMALL_TUPLE:
-      arity = buffer.readByte();
+      arity = buffer.readUnsignedByte();
       break;
     case LARGE_TUPLE:
       arity = buffer.readInt();
@@ -83,9 +76,10 @@ public class ErlangTuple extends ErlangTerm {
       throw new IllegalErlangTermTypeException(getClass(), getType());
     }
 
-    elements = IntStream.range(0, arity)
-        .mapToObj(it -> ErlangTerm.newInstance(buffer))
-        .toArray(ErlangTerm[]::new);
+    elements = new ErlangTerm[arity];
+    for (int index = 0; index < arity; index++) {
+      elements[index] = ErlangTerm.newInstance(buffer);
+    }
   }
 
   /**
@@ -121,7 +115,7 @@ public class ErlangTuple extends ErlangTerm {
 
   @Override
   public Iterator<ErlangTerm> elements () {
-    return Stream.of(elements).iterator();
+    return Arrays.asList(elements).iterator();
   }
 
   @Override
@@ -134,6 +128,28 @@ public class ErlangTuple extends ErlangTerm {
     return elements.length;
   }
 
+  @Override
+  @SuppressWarnings({
+      "PMD.OverrideBothEqualsAndHashcode",
+      "checkstyle:EqualsHashCode"
+  })
+  public boolean equals (Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!(obj instanceof ErlangTuple)) {
+      return false;
+    }
+    ErlangTuple other = (ErlangTuple) obj;
+    return !hashCodesDiffer(other)
+           && Arrays.equals(elements, other.elements);
+  }
+
+  @Override
+  protected int computeHashCode () {
+    return Arrays.hashCode(elements);
+  }
+
   @Override
   protected void serialize (ByteBuf buffer) {
     switch (getType()) {
@@ -146,7 +162,8 @@ public class ErlangTuple extends ErlangTerm {
     default:
       throw new IllegalErlangTermTypeException(getClass(), getType());
     }
-    Stream.of(elements)
-        .forEachOrdered(it -> it.writeTo(buffer));
+    for (ErlangTerm element : elements) {
+      element.writeTo(buffer);
+    }
   }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.stream;
+
+import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.binary;
+import static io.appulse.encon.terms.Erlang.bitstr;
+import static io.appulse.encon.terms.Erlang.list;
+import static io.appulse.encon.terms.Erlang.map;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.string;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static io.appulse.encon.terms.stream.TermEvent.ATOM;
+import static io.appulse.encon.terms.stream.TermEvent.BINARY;
+import static io.appulse.encon.terms.stream.TermEvent.END_LIST;
+import static io.appulse.encon.terms.stream.TermEvent.END_MAP;
+import static io.appulse.encon.terms.stream.TermEvent.END_TUPLE;
+import static io.appulse.encon.terms.stream.TermEvent.FLOAT;
+import static io.appulse.encon.terms.stream.TermEvent.INTEGER;
+import static io.appulse.encon.terms.stream.TermEvent.START_LIST;
+import static io.appulse.encon.terms.stream.TermEvent.START_MAP;
+import static io.appulse.encon.terms.stream.TermEvent.START_TUPLE;
+import static io.appulse.encon.terms.stream.TermEvent.STRING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangExternalFunction;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangPort;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import io.netty.buffer.Unpooled;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class TermReaderTest {
+
+  @Test
+  public void events () {
+    val term = tuple(
+        atom("ok"),
+        list(number(1), number(2.5D)),
+        map(atom("key"), binary(new byte[] { 1, 2, 3 })),
+        string("abc")
+    );
+    val reader = TermReader.of(Unpooled.wrappedBuffer(term.toBytes()));
+
+    List<TermEvent> events = new ArrayList<>();
+    for (TermEvent event = reader.next(); event != null; event = reader.next()) {
+      events.add(event);
+    }
+
+    assertThat(events).containsExactly(
+        START_TUPLE,
+        ATOM,
+        START_LIST, INTEGER, FLOAT, TermEvent.NIL, END_LIST,
+        START_MAP, ATOM, BINARY, END_MAP,
+        STRING,
+        END_TUPLE
+    );
+    assertThat(reader.hasNext()).isFalse();
+  }
+
+  @Test
+  public void values () {
+    val term = tuple(
+        atom("привет"),
+        number(-7),
+        number(2.5D),
+        binary(new byte[] { 1, 2, 3 }),
+        string("abc")
+    );
+    val reader = TermReader.of(ByteBuffer.wrap(term.toBytes()));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(reader.next())
+          .isEqualTo(START_TUPLE);
+
+      softly.assertThat(reader.getArity())
+          .isEqualTo(5);
+
+      reader.next();
+      softly.assertThat(reader.getText())
+          .isEqualTo("привет");
+
+      softly.assertThat(reader.getBytes().toString(UTF_8))
+          .isEqualTo("привет");
+
+      reader.next();
+      softly.assertThat(reader.getLong())
+          .isEqualTo(-7);
+
+      reader.next();
+      softly.assertThat(reader.getDouble())
+          .isEqualTo(2.5D);
+
+      reader.next();
+      softly.assertThat(reader.getLength())
+          .isEqualTo(3);
+
+      softly.assertThat(reader.getBytes().getByte(2))
+          .isEqualTo((byte) 3);
+
+      reader.next();
+      softly.assertThat(reader.getText())
+          .isEqualTo("abc");
+
+      softly.assertThat(reader.next())
+          .isEqualTo(END_TUPLE);
+
+      softly.assertThat(reader.next())
+          .isNull();
+    });
+  }
+
+  @Test
+  public void integers () {
+    val big = BigInteger.ONE.shiftLeft(70);
+    val term = list(
+        number(200),
+        number(Long.MAX_VALUE),
+        number(Long.MIN_VALUE),
+        number(big)
+    );
+    val reader = TermReader.of(Unpooled.wrappedBuffer(term.toBytes()));
+    reader.next();
+
+    SoftAssertions.assertSoftly(softly -> {
+      reader.next();
+      softly.assertThat(reader.getInt())
+          .isEqualTo(200);
+
+      reader.next();
+      softly.assertThat(reader.getLong())
+          .isEqualTo(Long.MAX_VALUE);
+
+      reader.next();
+      softly.assertThat(reader.getLong())
+          .isEqualTo(Long.MIN_VALUE);
+
+      softly.assertThat(reader.getBigInteger())
+          .isEqualTo(BigInteger.valueOf(Long.MIN_VALUE));
+
+      reader.next();
+      softly.assertThat(reader.getBigInteger())
+          .isEqualTo(big);
+
+      softly.assertThatThrownBy(reader::getLong)
+          .isInstanceOf(ArithmeticException.class);
+
+      softly.assertThatThrownBy(reader::getText)
+          .isInstanceOf(IllegalStateException.class);
+    });
+  }
+
+  @Test
+  public void skipChildren () {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    val reference = ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 1, 2, 3 })
+        .build();
+
+    val port = ErlangPort.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    val payload = tuple(
+        pid,
+        reference,
+        port,
+        new ErlangExternalFunction("lists", "map", 2),
+        list(NIL, list(atom("tail")), map(number(1), number(2.5D))),
+        bitstr(new byte[] { 1, 2 }, 3),
+        number(BigInteger.TEN.pow(30)),
+        string("abc")
+    );
+    val term = tuple(atom("message"), payload, number(42));
+    val reader = TermReader.of(Unpooled.wrappedBuffer(term.toBytes()));
+
+    SoftAssertions.assertSoftly(softly -> {
+      reader.next();
+      reader.next();
+      softly.assertThat(reader.next())
+          .isEqualTo(START_TUPLE);
+
+      reader.skipChildren();
+      softly.assertThat(reader.getCurrent())
+          .isEqualTo(END_TUPLE);
+
+      softly.assertThat(reader.getDepth())
+          .isEqualTo(1);
+
+      reader.next();
+      softly.assertThat(reader.getLong())
+          .isEqualTo(42);
+
+      softly.assertThat(reader.next())
+          .isEqualTo(END_TUPLE);
+
+      softly.assertThat(reader.hasNext())
+          .isFalse();
+    });
+  }
+
+  @Test
+  public void getTerm () {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    val inner = list(number(1), atom("two"));
+    val term = tuple(pid, inner, atom("last"));
+    val reader = TermReader.of(Unpooled.wrappedBuffer(term.toBytes()));
+    reader.next();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(reader.next())
+          .isEqualTo(TermEvent.PID);
+
+      softly.assertThat((ErlangTerm) reader.getTerm())
+          .isEqualTo(pid);
+
+      softly.assertThat(reader.next())
+          .isEqualTo(START_LIST);
+
+      softly.assertThat((ErlangTerm) reader.getTerm())
+          .isEqualTo(inner);
+
+      softly.assertThat(reader.getCurrent())
+          .isEqualTo(END_LIST);
+
+      reader.next();
+      softly.assertThat((ErlangTerm) reader.getTerm())
+          .isEqualTo(atom("last"));
+    });
+
+    assertThatThrownBy(() -> TermReader.of(Unpooled.wrappedBuffer(new byte[] { 0 })).next())
+        .hasMessageContaining("Unsupported term type");
+  }
+}
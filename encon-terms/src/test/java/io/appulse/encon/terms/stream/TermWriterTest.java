@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.terms.stream;
+
+import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.binary;
+import static io.appulse.encon.terms.Erlang.list;
+import static io.appulse.encon.terms.Erlang.map;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.string;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static io.appulse.encon.terms.TermType.INTEGER;
+import static io.appulse.encon.terms.TermType.LARGE_TUPLE;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.SMALL_BIG;
+import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.TermType;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class TermWriterTest {
+
+  @Test
+  public void write () {
+    val buffer = Unpooled.buffer();
+    TermWriter.of(buffer)
+        .startTuple(4)
+            .writeAtom("ok")
+            .startList(3)
+                .writeLong(1)
+                .writeDouble(2.5D)
+                .writeString("abc")
+            .end()
+            .startMap(1)
+                .writeAtom("key")
+                .writeBinary(ByteBuffer.wrap(new byte[] { 1, 2, 3 }))
+            .end()
+            .startList(0)
+            .end()
+        .end();
+
+    val expected = tuple(
+        atom("ok"),
+        list(number(1), number(2.5D), string("abc")),
+        map(atom("key"), binary(new byte[] { 1, 2, 3 })),
+        NIL
+    );
+    assertThat(decode(buffer)).isEqualTo(expected);
+  }
+
+  @Test
+  public void smallestEncodings () {
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(type(writer -> writer.writeLong(255)))
+          .isEqualTo(SMALL_INTEGER);
+
+      softly.assertThat(type(writer -> writer.writeLong(-1)))
+          .isEqualTo(INTEGER);
+
+      softly.assertThat(type(writer -> writer.writeLong(Long.MAX_VALUE)))
+          .isEqualTo(SMALL_BIG);
+
+      softly.assertThat(type(writer -> writer.writeAtom("ok")))
+          .isEqualTo(SMALL_ATOM_UTF8);
+
+      softly.assertThat(type(writer -> writer.startTuple(300)))
+          .isEqualTo(LARGE_TUPLE);
+    });
+  }
+
+  @Test
+  public void integers () {
+    val big = BigInteger.ONE.shiftLeft(100).negate();
+    for (long value : new long[] { 0, 255, 256, -1, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                                   Long.MAX_VALUE, Long.MIN_VALUE, 1L << 40, -(1L << 40) }) {
+      val buffer = Unpooled.buffer();
+      TermWriter.of(buffer).writeLong(value);
+      assertThat(decode(buffer)).isEqualTo(number(value));
+    }
+
+    val buffer = Unpooled.buffer();
+    TermWriter.of(buffer).writeBigInteger(big);
+    assertThat(decode(buffer)).isEqualTo(number(big));
+  }
+
+  @Test
+  public void strings () {
+    val buffer = Unpooled.buffer();
+    TermWriter.of(buffer)
+        .writeString("")
+        .writeString("latin")
+        .writeString("привет");
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(decode(buffer))
+          .isEqualTo(NIL);
+
+      softly.assertThat(decode(buffer).asText())
+          .isEqualTo("latin");
+
+      softly.assertThat(decode(buffer).asText())
+          .isEqualTo("привет");
+    });
+  }
+
+  @Test
+  public void validateArity () {
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThatThrownBy(() -> TermWriter.of(Unpooled.buffer())
+              .startTuple(1)
+              .writeNil()
+              .writeNil())
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("tuple");
+
+      softly.assertThatThrownBy(() -> TermWriter.of(Unpooled.buffer())
+              .startMap(1)
+              .writeNil()
+              .end())
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("map");
+
+      softly.assertThatThrownBy(() -> TermWriter.of(Unpooled.buffer()).end())
+          .isInstanceOf(IllegalStateException.class);
+
+      softly.assertThatThrownBy(() -> TermWriter.of(Unpooled.buffer()).startList(-1))
+          .isInstanceOf(IllegalArgumentException.class);
+    });
+
+    assertThatThrownBy(() -> TermWriter.writeTerm(Unpooled.buffer(), writer -> writer.startTuple(1)))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThatThrownBy(() -> TermWriter.writeTerm(Unpooled.buffer(), writer -> writer.writeNil().writeNil()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static TermType type (Consumer<TermWriter> callback) {
+    return TermType.of(encode(callback)[0]);
+  }
+
+  private static byte[] encode (Consumer<TermWriter> callback) {
+    val buffer = Unpooled.buffer();
+    callback.accept(TermWriter.of(buffer));
+    val bytes = new byte[buffer.readableBytes()];
+    buffer.readBytes(bytes);
+    return bytes;
+  }
+
+  private static ErlangTerm decode (ByteBuf buffer) {
+    return ErlangTerm.newInstance(buffer);
+  }
+}
@@ -17,6 +17,7 @@
 package io.appulse.encon.terms.type;
 
 import static io.appulse.encon.terms.TermType.ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM;
 import static io.appulse.encon.terms.TermType.SMALL_ATOM_UTF8;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -80,6 +81,44 @@ public class ErlangAtomTest {
     });
   }
 
+  @Test
+  public void cached () {
+    val bytes = new ErlangAtom("cached_atom").toBytes();
+    ErlangAtom decoded1 = ErlangTerm.newInstance(wrappedBuffer(bytes));
+    ErlangAtom decoded2 = ErlangTerm.newInstance(wrappedBuffer(bytes));
+
+    val latin1 = Bytes.resizableArray()
+        .write1B(SMALL_ATOM.getCode())
+        .write1B(1)
+        .write1B(0xE9)
+        .arrayCopy();
+
+    val buffer = wrappedBuffer(latin1, latin1);
+    ErlangAtom latin1Atom1 = ErlangTerm.newInstance(buffer);
+    ErlangAtom latin1Atom2 = ErlangTerm.newInstance(buffer);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(decoded1)
+          .isSameAs(decoded2)
+          .isSameAs(Erlang.atom("cached_atom"));
+
+      softly.assertThat(Erlang.atom("привет"))
+          .isSameAs(Erlang.atom("привет"));
+
+      softly.assertThat(ErlangTerm.newInstance(wrappedBuffer(Erlang.atom(true).toBytes())).asAtom())
+          .isSameAs(ErlangAtom.ATOM_TRUE);
+
+      softly.assertThat(latin1Atom1)
+          .isSameAs(latin1Atom2);
+
+      softly.assertThat(latin1Atom1.asText())
+          .isEqualTo("é");
+
+      softly.assertThat(buffer.isReadable())
+          .isFalse();
+    });
+  }
+
   @Test
   public void toBytes () {
     val value = "hello";
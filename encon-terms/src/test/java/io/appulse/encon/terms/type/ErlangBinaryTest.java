@@ -20,14 +20,19 @@ import static io.appulse.encon.terms.TermType.BINARY;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 
 import io.appulse.encon.terms.Erlang;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.utils.Bytes;
+import io.appulse.utils.SerializationUtils;
 
 import erlang.OtpErlangBinary;
 import erlang.OtpInputStream;
 import erlang.OtpOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.assertj.core.api.SoftAssertions;
@@ -108,6 +113,74 @@ public class ErlangBinaryTest {
     }
   }
 
+  @Test
+  public void view () throws Exception {
+    val value = ByteBuffer.allocateDirect(5);
+    value.put(new byte[] { 1, 2, 3, 4, 5 }).flip();
+
+    val binary = Erlang.binary(value);
+    val originalHashCode = binary.hashCode();
+    value.put(0, (byte) 9);
+
+    val stream = new ByteArrayOutputStream();
+    binary.writeTo(stream);
+
+    val channelStream = new ByteArrayOutputStream();
+    binary.writeTo(Channels.newChannel(channelStream));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(binary.asByteBuffer().get(0))
+          .as("the binary is a view, not a copy")
+          .isEqualTo((byte) 9);
+
+      softly.assertThat(binary.asByteBuffer().isReadOnly())
+          .isTrue();
+
+      softly.assertThat(value.position())
+          .isEqualTo(0);
+
+      softly.assertThat(stream.toByteArray())
+          .isEqualTo(new byte[] { 9, 2, 3, 4, 5 });
+
+      softly.assertThat(channelStream.toByteArray())
+          .isEqualTo(new byte[] { 9, 2, 3, 4, 5 });
+
+      softly.assertThat(binary.toBytes())
+          .isEqualTo(bytes(new byte[] { 9, 2, 3, 4, 5 }));
+
+      softly.assertThat(binary)
+          .isEqualTo(Erlang.binary(new byte[] { 9, 2, 3, 4, 5 }));
+
+      softly.assertThat(binary.hashCode())
+          .as("the view's hash code follows its bytes")
+          .isNotEqualTo(originalHashCode)
+          .isEqualTo(Erlang.binary(new byte[] { 9, 2, 3, 4, 5 }).hashCode());
+    });
+  }
+
+  @Test
+  public void referenceCounting () {
+    val buffer = PooledByteBufAllocator.DEFAULT.directBuffer();
+    buffer.writeBytes(new byte[] { 1, 2, 3 });
+
+    val binary = Erlang.binary(buffer);
+    assertThat(binary.refCnt()).isEqualTo(1);
+
+    binary.retain();
+    assertThat(binary.release()).isFalse();
+    assertThat(binary.release()).isTrue();
+    assertThat(buffer.refCnt()).isEqualTo(0);
+  }
+
+  @Test
+  public void javaSerialization () {
+    val binary = Erlang.binary(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+    val bytes = SerializationUtils.serialize(binary);
+
+    assertThat((ErlangBinary) SerializationUtils.deserialize(bytes))
+        .isEqualTo(binary);
+  }
+
   @SneakyThrows
   private byte[] bytes (byte[] value) {
     try (OtpOutputStream output = new OtpOutputStream()) {
@@ -36,6 +36,7 @@ import erlang.OtpInputStream;
 import erlang.OtpOutputStream;
 import lombok.SneakyThrows;
 import lombok.val;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.Test;
 
 /**
@@ -161,6 +162,51 @@ public class ErlangIntegerTest {
     }
   }
 
+  @Test
+  public void longBoundaries () {
+    BigInteger[] values = {
+        BigInteger.valueOf(Long.MAX_VALUE),
+        BigInteger.valueOf(Long.MIN_VALUE),
+        BigInteger.valueOf(Long.MIN_VALUE + 1),
+        BigInteger.valueOf(1L << 40),
+        BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE),
+        BigInteger.ONE.shiftLeft(Long.SIZE).negate()
+    };
+
+    for (BigInteger value : values) {
+      val bytes = bytes(value);
+      ErlangInteger decoded = ErlangTerm.newInstance(wrappedBuffer(bytes));
+      val created = new ErlangInteger(value);
+
+      SoftAssertions.assertSoftly(softly -> {
+        softly.assertThat(decoded.asBigInteger())
+            .as("decoded %s", value)
+            .isEqualTo(value);
+
+        softly.assertThat(decoded.isLong())
+            .as("isLong %s", value)
+            .isEqualTo(value.bitLength() < Long.SIZE);
+
+        softly.assertThat(decoded.asLong())
+            .as("asLong %s", value)
+            .isEqualTo(value.longValue());
+
+        softly.assertThat(decoded)
+            .as("equality %s", value)
+            .isEqualTo(created)
+            .hasSameHashCodeAs(created);
+
+        softly.assertThat(decoded.toBytes())
+            .as("encoding %s", value)
+            .isEqualTo(created.toBytes());
+
+        softly.assertThat(ErlangTerm.<ErlangInteger>newInstance(wrappedBuffer(created.toBytes())))
+            .as("round trip %s", value)
+            .isEqualTo(created);
+      });
+    }
+  }
+
   @Test
   public void cached () {
     ErlangInteger num1 = ErlangInteger.cached(1273);
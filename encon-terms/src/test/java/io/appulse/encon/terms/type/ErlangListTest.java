@@ -19,15 +19,20 @@ package io.appulse.encon.terms.type;
 import static io.appulse.encon.terms.TermType.LIST;
 import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 
-
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.utils.Bytes;
 
 import erlang.OtpErlangAtom;
+import erlang.OtpErlangInt;
 import erlang.OtpErlangList;
+import erlang.OtpErlangObject;
 import erlang.OtpOutputStream;
 import lombok.SneakyThrows;
 import lombok.val;
@@ -103,6 +108,119 @@ public class ErlangListTest {
         .isEqualTo(bytes(values));
   }
 
+  @Test
+  public void compactIntegers () {
+    val text = "Привет, мир ✓";
+    val bytes = bytes(new OtpErlangList(text));
+
+    ErlangList list = ErlangTerm.newInstance(wrappedBuffer(bytes));
+    List<ErlangTerm> elements = new ArrayList<>();
+    list.elements().forEachRemaining(elements::add);
+
+    val expected = new ErlangList(text.codePoints()
+        .mapToObj(ErlangInteger::cached)
+        .toArray(ErlangTerm[]::new));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(list.asText())
+          .isEqualTo(text);
+
+      softly.assertThat(list.size())
+          .isEqualTo(text.length());
+
+      softly.assertThat(list.getUnsafe(0))
+          .isEqualTo(ErlangInteger.cached('П'));
+
+      softly.assertThat(list)
+          .isEqualTo(expected)
+          .hasSameHashCodeAs(expected);
+
+      softly.assertThat(expected)
+          .isEqualTo(list);
+
+      softly.assertThat(elements)
+          .hasSize(text.length())
+          .endsWith(ErlangInteger.cached('✓'));
+
+      softly.assertThat(list.toBytes())
+          .isEqualTo(bytes);
+    });
+  }
+
+  @Test
+  public void mixedIntegers () {
+    val bytes = bytes(new OtpErlangList(new OtpErlangObject[] {
+        new OtpErlangInt(1),
+        new OtpErlangInt(-1_000),
+        new OtpErlangAtom("three")
+    }));
+
+    ErlangList list = ErlangTerm.newInstance(wrappedBuffer(bytes));
+    val expected = new ErlangList(
+        ErlangInteger.cached(1),
+        ErlangInteger.cached(-1_000),
+        new ErlangAtom("three")
+    );
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(list.isTextual())
+          .isFalse();
+
+      softly.assertThat(list)
+          .isEqualTo(expected)
+          .hasSameHashCodeAs(expected);
+
+      softly.assertThat(list.toBytes())
+          .isEqualTo(bytes);
+    });
+  }
+
+  @Test
+  public void nonIntegerHead () {
+    val bytes = bytes(new OtpErlangList(new OtpErlangObject[] {
+        new OtpErlangAtom("one"),
+        new OtpErlangInt(2),
+        new OtpErlangInt(3)
+    }));
+
+    ErlangList list = ErlangTerm.newInstance(wrappedBuffer(bytes));
+    val expected = new ErlangList(
+        new ErlangAtom("one"),
+        ErlangInteger.cached(2),
+        ErlangInteger.cached(3)
+    );
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(list)
+          .isEqualTo(expected)
+          .hasSameHashCodeAs(expected);
+
+      softly.assertThat(list.toBytes())
+          .isEqualTo(bytes);
+    });
+  }
+
+  @Test
+  public void compactElementsIterator () {
+    ErlangList list = ErlangTerm.newInstance(wrappedBuffer(bytes(new OtpErlangList("ab"))));
+    val iterator = list.elements();
+
+    assertThat(iterator.next()).isEqualTo(ErlangInteger.cached('a'));
+    assertThat(iterator.next()).isEqualTo(ErlangInteger.cached('b'));
+    assertThat(iterator.hasNext()).isFalse();
+    assertThatThrownBy(iterator::next)
+        .isInstanceOf(NoSuchElementException.class);
+  }
+
+  @SneakyThrows
+  private byte[] bytes (OtpErlangList list) {
+    try (OtpOutputStream output = new OtpOutputStream()) {
+      list.encode(output);
+      output.trimToSize();
+      return output.toByteArray();
+    }
+  }
+
   @SneakyThrows
   private byte[] bytes (String[] values) {
     OtpErlangAtom[] atoms = Stream.of(values)
@@ -16,20 +16,34 @@
 
 package io.appulse.encon.terms.type;
 
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.TermType.MAP;
+import static io.netty.buffer.Unpooled.wrappedBuffer;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 
 import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.exception.ErlangTermDecodeException;
+import io.appulse.utils.Bytes;
 
 import erlang.OtpErlangMap;
 import erlang.OtpErlangObject;
 import erlang.OtpErlangString;
 import erlang.OtpOutputStream;
 import lombok.SneakyThrows;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
 import org.junit.Test;
 
 /**
@@ -55,6 +69,122 @@ public class ErlangMapTest {
         .isEqualTo(bytes(value));
   }
 
+  @Test
+  public void lookup () {
+    for (int size : new int[] { 3, 100 }) {
+      LinkedHashMap<ErlangTerm, ErlangTerm> entries = new LinkedHashMap<>();
+      for (int index = 0; index < size; index++) {
+        entries.put(atom("key_" + index), number(index));
+        entries.put(number(index * 1_000), atom("value_" + index));
+      }
+      val map = new ErlangMap(entries);
+      ErlangMap decoded = ErlangTerm.newInstance(wrappedBuffer(map.toBytes()));
+
+      List<ErlangTerm> keys = new ArrayList<>();
+      decoded.fields().forEachRemaining(it -> keys.add(it.getKey()));
+
+      SoftAssertions.assertSoftly(softly -> {
+        softly.assertThat(decoded.size())
+            .isEqualTo(size * 2);
+
+        softly.assertThat(decoded.getByAtom("key_2"))
+            .hasValue(number(2));
+
+        softly.assertThat(decoded.getUnsafe(new ErlangAtom("key_" + (size - 1))))
+            .isEqualTo(number(size - 1));
+
+        softly.assertThat(decoded.getUnsafe(2_000))
+            .isEqualTo(atom("value_2"));
+
+        softly.assertThat(decoded.getUnsafe(1))
+            .isNull();
+
+        softly.assertThat(decoded.getByAtom("missing"))
+            .isEmpty();
+
+        softly.assertThat(keys)
+            .containsExactlyElementsOf(entries.keySet());
+
+        softly.assertThat(decoded)
+            .isEqualTo(map)
+            .hasSameHashCodeAs(map)
+            .hasSameHashCodeAs(entries);
+      });
+    }
+  }
+
+  @Test
+  public void fieldsAndCursor () {
+    LinkedHashMap<ErlangTerm, ErlangTerm> entries = new LinkedHashMap<>();
+    entries.put(atom("one"), number(1));
+    entries.put(atom("two"), number(2));
+    val map = new ErlangMap(entries);
+
+    List<Entry<ErlangTerm, ErlangTerm>> fields = new ArrayList<>();
+    map.fields().forEachRemaining(fields::add);
+
+    List<ErlangTerm> cursorKeys = new ArrayList<>();
+    List<ErlangTerm> cursorValues = new ArrayList<>();
+    val cursor = map.cursor();
+    while (cursor.next()) {
+      cursorKeys.add(cursor.getKey());
+      cursorValues.add(cursor.getValue());
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(fields)
+          .as("the entries stay valid after the iteration")
+          .containsExactlyElementsOf(entries.entrySet());
+
+      softly.assertThat(cursorKeys)
+          .containsExactly(atom("one"), atom("two"));
+
+      softly.assertThat(cursorValues)
+          .containsExactly(number(1), number(2));
+
+      softly.assertThat(cursor.next())
+          .isFalse();
+
+      softly.assertThatThrownBy(cursor::getKey)
+          .isInstanceOf(NoSuchElementException.class);
+    });
+  }
+
+  @Test
+  public void duplicateKey () {
+    val bytes = Bytes.resizableArray()
+        .write1B(MAP.getCode())
+        .write4B(2)
+        .writeNB(atom("key").toBytes())
+        .writeNB(number(1).toBytes())
+        .writeNB(atom("key").toBytes())
+        .writeNB(number(2).toBytes())
+        .arrayCopy();
+
+    assertThatThrownBy(() -> ErlangTerm.newInstance(wrappedBuffer(bytes)))
+        .isInstanceOf(ErlangTermDecodeException.class)
+        .hasMessageContaining("Duplicate key");
+  }
+
+  @Test
+  public void javaSerialization () throws Exception {
+    LinkedHashMap<ErlangTerm, ErlangTerm> entries = new LinkedHashMap<>();
+    for (int index = 0; index < 20; index++) {
+      entries.put(atom("key_" + index), number(index));
+    }
+    val map = new ErlangMap(entries);
+
+    val output = new ByteArrayOutputStream();
+    try (val stream = new ObjectOutputStream(output)) {
+      stream.writeObject(map);
+    }
+    try (val stream = new ObjectInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      ErlangMap copy = (ErlangMap) stream.readObject();
+
+      assertThat(copy.getByAtom("key_7"))
+          .hasValue(number(7));
+    }
+  }
 
   @SneakyThrows
   private byte[] bytes (LinkedHashMap<String, String> value) {
@@ -215,6 +215,44 @@ public class ErlangPidTest {
     assertThat(pid3).isNotEqualTo(pid4);
   }
 
+  @Test
+  public void decodeContext () {
+    val expected = ErlangTuple.builder()
+        .add(ErlangPid.builder().node("popa@localhost").id(1).build())
+        .add(ErlangPid.builder().node("popa@localhost").id(2).build())
+        .add(ErlangPid.builder().node("other@localhost").id(3).build())
+        .add(ErlangReference.builder().node("popa@localhost").ids(new long[] { 1, 2, 3 }).build())
+        .build();
+
+    val context = new DecodeContext();
+    ErlangTuple first = context.decode(wrappedBuffer(expected.toBytes()));
+    ErlangTuple second = context.decode(wrappedBuffer(expected.toBytes()));
+
+    ErlangPid pid1 = first.getUnsafe(0).asPid();
+    ErlangPid pid2 = second.getUnsafe(1).asPid();
+    ErlangReference reference = second.getUnsafe(3).asReference();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(first)
+          .isEqualTo(expected);
+
+      softly.assertThat(second)
+          .isEqualTo(expected);
+
+      softly.assertThat(pid2.getNode())
+          .isSameAs(pid1.getNode());
+
+      softly.assertThat(reference.getNode())
+          .isSameAs(pid1.getNode());
+
+      softly.assertThat(pid2.getDescriptor())
+          .isSameAs(pid1.getDescriptor());
+
+      softly.assertThat(second.getUnsafe(2).asPid().getDescriptor().getFullName())
+          .isEqualTo("other@localhost");
+    });
+  }
+
   @SneakyThrows
   private byte[] bytes (int tag, String node, int id, int serial, int creation) {
     OtpErlangPid pid = new OtpErlangPid(tag, node, id, serial, creation);
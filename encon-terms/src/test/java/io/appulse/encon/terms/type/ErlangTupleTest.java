@@ -16,6 +16,9 @@
 
 package io.appulse.encon.terms.type;
 
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.list;
+import static io.appulse.encon.terms.Erlang.map;
 import static io.appulse.encon.terms.Erlang.number;
 import static io.appulse.encon.terms.Erlang.string;
 import static io.appulse.encon.terms.Erlang.tuple;
@@ -92,6 +95,34 @@ public class ErlangTupleTest {
     });
   }
 
+  @Test
+  public void equalsAndHashCode () {
+    val pid = ErlangPid.builder()
+        .node("popa@localhost")
+        .id(1)
+        .build();
+
+    val tuple = tuple(atom("ok"), pid, list(number(1), string("two")), map(atom("key"), number(3)));
+    val same = tuple(atom("ok"), pid, list(number(1), string("two")), map(atom("key"), number(3)));
+    val other = tuple(atom("ok"), pid, list(number(1), string("two")), map(atom("key"), number(4)));
+    ErlangTuple decoded = ErlangTerm.newInstance(wrappedBuffer(tuple.toBytes()));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(tuple)
+          .isEqualTo(same)
+          .hasSameHashCodeAs(same)
+          .isEqualTo(decoded)
+          .hasSameHashCodeAs(decoded);
+
+      softly.assertThat(tuple.hashCode())
+          .isEqualTo(tuple.hashCode())
+          .isNotEqualTo(other.hashCode());
+
+      softly.assertThat(tuple)
+          .isNotEqualTo(other);
+    });
+  }
+
   @Test
   public void toBytes () {
     val value = new ErlangNil();
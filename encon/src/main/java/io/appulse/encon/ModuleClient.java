@@ -127,6 +127,7 @@ class ModuleClient implements Closeable {
               log.debug("Closing connection to {}", remoteNode);
               node.moduleLookup.remove(remoteNode);
               node.moduleConnection.remove(remoteNode);
+              node.moduleMailbox.connectionLost(remoteNode);
             })
             .build()
         )
@@ -22,6 +22,7 @@ import static lombok.AccessLevel.PRIVATE;
 
 import io.appulse.encon.common.NodeDescriptor;
 import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.regular.Message;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import lombok.NonNull;
@@ -70,19 +71,19 @@ class ModulePing {
       return false;
     }
 
-    try (val mailbox = node.mailbox().build()) {
-      mailbox.send(remote, "net_kernel", tuple(
+    try (val endpoint = node.replyEndpoint()) {
+      node.connect(remote).send(Message.sendToRegisteredProcess(endpoint.getPid(), "net_kernel", tuple(
           atom("$gen_call"),
           tuple(
-              mailbox.getPid(),
-              node.newReference()
+              endpoint.getPid(),
+              endpoint.getReference()
           ),
           tuple(
               atom("is_auth"),
               atom(node.getDescriptor().getFullName())
           )
-      ));
-      mailbox.receive();
+      )));
+      endpoint.getReply().get();
 
       log.debug("Returning from ping method");
       return true;
@@ -87,6 +87,7 @@ class ModuleServer implements Closeable {
               log.debug("Closing connection to {}", remote);
               node.moduleLookup.remove(remote);
               node.moduleConnection.remove(remote);
+              node.moduleMailbox.connectionLost(remote);
             })
             .build())
         .option(SO_BACKLOG, 128)
@@ -30,7 +30,9 @@ import io.appulse.encon.common.RemoteNode;
 import io.appulse.encon.config.NodeConfig;
 import io.appulse.encon.connection.Connection;
 import io.appulse.encon.mailbox.Mailbox;
+import io.appulse.encon.mailbox.MailboxMetrics;
 import io.appulse.encon.mailbox.ModuleMailbox;
+import io.appulse.encon.mailbox.ReplyEndpoint;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangReference;
 import io.appulse.epmd.java.client.EpmdClient;
@@ -254,6 +256,36 @@ public final class Node implements Closeable {
     return moduleMailbox.mailbox();
   }
 
+  /**
+   * The aggregated metrics of the node's mailboxes, which were built with the metrics enabled.
+   *
+   * @return the node-wide mailboxes metrics
+   */
+  public MailboxMetrics mailboxMetrics () {
+    return moduleMailbox.metrics();
+  }
+
+  /**
+   * Creates a lightweight endpoint for a single reply, it is cheaper than a {@link Mailbox}
+   * for the short-lived request/reply exchanges.
+   *
+   * @return a new {@link ReplyEndpoint} instance, it must be closed after use
+   */
+  public ReplyEndpoint replyEndpoint () {
+    return moduleMailbox.replyEndpoint();
+  }
+
+  /**
+   * Searches an active reply endpoint by its pid.
+   *
+   * @param pid the pid of searching endpoint
+   *
+   * @return {@link ReplyEndpoint} instance or {@code null}
+   */
+  public ReplyEndpoint replyEndpoint (ErlangPid pid) {
+    return moduleMailbox.replyEndpoint(pid);
+  }
+
   /**
    * Registers already created mailbox with specific name.
    *
@@ -299,6 +331,22 @@ public final class Node implements Closeable {
     return moduleMailbox.mailbox(pid);
   }
 
+  /**
+   * Searches local mailbox by its pid's numbers, without creating a pid instance.
+   * The node of the pid is not checked.
+   *
+   * @param id the pid's id
+   *
+   * @param serial the pid's serial
+   *
+   * @param creation the pid's creation
+   *
+   * @return {@link Mailbox} instance or {@code null}, if it was not found by the numbers
+   */
+  public Mailbox mailbox (int id, int serial, int creation) {
+    return moduleMailbox.mailbox(id, serial, creation);
+  }
+
   /**
    * Removes a mailbox and cleanup its resources.
    *
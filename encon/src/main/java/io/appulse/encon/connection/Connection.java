@@ -19,11 +19,17 @@ package io.appulse.encon.connection;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.function.Consumer;
 
 import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.control.ControlMessage;
 import io.appulse.encon.connection.regular.ConnectionHandler;
 import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.stream.TermWriter;
 
+import io.netty.buffer.ByteBuf;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -52,6 +58,64 @@ public final class Connection implements Closeable {
     handler.send(message);
   }
 
+  /**
+   * Sends the same encoded body to several targets at the remote node.
+   *
+   * @param headers the targets' control messages
+   *
+   * @param body the encoded body with its version byte, the caller still owns the buffer
+   */
+  public void send (@NonNull List<? extends ControlMessage> headers, @NonNull ByteBuf body) {
+    handler.send(headers, body);
+  }
+
+  /**
+   * Sends a message with the pre-encoded header as a single buffer write.
+   *
+   * @param header the header's bytes, starting from the pass through tag
+   *
+   * @param body the message's body
+   */
+  public void send (@NonNull byte[] header, @NonNull ErlangTerm body) {
+    handler.send(header, body);
+  }
+
+  /**
+   * Sends a message, which body is written by the callback right into the frame's buffer,
+   * without building the body's terms.
+   *
+   * @param header the message's control message
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull ControlMessage header, @NonNull Consumer<TermWriter> body) {
+    handler.send(header, body);
+  }
+
+  /**
+   * Sends a message with the pre-encoded header, which body is written by the callback.
+   *
+   * @param header the header's bytes, starting from the pass through tag
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull byte[] header, @NonNull Consumer<TermWriter> body) {
+    handler.send(header, body);
+  }
+
+  /**
+   * Tells if the connection's channel is still active.
+   *
+   * @return {@code true} if the messages could be sent through this connection
+   */
+  public boolean isActive () {
+    return handler.isActive();
+  }
+
   @Override
   public void close () {
     log.debug("Closing connection...");
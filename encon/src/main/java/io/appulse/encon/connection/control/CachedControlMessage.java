@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.connection.control;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import io.appulse.encon.terms.ErlangTerm;
+
+import io.netty.buffer.ByteBuf;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Control message with its pre-encoded bytes. The bytes are just copied to the output buffer,
+ * so the control message is encoded only once.
+ * <p>
+ * It is for the outgoing messages with the unchangeable headers, like {@code SEND} to a fixed pid or
+ * {@code REG_SEND} from a fixed pid to a fixed name.
+ * <p>
+ * It reports the wrapped message's tag, but it is not an instance of the tag's class,
+ * so the readers of the control messages must unwrap it by {@code message}.
+ * {@link io.appulse.encon.connection.regular.Message#getHeader()} does it.
+ *
+ * @see ControlMessage#cached()
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@ToString(of = "message")
+@EqualsAndHashCode(callSuper = false, of = "message")
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class CachedControlMessage extends ControlMessage {
+
+  @Getter
+  ControlMessage message;
+
+  byte[] bytes;
+
+  CachedControlMessage (@NonNull ControlMessage message) {
+    super();
+    this.message = message;
+    bytes = message.toBytes();
+  }
+
+  @Override
+  public ControlMessageTag getTag () {
+    return message.getTag();
+  }
+
+  @Override
+  public byte[] toBytes () {
+    return bytes.clone();
+  }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    buffer.writeBytes(bytes);
+  }
+
+  @Override
+  public CachedControlMessage cached () {
+    return this;
+  }
+
+  @Override
+  protected ErlangTerm[] elements () {
+    return message.elements();
+  }
+}
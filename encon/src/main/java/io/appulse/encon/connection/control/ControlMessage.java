@@ -17,6 +17,8 @@
 package io.appulse.encon.connection.control;
 
 import static io.appulse.encon.connection.control.ControlMessageTag.UNDEFINED;
+import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
+import static io.appulse.encon.terms.TermType.SMALL_TUPLE;
 import static java.util.stream.Collectors.toCollection;
 
 import java.util.LinkedList;
@@ -29,6 +31,7 @@ import io.appulse.encon.terms.type.ErlangNil;
 import io.appulse.encon.terms.type.ErlangTuple;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.NonNull;
 import lombok.val;
 
@@ -113,11 +116,54 @@ public abstract class ControlMessage {
    * @return byte array
    */
   public byte[] toBytes () {
-    return toTuple().toBytes();
+    val buffer = Unpooled.buffer();
+    try {
+      writeTo(buffer);
+      val bytes = new byte[buffer.readableBytes()];
+      buffer.readBytes(bytes);
+      return bytes;
+    } finally {
+      buffer.release();
+    }
+  }
+
+  /**
+   * Writes this control message's tuple right to the buffer. The subclasses write their
+   * elements directly, this implementation is for the ones, which only know their {@link #elements}.
+   *
+   * @param buffer the output buffer
+   */
+  public void writeTo (@NonNull ByteBuf buffer) {
+    val elements = elements();
+    writeTupleHeader(buffer, elements.length);
+    for (ErlangTerm element : elements) {
+      element.writeTo(buffer);
+    }
+  }
+
+  /**
+   * Returns this control message with its encoded bytes, which are written instead of
+   * the encoding on every send. It is for the messages, which are sent many times,
+   * like {@code SEND} to a fixed pid.
+   *
+   * @return the cached control message
+   */
+  public CachedControlMessage cached () {
+    return new CachedControlMessage(this);
   }
 
-  public final void writeTo (ByteBuf buffer) {
-    toTuple().writeTo(buffer);
+  /**
+   * Writes the tuple's header and the control message's tag, the first element of the tuple.
+   *
+   * @param buffer the output buffer
+   *
+   * @param elements the number of the tuple's elements after the tag
+   */
+  protected final void writeTupleHeader (ByteBuf buffer, int elements) {
+    buffer.writeByte(SMALL_TUPLE.getCode());
+    buffer.writeByte(elements + 1);
+    buffer.writeByte(SMALL_INTEGER.getCode());
+    buffer.writeByte(getTag().getCode());
   }
 
   public abstract ControlMessageTag getTag ();
@@ -23,6 +23,7 @@ import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -81,4 +82,12 @@ public class Exit extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, to, reason };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 3);
+    from.writeTo(buffer);
+    to.writeTo(buffer);
+    reason.writeTo(buffer);
+  }
 }
@@ -23,6 +23,7 @@ import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -89,4 +90,13 @@ public class ExitTraceToken extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, to, traceToken, reason };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 4);
+    from.writeTo(buffer);
+    to.writeTo(buffer);
+    traceToken.writeTo(buffer);
+    reason.writeTo(buffer);
+  }
 }
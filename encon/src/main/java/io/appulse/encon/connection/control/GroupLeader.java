@@ -23,6 +23,7 @@ import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -71,4 +72,11 @@ public class GroupLeader extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, to };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 2);
+    from.writeTo(buffer);
+    to.writeTo(buffer);
+  }
 }
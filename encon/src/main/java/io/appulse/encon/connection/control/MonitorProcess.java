@@ -24,6 +24,7 @@ import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangReference;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -80,4 +81,12 @@ public class MonitorProcess extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, to, reference };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 3);
+    from.writeTo(buffer);
+    to.writeTo(buffer);
+    reference.writeTo(buffer);
+  }
 }
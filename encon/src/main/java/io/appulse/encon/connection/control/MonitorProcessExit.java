@@ -20,10 +20,10 @@ import static io.appulse.encon.connection.control.ControlMessageTag.MONITOR_P_EX
 
 import io.appulse.encon.connection.control.exception.ControlMessageParsingException;
 import io.appulse.encon.terms.ErlangTerm;
-import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangReference;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -42,7 +42,7 @@ import lombok.val;
 public class MonitorProcessExit extends ControlMessage {
 
   @NonNull
-  ErlangPid from;
+  ErlangTerm from; // atom or pid
 
   @NonNull
   ErlangTerm to; // atom or pid
@@ -57,10 +57,10 @@ public class MonitorProcessExit extends ControlMessage {
     super();
 
     val tuple1 = tuple.getUnsafe(1);
-    if (tuple1 == null || !tuple1.isPid()) {
+    if (tuple1 == null || !(tuple1.isPid() || tuple1.isAtom())) {
       throw new ControlMessageParsingException();
     }
-    from = tuple1.asPid();
+    from = tuple1;
 
     to = tuple.getUnsafe(2);
     if (to == null || !(to.isPid() || to.isAtom())) {
@@ -88,4 +88,13 @@ public class MonitorProcessExit extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, to, reference, reason };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 4);
+    from.writeTo(buffer);
+    to.writeTo(buffer);
+    reference.writeTo(buffer);
+    reason.writeTo(buffer);
+  }
 }
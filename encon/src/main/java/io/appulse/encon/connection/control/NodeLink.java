@@ -21,8 +21,10 @@ import static io.appulse.encon.connection.control.ControlMessageTag.NODE_LINK;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -51,4 +53,9 @@ public class NodeLink extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[0];
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 0);
+  }
 }
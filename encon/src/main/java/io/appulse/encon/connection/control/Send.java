@@ -22,6 +22,7 @@ import io.appulse.encon.connection.control.exception.ControlMessageParsingExcept
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -59,4 +60,11 @@ public class Send extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { UNUSED, to };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 2);
+    UNUSED.writeTo(buffer);
+    to.writeTo(buffer);
+  }
 }
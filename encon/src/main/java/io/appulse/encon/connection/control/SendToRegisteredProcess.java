@@ -25,6 +25,7 @@ import io.appulse.encon.terms.type.ErlangAtom;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -73,4 +74,12 @@ public class SendToRegisteredProcess extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, EMPTY_ATOM, to };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 3);
+    from.writeTo(buffer);
+    EMPTY_ATOM.writeTo(buffer);
+    to.writeTo(buffer);
+  }
 }
@@ -24,6 +24,7 @@ import io.appulse.encon.terms.type.ErlangAtom;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -80,4 +81,13 @@ public class SendToRegisteredProcessTraceToken extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { from, UNUSED, name, traceToken };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 4);
+    from.writeTo(buffer);
+    UNUSED.writeTo(buffer);
+    name.writeTo(buffer);
+    traceToken.writeTo(buffer);
+  }
 }
@@ -23,6 +23,7 @@ import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangPid;
 import io.appulse.encon.terms.type.ErlangTuple;
 
+import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
@@ -70,4 +71,12 @@ public class SendTraceToken extends ControlMessage {
   public ErlangTerm[] elements () {
     return new ErlangTerm[] { UNUSED, to, traceToken };
   }
+
+  @Override
+  public void writeTo (@NonNull ByteBuf buffer) {
+    writeTupleHeader(buffer, 3);
+    UNUSED.writeTo(buffer);
+    to.writeTo(buffer);
+    traceToken.writeTo(buffer);
+  }
 }
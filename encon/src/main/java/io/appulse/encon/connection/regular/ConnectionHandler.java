@@ -16,27 +16,40 @@
 
 package io.appulse.encon.connection.regular;
 
+import static io.appulse.encon.connection.control.ControlMessageTag.MONITOR_P;
+import static io.appulse.encon.connection.control.ControlMessageTag.SEND;
 import static io.appulse.encon.connection.regular.Message.PASS_THROUGH_TAG;
 import static io.appulse.encon.connection.regular.Message.VERSION_TAG;
+import static io.appulse.encon.terms.Erlang.atom;
 import static lombok.AccessLevel.PRIVATE;
 // import static io.netty.buffer.ByteBufUtil.appendPrettyHexDump;
 // import static io.netty.util.internal.StringUtil.NEWLINE;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import io.appulse.encon.Node;
 import io.appulse.encon.common.RemoteNode;
 import io.appulse.encon.connection.control.ControlMessage;
+import io.appulse.encon.connection.control.DemonitorProcess;
 import io.appulse.encon.connection.control.Exit;
 import io.appulse.encon.connection.control.Exit2;
 import io.appulse.encon.connection.control.Link;
+import io.appulse.encon.connection.control.MonitorProcess;
+import io.appulse.encon.connection.control.MonitorProcessExit;
 import io.appulse.encon.connection.control.Send;
 import io.appulse.encon.connection.control.SendToRegisteredProcess;
 import io.appulse.encon.connection.control.Unlink;
+import io.appulse.encon.mailbox.FlowControl;
 import io.appulse.encon.mailbox.Mailbox;
+import io.appulse.encon.mailbox.ReplyEndpoint;
 import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.stream.TermWriter;
+import io.appulse.encon.terms.type.DecodeContext;
+import io.appulse.encon.terms.type.ErlangAtom;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -62,17 +75,11 @@ import lombok.val;
 @Builder
 @AllArgsConstructor
 @FieldDefaults(level = PRIVATE, makeFinal = true)
-public final class ConnectionHandler extends ByteToMessageDecoder implements Closeable {
+public final class ConnectionHandler extends ByteToMessageDecoder implements FlowControl, Closeable {
 
   private static final ByteBuf TICK_TOCK = Unpooled.wrappedBuffer(new byte[] { 0, 0, 0, 0 });
 
-  private static ErlangTerm readTerm (ByteBuf buffer) {
-    val versionByte = buffer.readUnsignedByte();
-    if (versionByte != VERSION_TAG) {
-      throw new IllegalArgumentException("Wrong version byte. Expected 0x83 (131), but was: " + versionByte);
-    }
-    return ErlangTerm.newInstance(buffer);
-  }
+  private static final ErlangAtom NOPROC = atom("noproc");
 
   // private static String formatByteBuf (ChannelHandlerContext ctx, String eventName, ByteBuf msg) {
   //   String chStr = ctx.channel().toString();
@@ -105,6 +112,11 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
   @NonFinal
   Channel channel;
 
+  AtomicInteger pauses = new AtomicInteger();
+
+  // canonical node atoms and descriptors of the connection's pids, ports and references
+  DecodeContext decodeContext = new DecodeContext();
+
   @Override
   public void exceptionCaught (ChannelHandlerContext context, Throwable cause) throws Exception {
     log.error("Error during channel connection with {}",
@@ -149,6 +161,106 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
     });
   }
 
+  /**
+   * Sends the same body to several targets. Every target gets its own control message,
+   * but all of them share the body's bytes.
+   *
+   * @param headers the targets' control messages
+   *
+   * @param body the encoded body with its version byte, the buffer is retained for each target,
+   *             so the caller still owns it
+   */
+  public void send (@NonNull List<? extends ControlMessage> headers, @NonNull ByteBuf body) {
+    log.debug("Sending message to {} targets\nat {}\n", headers.size(), remote);
+
+    val allocator = channel.alloc();
+    List<ByteBuf> frames = new ArrayList<>(headers.size());
+    for (ControlMessage header : headers) {
+      val frame = allocator.buffer();
+      frame.writeInt(0); // the length placeholder
+      frame.writeByte(PASS_THROUGH_TAG);
+      frame.writeByte(VERSION_TAG);
+      header.writeTo(frame);
+      frame.setInt(0, frame.readableBytes() - Integer.BYTES + body.readableBytes());
+
+      frames.add(allocator.compositeBuffer(2)
+          .addComponents(true, frame, body.retainedDuplicate()));
+    }
+
+    channel.eventLoop().execute(() -> {
+      frames.forEach(channel::write);
+      channel.flush();
+    });
+  }
+
+  /**
+   * Sends a message with the pre-encoded header. The frame is encoded into a single buffer,
+   * which is written and flushed at once.
+   *
+   * @param header the header's bytes, starting from the pass through tag
+   *
+   * @param body the message's body
+   */
+  public void send (@NonNull byte[] header, @NonNull ErlangTerm body) {
+    send(header, writer -> writer.writeTerm(body));
+  }
+
+  /**
+   * Sends a message, which body is written by the callback right into the frame's buffer,
+   * without building the body's terms.
+   *
+   * @param header the message's control message
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull ControlMessage header, @NonNull Consumer<TermWriter> body) {
+    ByteBuf out = channel.alloc().buffer();
+    out.writeInt(0); // the length placeholder
+    out.writeByte(PASS_THROUGH_TAG);
+    out.writeByte(VERSION_TAG);
+    header.writeTo(out);
+    writeBody(out, body);
+  }
+
+  /**
+   * Sends a message with the pre-encoded header, which body is written by the callback.
+   *
+   * @param header the header's bytes, starting from the pass through tag
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull byte[] header, @NonNull Consumer<TermWriter> body) {
+    ByteBuf out = channel.alloc().buffer();
+    out.writeInt(0); // the length placeholder
+    out.writeBytes(header);
+    writeBody(out, body);
+  }
+
+  /**
+   * Tells if the handler's channel is still active.
+   *
+   * @return {@code true} if the channel is active
+   */
+  public boolean isActive () {
+    return channel != null && channel.isActive();
+  }
+
+  @Override
+  public void pause () {
+    pauses.incrementAndGet();
+    updateAutoRead();
+  }
+
+  @Override
+  public void resume () {
+    pauses.decrementAndGet();
+    updateAutoRead();
+  }
+
   @Override
   protected void decode (ChannelHandlerContext context, ByteBuf buffer, List<Object> out) {
     if (!buffer.isReadable(4)) {
@@ -192,24 +304,19 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
                                         " at index: " + buffer.readerIndex());
     }
 
-    val header = readTerm(buffer);
-    ControlMessage controlMessage = ControlMessage.parse(header);
-
-    ErlangTerm body = null;
-    if (buffer.isReadable()) {
-      body = readTerm(buffer);
-    }
+    // SEND to a local pid resolves its mailbox right from the header's bytes
+    @SuppressWarnings("PMD.CloseResource")
+    Mailbox mailbox = LocalSendHeader.read(buffer, index + Integer.BYTES + length, node);
+    Message message = mailbox == null
+                  ? readMessage(buffer, ControlMessage.parse(readTerm(buffer)))
+                  : readMessage(buffer, new Send(mailbox.getPid()));
 
     // ConnectionHandler
-    val message = new Message(controlMessage, body);
     log.debug("Received message\nfrom {}\n  {}\n", remote, message);
-
-    val mailbox = findMailbox(controlMessage);
-    if (mailbox == null) {
-      log.warn("There is no mailbox for message\n  {}\n  {}", message, node.mailboxes().keySet());
-    } else {
-      mailbox.deliver(message);
-    }
+    deliver(mailbox == null
+            ? findMailbox(message.getHeader())
+            : mailbox,
+            message);
   }
 
   @Override
@@ -225,6 +332,78 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
     log.debug("Client handler for {} was closed", channel.remoteAddress());
   }
 
+  private ErlangTerm readTerm (ByteBuf buffer) {
+    val versionByte = buffer.readUnsignedByte();
+    if (versionByte != VERSION_TAG) {
+      throw new IllegalArgumentException("Wrong version byte. Expected 0x83 (131), but was: " + versionByte);
+    }
+    return decodeContext.decode(buffer);
+  }
+
+  private Message readMessage (ByteBuf buffer, ControlMessage header) {
+    ErlangTerm body = buffer.isReadable()
+                      ? readTerm(buffer)
+                      : null;
+    return new Message(header, body);
+  }
+
+  private void writeBody (ByteBuf out, Consumer<TermWriter> body) {
+    try {
+      out.writeByte(VERSION_TAG);
+      TermWriter.writeTerm(out, body);
+    } catch (RuntimeException ex) {
+      out.release();
+      throw ex;
+    }
+    out.setInt(0, out.readableBytes() - Integer.BYTES);
+    channel.writeAndFlush(out, channel.voidPromise());
+  }
+
+  private void deliver (Mailbox mailbox, Message message) {
+    if (mailbox != null) {
+      mailbox.deliver(message, this);
+      return;
+    }
+
+    if (message.getHeader().getTag() == MONITOR_P) {
+      // the remote watcher waits for the 'DOWN' of the missing process, like Erlang does
+      val monitor = (MonitorProcess) message.getHeader();
+      log.debug("There is no monitored process {}, it is down", monitor.getTo());
+      send(new Message(new MonitorProcessExit(monitor.getTo(), monitor.getFrom(), monitor.getReference(), NOPROC), null));
+      return;
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    ReplyEndpoint endpoint = findReplyEndpoint(message.getHeader());
+    if (endpoint == null) {
+      log.warn("There is no mailbox for message\n  {}\n  {}", message, node.mailboxes().keySet());
+    } else {
+      endpoint.deliver(message);
+    }
+  }
+
+  private ReplyEndpoint findReplyEndpoint (ControlMessage header) {
+    if (header.getTag() != SEND) {
+      return null;
+    }
+    val destination = ((Send) header).getTo();
+    return destination.isPid()
+           ? node.replyEndpoint(destination.asPid())
+           : null;
+  }
+
+  private void updateAutoRead () {
+    // the actual value is computed in the event loop, so the concurrent pauses/resumes can't be reordered
+    channel.eventLoop().execute(() -> {
+      val autoRead = pauses.get() <= 0;
+      if (channel.config().isAutoRead() != autoRead) {
+        log.debug("Set auto read {} for channel {} and remote node {}",
+                  autoRead, channel.remoteAddress(), remote);
+        channel.config().setAutoRead(autoRead);
+      }
+    });
+  }
+
   private Mailbox findMailbox (@NonNull ControlMessage header) {
     switch (header.getTag()) {
     case SEND:
@@ -239,6 +418,12 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
       return handle((Exit) header);
     case EXIT2:
       return handle((Exit2) header);
+    case MONITOR_P:
+      return handle((MonitorProcess) header);
+    case DEMONITOR_P:
+      return handle((DemonitorProcess) header);
+    case MONITOR_P_EXIT:
+      return handle((MonitorProcessExit) header);
     default:
       return null;
     }
@@ -276,4 +461,25 @@ public final class ConnectionHandler extends ByteToMessageDecoder implements Clo
     val toPid = header.getTo();
     return node.mailbox(toPid);
   }
+
+  private Mailbox handle (@NonNull MonitorProcess header) {
+    val destination = header.getTo();
+    return destination.isAtom()
+           ? node.mailbox(destination.asText())
+           : node.mailbox(destination.asPid());
+  }
+
+  private Mailbox handle (@NonNull DemonitorProcess header) {
+    val destination = header.getTo();
+    return destination.isAtom()
+           ? node.mailbox(destination.asText())
+           : node.mailbox(destination.asPid());
+  }
+
+  private Mailbox handle (@NonNull MonitorProcessExit header) {
+    val destination = header.getTo();
+    return destination.isAtom()
+           ? node.mailbox(destination.asText())
+           : node.mailbox(destination.asPid());
+  }
 }
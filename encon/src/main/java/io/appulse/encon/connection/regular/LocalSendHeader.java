@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.connection.regular;
+
+import static io.appulse.encon.connection.control.ControlMessageTag.SEND;
+import static io.appulse.encon.connection.regular.Message.VERSION_TAG;
+import static io.appulse.encon.terms.TermType.ATOM;
+import static io.appulse.encon.terms.TermType.ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.NEW_PID;
+import static io.appulse.encon.terms.TermType.NIL;
+import static io.appulse.encon.terms.TermType.PID;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM;
+import static io.appulse.encon.terms.TermType.SMALL_ATOM_UTF8;
+import static io.appulse.encon.terms.TermType.SMALL_INTEGER;
+import static io.appulse.encon.terms.TermType.SMALL_TUPLE;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.mailbox.Mailbox;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reader of the {@code {2, Cookie, ToPid}} (SEND) control message to a local pid.
+ * <p>
+ * It reads the header's raw bytes in place and resolves the target mailbox by the pid's
+ * {@code id}, {@code serial} and {@code creation} numbers, so no terms are created for the most
+ * frequent inbound message.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+final class LocalSendHeader {
+
+  private static final int NOT_MATCHED = -1;
+
+  /**
+   * Reads the SEND header to a local mailbox.
+   * <p>
+   * If the header is not a SEND to a known local pid, the buffer is left untouched.
+   *
+   * @param buffer the buffer with the message, its reader index points to the header's version byte
+   *
+   * @param end the message's end index
+   *
+   * @param node the local node
+   *
+   * @return the target mailbox, or {@code null} if the header must be parsed in a regular way
+   */
+  static Mailbox read (ByteBuf buffer, int end, Node node) {
+    int index = buffer.readerIndex();
+    if (end - index < 6
+        || buffer.getUnsignedByte(index) != VERSION_TAG
+        || buffer.getByte(index + 1) != SMALL_TUPLE.getCode()
+        || buffer.getUnsignedByte(index + 2) != 3
+        || buffer.getByte(index + 3) != SMALL_INTEGER.getCode()
+        || buffer.getUnsignedByte(index + 4) != SEND.getCode()) {
+      return null;
+    }
+
+    int position = skipCookie(buffer, index + 5, end);
+    return position == NOT_MATCHED || position >= end
+           ? null
+           : readPid(buffer, position, end, node);
+  }
+
+  private static Mailbox readPid (ByteBuf buffer, int position, int end, Node node) {
+    byte type = buffer.getByte(position);
+    boolean isNewPid = type == NEW_PID.getCode();
+    if (!isNewPid && type != PID.getCode()) {
+      return null;
+    }
+
+    int nodeEnd = skipAtom(buffer, position + 1, end);
+    int pidEnd = nodeEnd + Integer.BYTES * 2 + (isNewPid ? Integer.BYTES : Byte.BYTES);
+    if (nodeEnd == NOT_MATCHED || pidEnd > end || !isLocalNode(buffer, position + 1, nodeEnd, end, node)) {
+      return null;
+    }
+
+    int id = buffer.getInt(nodeEnd);
+    int serial = buffer.getInt(nodeEnd + Integer.BYTES);
+    @SuppressWarnings("PMD.CloseResource")
+    Mailbox mailbox = isNewPid
+                      ? node.mailbox(id, serial, buffer.getInt(nodeEnd + Integer.BYTES * 2))
+                      : node.mailbox(id & 0x7FFF, serial & 0x1FFF, buffer.getUnsignedByte(nodeEnd + Integer.BYTES * 2) & 0x03);
+
+    if (mailbox != null) {
+      buffer.readerIndex(pidEnd);
+    }
+    return mailbox;
+  }
+
+  // the unused cookie field is the empty atom from Erlang nodes, and NIL from encon
+  private static int skipCookie (ByteBuf buffer, int position, int end) {
+    if (position < end && buffer.getByte(position) == NIL.getCode()) {
+      return position + 1;
+    }
+    return skipAtom(buffer, position, end);
+  }
+
+  private static int skipAtom (ByteBuf buffer, int position, int end) {
+    int bytesStart = atomBytesStart(buffer, position, end);
+    if (bytesStart == NOT_MATCHED) {
+      return NOT_MATCHED;
+    }
+    int length = bytesStart - position == 2
+                 ? buffer.getUnsignedByte(position + 1)
+                 : buffer.getUnsignedShort(position + 1);
+
+    int atomEnd = bytesStart + length;
+    return atomEnd > end
+           ? NOT_MATCHED
+           : atomEnd;
+  }
+
+  private static int atomBytesStart (ByteBuf buffer, int position, int end) {
+    if (position + 3 > end) {
+      return NOT_MATCHED;
+    }
+    byte type = buffer.getByte(position);
+    if (type == SMALL_ATOM_UTF8.getCode() || type == SMALL_ATOM.getCode()) {
+      return position + 2;
+    } else if (type == ATOM_UTF8.getCode() || type == ATOM.getCode()) {
+      return position + 3;
+    } else {
+      return NOT_MATCHED;
+    }
+  }
+
+  private static boolean isLocalNode (ByteBuf buffer, int atomStart, int atomEnd, int end, Node node) {
+    String name = node.getDescriptor().getFullName();
+    int bytesStart = atomBytesStart(buffer, atomStart, end);
+    if (atomEnd - bytesStart != name.length()) {
+      return false;
+    }
+    for (int index = 0; index < name.length(); index++) {
+      // node names are ASCII, any other byte makes the regular path
+      if (buffer.getByte(bytesStart + index) != name.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private LocalSendHeader () {
+  }
+}
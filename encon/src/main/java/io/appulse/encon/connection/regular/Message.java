@@ -18,20 +18,26 @@ package io.appulse.encon.connection.regular;
 
 import static io.appulse.encon.terms.Erlang.atom;
 
+import io.appulse.encon.connection.control.CachedControlMessage;
 import io.appulse.encon.connection.control.ControlMessage;
+import io.appulse.encon.connection.control.DemonitorProcess;
 import io.appulse.encon.connection.control.Exit;
 import io.appulse.encon.connection.control.Exit2;
 import io.appulse.encon.connection.control.Link;
+import io.appulse.encon.connection.control.MonitorProcess;
+import io.appulse.encon.connection.control.MonitorProcessExit;
 import io.appulse.encon.connection.control.Send;
 import io.appulse.encon.connection.control.SendToRegisteredProcess;
 import io.appulse.encon.connection.control.Unlink;
 import io.appulse.encon.terms.ErlangTerm;
 import io.appulse.encon.terms.type.ErlangAtom;
 import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
 
 import io.netty.buffer.ByteBuf;
 import lombok.NonNull;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
 /**
  * Message container.
@@ -40,6 +46,7 @@ import lombok.Value;
  * @author Artem Labazin
  */
 @Value
+@NonFinal
 @SuppressWarnings("checkstyle:DesignForExtension")
 public class Message {
 
@@ -103,11 +110,91 @@ public class Message {
     return new Message(new Exit2(from, to, reason), null);
   }
 
+  public static Message monitor (@NonNull ErlangPid from, @NonNull ErlangPid to, @NonNull ErlangReference reference) {
+    return new Message(new MonitorProcess(from, to, reference), null);
+  }
+
+  public static Message monitor (@NonNull ErlangPid from, @NonNull String to, @NonNull ErlangReference reference) {
+    return new Message(new MonitorProcess(from, atom(to), reference), null);
+  }
+
+  public static Message demonitor (@NonNull ErlangPid from, @NonNull ErlangPid to, @NonNull ErlangReference reference) {
+    return new Message(new DemonitorProcess(from, to, reference), null);
+  }
+
+  public static Message demonitor (@NonNull ErlangPid from, @NonNull String to, @NonNull ErlangReference reference) {
+    return new Message(new DemonitorProcess(from, atom(to), reference), null);
+  }
+
+  public static Message monitorExit (@NonNull ErlangPid from,
+                                     @NonNull ErlangPid to,
+                                     @NonNull ErlangReference reference,
+                                     @NonNull ErlangTerm reason
+  ) {
+    return new Message(new MonitorProcessExit(from, to, reference, reason), null);
+  }
+
+  /**
+   * Reads a message, which was written by {@link #writeTo(ByteBuf)}.
+   *
+   * @param buffer the message's bytes, starting from the pass through tag
+   *
+   * @return the parsed message
+   */
+  public static Message readFrom (@NonNull ByteBuf buffer) {
+    int tag = buffer.readUnsignedByte();
+    if (tag != PASS_THROUGH_TAG) {
+      throw new IllegalArgumentException("Wrong pass through byte. Expected 0x70 (112), but was: " + tag);
+    }
+    ControlMessage header = ControlMessage.parse(readTerm(buffer));
+    ErlangTerm body = buffer.isReadable()
+                      ? readTerm(buffer)
+                      : null;
+    return new Message(header, body);
+  }
+
+  private static ErlangTerm readTerm (ByteBuf buffer) {
+    int version = buffer.readUnsignedByte();
+    if (version != VERSION_TAG) {
+      throw new IllegalArgumentException("Wrong version byte. Expected 0x83 (131), but was: " + version);
+    }
+    return ErlangTerm.newInstance(buffer);
+  }
+
   @NonNull
   ControlMessage header;
 
   ErlangTerm body;
 
+  public Message (@NonNull ControlMessage header, ErlangTerm body) {
+    this.header = header;
+    this.body = body;
+  }
+
+  /**
+   * Creates a copy of the message, for the subclasses, which carry some delivery details.
+   * The copy keeps the message's {@link CachedControlMessage} header.
+   *
+   * @param message the copied message
+   */
+  protected Message (@NonNull Message message) {
+    this.header = message.header;
+    this.body = message.body;
+  }
+
+  /**
+   * Returns the message's control message. A {@link CachedControlMessage} is unwrapped,
+   * so the header is always an instance of its tag's class. The cached bytes are used
+   * only for the message's writing.
+   *
+   * @return the control message
+   */
+  public ControlMessage getHeader () {
+    return header instanceof CachedControlMessage
+           ? ((CachedControlMessage) header).getMessage()
+           : header;
+  }
+
   public void writeTo (ByteBuf buffer) {
     buffer.writeByte(0x70);
     buffer.writeByte(0x83);
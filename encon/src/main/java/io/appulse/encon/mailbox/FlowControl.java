@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+/**
+ * A source of the delivered messages, which could be paused by an overflowed mailbox.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+public interface FlowControl {
+
+  /**
+   * Stops reading new messages from the source.
+   */
+  void pause ();
+
+  /**
+   * Resumes reading new messages from the source.
+   */
+  void resume ();
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.appulse.encon.connection.regular.Message;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls a mailbox's {@link InlineHandler} and watches its time budget.
+ * <p>
+ * A handler can't be interrupted in the event loop, so the guard only detects the blocking:
+ * every call, which took longer than the budget, is counted, and the overruns are reported
+ * to the log, at most once per second.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+final class InlineDispatcher {
+
+  private static final long WARNING_INTERVAL_NANOS = SECONDS.toNanos(1);
+
+  @NonNull
+  InlineHandler handler;
+
+  long budgetNanos;
+
+  LongAdder overruns = new LongAdder();
+
+  AtomicLong lastWarning = new AtomicLong();
+
+  void dispatch (Mailbox mailbox, Message message) {
+    long start = System.nanoTime();
+    try {
+      handler.handle(mailbox, message);
+    } catch (RuntimeException ex) {
+      // the handler's failure must not break the delivering connection
+      log.error("{}:{} inline handler failed on message\n{}\n",
+                mailbox.getPid(), mailbox.getName(), message, ex);
+    }
+    long elapsed = System.nanoTime() - start;
+    if (elapsed > budgetNanos) {
+      overrun(mailbox, start + elapsed, elapsed);
+    }
+  }
+
+  long getOverruns () {
+    return overruns.sum();
+  }
+
+  private void overrun (Mailbox mailbox, long now, long elapsed) {
+    overruns.increment();
+
+    long last = lastWarning.get();
+    if ((last == 0 || now - last >= WARNING_INTERVAL_NANOS) && lastWarning.compareAndSet(last, now)) {
+      log.warn("{}:{} inline handler took {}us with the budget {}us ({} overruns total), it must not block",
+               mailbox.getPid(), mailbox.getName(),
+               NANOSECONDS.toMicros(elapsed), NANOSECONDS.toMicros(budgetNanos), overruns.sum());
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import io.appulse.encon.connection.regular.Message;
+
+/**
+ * Non-blocking handler of a mailbox's messages, which is called right in the delivering thread,
+ * bypassing the mailbox's queue.
+ * <p>
+ * The messages from the remote nodes are delivered by the connections' event loop threads,
+ * so the handler must neither block nor do any long computation, otherwise it stalls
+ * all the connection's traffic. The handlers, which exceed their time budget, are reported
+ * to the log.
+ *
+ * @see Mailbox#inline(InlineHandler, long, java.util.concurrent.TimeUnit)
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FunctionalInterface
+public interface InlineHandler {
+
+  /**
+   * Handles a delivered message.
+   *
+   * @param self the message's mailbox
+   *
+   * @param message the delivered message
+   */
+  void handle (Mailbox self, Message message);
+}
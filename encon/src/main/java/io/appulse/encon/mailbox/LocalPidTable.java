@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The table of the local mailboxes, indexed directly by their pids' {@code id}.
+ * <p>
+ * The local pids' ids are 15-bit numbers, so the table is just an array and a lookup
+ * by raw {@code id}, {@code serial} and {@code creation} numbers needs neither
+ * an {@link ErlangPid} instance nor its hashing. If an {@code id} was reused
+ * (the pids' counter wrapped around) while its previous mailbox is still alive,
+ * the new mailbox is not put into the table, and it is available only by its pid.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+final class LocalPidTable {
+
+  private static final int SIZE = 0x8000; // 15 bits of pid's id
+
+  AtomicReferenceArray<Mailbox> slots = new AtomicReferenceArray<>(SIZE);
+
+  /**
+   * Adds a mailbox to the table.
+   *
+   * @param mailbox the mailbox to add
+   *
+   * @return {@code true} if the mailbox was added, or {@code false} if its slot is taken
+   */
+  boolean add (@NonNull Mailbox mailbox) {
+    int id = mailbox.getPid().getId();
+    return id >= 0 && id < SIZE && slots.compareAndSet(id, null, mailbox);
+  }
+
+  void remove (@NonNull Mailbox mailbox) {
+    int id = mailbox.getPid().getId();
+    if (id >= 0 && id < SIZE) {
+      slots.compareAndSet(id, mailbox, null);
+    }
+  }
+
+  /**
+   * Finds a mailbox by its pid's numbers.
+   *
+   * @param id the pid's id
+   *
+   * @param serial the pid's serial
+   *
+   * @param creation the pid's creation
+   *
+   * @return the mailbox or {@code null}, if the table doesn't have it
+   */
+  Mailbox get (int id, int serial, int creation) {
+    if (id < 0 || id >= SIZE) {
+      return null;
+    }
+    @SuppressWarnings("PMD.CloseResource")
+    Mailbox mailbox = slots.get(id);
+    if (mailbox == null) {
+      return null;
+    }
+    ErlangPid pid = mailbox.getPid();
+    return pid.getSerial() == serial && pid.getCreation() == creation
+           ? mailbox
+           : null;
+  }
+
+  /**
+   * Finds a mailbox by its pid, including the pid's node.
+   *
+   * @param pid the mailbox's pid
+   *
+   * @return the mailbox or {@code null}, if the table doesn't have it
+   */
+  Mailbox get (@NonNull ErlangPid pid) {
+    @SuppressWarnings("PMD.CloseResource")
+    Mailbox mailbox = get(pid.getId(), pid.getSerial(), pid.getCreation());
+    // the decoded pids share the node atoms with the local ones, so the pids' comparison is cheap
+    return mailbox != null && pid.equals(mailbox.getPid())
+           ? mailbox
+           : null;
+  }
+
+  void clear () {
+    for (int index = 0; index < SIZE; index++) {
+      slots.set(index, null);
+    }
+  }
+}
@@ -16,38 +16,66 @@
 
 package io.appulse.encon.mailbox;
 
-import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.connection.regular.Message.VERSION_TAG;
 import static io.appulse.encon.terms.Erlang.atom;
-import static io.appulse.encon.terms.Erlang.list;
 import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static lombok.AccessLevel.PACKAGE;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import io.appulse.encon.Node;
 import io.appulse.encon.common.NodeDescriptor;
 import io.appulse.encon.common.RemoteNode;
 import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.ControlMessage;
+import io.appulse.encon.connection.control.DemonitorProcess;
 import io.appulse.encon.connection.control.Exit;
 import io.appulse.encon.connection.control.ExitTraceToken;
 import io.appulse.encon.connection.control.Link;
+import io.appulse.encon.connection.control.MonitorProcess;
+import io.appulse.encon.connection.control.MonitorProcessExit;
+import io.appulse.encon.connection.control.Send;
+import io.appulse.encon.connection.control.SendToRegisteredProcess;
 import io.appulse.encon.connection.control.Unlink;
 import io.appulse.encon.connection.exception.CouldntConnectException;
 import io.appulse.encon.connection.regular.Message;
 import io.appulse.encon.exception.NoSuchRemoteNodeException;
+import io.appulse.encon.mailbox.exception.CalleeDownException;
 import io.appulse.encon.mailbox.exception.MailboxWithSuchNameDoesntExistException;
 import io.appulse.encon.mailbox.exception.MailboxWithSuchPidDoesntExistException;
+import io.appulse.encon.mailbox.exception.NodeDownException;
 import io.appulse.encon.mailbox.exception.ReceivedExitException;
 import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.stream.TermWriter;
 import io.appulse.encon.terms.type.ErlangAtom;
 import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -73,12 +101,37 @@ import lombok.val;
     "name",
     "pid"
 })
-@EqualsAndHashCode
-@AllArgsConstructor
-@SuppressWarnings("PMD.GodClass")
+@EqualsAndHashCode(of = "pid")
+@AllArgsConstructor(access = PACKAGE)
+@SuppressWarnings({
+    "PMD.GodClass",
+    "PMD.CloseResource",
+    "PMD.ExcessiveClassLength"
+})
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class Mailbox implements Closeable {
 
+  private static final ErlangAtom GEN_CALL = atom("$gen_call");
+
+  private static final long DEFAULT_RPC_TIMEOUT_SECONDS = 5;
+
+  private static final long DEFAULT_INLINE_BUDGET_MICROS = 100;
+
+  private static final ErlangAtom DOWN = atom("DOWN");
+
+  private static final ErlangAtom PROCESS = atom("process");
+
+  private static final ErlangAtom NOPROC = atom("noproc");
+
+  private static final ErlangAtom NOCONNECTION = atom("noconnection");
+
+  private static final ErlangAtom KILL = atom("kill");
+
+  private static final ErlangAtom KILLED = atom("killed");
+
+  // the data queue's marker, which wakes up a blocked receiver to handle the system messages
+  static final Message WAKEUP = new Message(new Send(atom("$wakeup")), null);
+
   @Getter
   @NonFinal
   @Setter(PACKAGE)
@@ -95,11 +148,76 @@ public class Mailbox implements Closeable {
   @NonNull
   BlockingQueue<Message> queue;
 
+  /**
+   * The maximum number of not received messages, {@code 0} means an unbounded mailbox.
+   */
+  int capacity;
+
+  MailboxOverflowPolicy overflow;
+
+  int lowWaterMark;
+
+  PendingCalls calls;
+
+  /**
+   * The mailbox's metrics or {@code null}, if they are disabled.
+   */
+  @Getter
+  MailboxMetrics metrics;
+
+  /**
+   * The node's timer wheel for the delayed sends, or {@code null}.
+   * The receive timeouts are waited by the queue itself.
+   */
+  TimerWheel timers;
+
+  /**
+   * The node's executor for the signals' blocking work, like the exit after a {@code kill},
+   * or {@code null} for the common pool.
+   */
+  Executor executor;
+
   @Getter
   Set<ErlangPid> links = ConcurrentHashMap.newKeySet();
 
   AtomicBoolean closed = new AtomicBoolean(false);
 
+  SaveQueue saveQueue = new SaveQueue();
+
+  Set<FlowControl> pausedSources = ConcurrentHashMap.newKeySet();
+
+  // the system messages (links and exits), they are handled ahead of the data messages
+  Queue<Message> signals = new ConcurrentLinkedQueue<>();
+
+  AtomicBoolean wakeupQueued = new AtomicBoolean(false);
+
+  // the non-blocking handler, which is called by the delivering thread instead of the queuing
+  AtomicReference<InlineDispatcher> inline = new AtomicReference<>();
+
+  // the inline handler's guard, the handler is called by one thread at a time
+  AtomicBoolean dispatching = new AtomicBoolean(false);
+
+  // this mailbox's monitors, reference -> monitored process
+  Map<ErlangReference, ErlangPid> monitors = new ConcurrentHashMap<>();
+
+  // the monitors of this mailbox, reference -> monitoring process
+  Map<ErlangReference, ErlangPid> monitoredBy = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an unbounded mailbox without the node's calls table, metrics and timers.
+   *
+   * @param name the mailbox's registered name, or {@code null}
+   *
+   * @param node the mailbox's node
+   *
+   * @param pid the mailbox's pid
+   *
+   * @param queue the mailbox's messages queue
+   */
+  public Mailbox (String name, Node node, ErlangPid pid, BlockingQueue<Message> queue) {
+    this(name, node, pid, queue, 0, null, 0, null, null, null, null);
+  }
+
   /**
    * Returns a new mailbox message.
    *
@@ -115,11 +233,18 @@ public class Mailbox implements Closeable {
    */
   @SneakyThrows
   public Message receive (long timeout, TimeUnit unit) {
-    Message message = queue.poll(timeout, unit);
+    handleSignals();
+    Message saved = saveQueue.poll();
+    if (saved != null) {
+      return received(saved);
+    }
+
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    Message message = poll(deadline);
     while (shouldContinueReceive(message)) {
-      message = queue.poll(timeout, unit);
+      message = poll(deadline);
     }
-    return message;
+    return received(message);
   }
 
   /**
@@ -131,11 +256,107 @@ public class Mailbox implements Closeable {
    */
   @SneakyThrows
   public Message receive () {
+    handleSignals();
+    Message saved = saveQueue.poll();
+    if (saved != null) {
+      return received(saved);
+    }
+
     Message message = queue.take();
     while (shouldContinueReceive(message)) {
       message = queue.take();
     }
-    return message;
+    return received(message);
+  }
+
+  /**
+   * Selective receive. Returns the oldest mailbox message, which matches the predicate.
+   * <p>
+   * Not matched messages stay in the mailbox in their arrival order and will be
+   * returned by the next receives. Repeated calls with the same predicate instance
+   * don't test the already rejected messages again.
+   *
+   * @param predicate messages filter, it must not depend on a mutable state
+   *
+   * @param timeout how long to wait before giving up, in units of
+   *        {@code unit}
+   *
+   * @param unit a {@code TimeUnit} determining how to interpret the
+   *        {@code timeout} parameter
+   *
+   * @return a matched {@link Message}, or {@code null} if the
+   *         specified waiting time elapses before a matched message is available
+   *
+   * @throws ReceivedExitException someone exits
+   */
+  @SneakyThrows
+  public Message receive (@NonNull Predicate<Message> predicate, long timeout, @NonNull TimeUnit unit) {
+    handleSignals();
+    Message saved = saveQueue.poll(predicate);
+    if (saved != null) {
+      return received(saved);
+    }
+
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (true) {
+      // the wakeup is queued only into an empty queue, so the signals, which come during the scan, are checked here
+      if (!signals.isEmpty()) {
+        handleSignals();
+      }
+      Message message = poll(deadline);
+      if (message == null) {
+        return null;
+      } else if (shouldContinueReceive(message)) {
+        continue;
+      } else if (predicate.test(message)) {
+        return received(message);
+      }
+      saveQueue.add(message, predicate);
+    }
+  }
+
+  /**
+   * Selective receive of a reply message like {@code {Reference, Reply}}, with the specified reference.
+   * <p>
+   * The already received replies are looked up by the reference, without a mailbox scan.
+   *
+   * @param reference the reply's reference
+   *
+   * @param timeout how long to wait before giving up, in units of
+   *        {@code unit}
+   *
+   * @param unit a {@code TimeUnit} determining how to interpret the
+   *        {@code timeout} parameter
+   *
+   * @return a matched {@link Message}, or {@code null} if the
+   *         specified waiting time elapses before a matched message is available
+   *
+   * @throws ReceivedExitException someone exits
+   */
+  @SneakyThrows
+  public Message receive (@NonNull ErlangReference reference, long timeout, @NonNull TimeUnit unit) {
+    handleSignals();
+    Message saved = saveQueue.poll(reference);
+    if (saved != null) {
+      return received(saved);
+    }
+
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (true) {
+      // the wakeup is queued only into an empty queue, so the signals, which come during the scan, are checked here
+      if (!signals.isEmpty()) {
+        handleSignals();
+      }
+      Message message = poll(deadline);
+      if (message == null) {
+        return null;
+      } else if (shouldContinueReceive(message)) {
+        continue;
+      } else if (reference.equals(SaveQueue.referenceOf(message))) {
+        return received(message);
+      }
+      saveQueue.add(message);
+    }
   }
 
   /**
@@ -144,7 +365,59 @@ public class Mailbox implements Closeable {
    * @return queue size
    */
   public int size () {
-    return queue.size();
+    return queued() + saveQueue.size() + signals.size();
+  }
+
+  /**
+   * Sends the same message to many local or remote mailboxes.
+   * <p>
+   * The body is encoded only once and its bytes are shared by all the remote targets,
+   * the targets of the same node are written to their connection together.
+   * The local mailboxes receive the body term itself. A failed target is logged
+   * and doesn't stop the delivery to the others.
+   *
+   * @param pids the local or remote mailboxes' PIDs
+   *
+   * @param body message payload
+   */
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  public void sendAll (@NonNull Collection<ErlangPid> pids, @NonNull ErlangTerm body) {
+    Map<NodeDescriptor, List<ControlMessage>> remotes = new HashMap<>();
+    for (ErlangPid to : pids) {
+      if (!isLocal(to)) {
+        remotes.computeIfAbsent(to.getDescriptor(), it -> new ArrayList<>())
+            .add(new Send(to));
+        continue;
+      }
+      try {
+        deliverLocally(to, Message.send(to, body));
+      } catch (RuntimeException ex) {
+        log.warn("Couldn't send a message to {}", to, ex);
+      }
+    }
+    if (remotes.isEmpty()) {
+      return;
+    }
+
+    ByteBuf encoded = Unpooled.buffer();
+    try {
+      encoded.writeByte(VERSION_TAG);
+      body.writeTo(encoded);
+
+      remotes.forEach((descriptor, headers) -> {
+        try {
+          RemoteNode remote = node.lookup(descriptor);
+          if (remote == null) {
+            throw new NoSuchRemoteNodeException(descriptor);
+          }
+          node.connect(remote).send(headers, encoded);
+        } catch (RuntimeException ex) {
+          log.warn("Couldn't send a message to {} processes at {}", headers.size(), descriptor, ex);
+        }
+      });
+    } finally {
+      encoded.release();
+    }
   }
 
   /**
@@ -155,14 +428,55 @@ public class Mailbox implements Closeable {
    * @param body message payload
    */
   public void send (@NonNull ErlangPid to, @NonNull ErlangTerm body) {
-    val message = Message.send(to, body);
+    Message message = Message.send(to, body);
     if (isLocal(to)) {
-      getMailbox(to).deliver(message);
+      deliverLocally(to, message);
     } else {
       getConnection(to).send(message);
     }
   }
 
+  /**
+   * Sends a message to local or remote mailbox, the body is written by the callback. For a remote mailbox
+   * the body is written right into the connection's buffer, without building the body's terms,
+   * a local mailbox gets the decoded terms.
+   *
+   * @param to the message's target
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull ErlangPid to, @NonNull Consumer<TermWriter> body) {
+    if (isLocal(to)) {
+      deliverLocally(to, Message.send(to, decode(body)));
+    } else {
+      getConnection(to).send(new Send(to), body);
+    }
+  }
+
+  /**
+   * Sends a message to a local or remote mailbox after the delay, like {@code erlang:send_after/3}.
+   * The timer is kept by the node's timer wheel, so there could be millions of them.
+   * A message to a not existing local mailbox is dropped.
+   *
+   * @param to the message's target
+   *
+   * @param body message payload
+   *
+   * @param delay how long to wait before the sending
+   *
+   * @param unit the delay's unit
+   *
+   * @return the timer's handle, which could cancel the sending
+   */
+  public TimerRef sendAfter (@NonNull ErlangPid to, @NonNull ErlangTerm body, long delay, @NonNull TimeUnit unit) {
+    if (timers == null) {
+      throw new IllegalStateException("Mailbox " + pid + " has no timer wheel");
+    }
+    return timers.schedule(() -> sendDelayed(to, body), delay, unit);
+  }
+
   /**
    * Sends a message to local mailbox.
    *
@@ -224,6 +538,190 @@ public class Mailbox implements Closeable {
     }
   }
 
+  /**
+   * Sends a message to remote node, the body is written by the callback right into the connection's buffer.
+   *
+   * @param remote remote node descriptor
+   *
+   * @param mailbox mailbox name
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   *
+   * @throws IllegalStateException if the callback didn't write exactly one complete term
+   */
+  public void send (@NonNull RemoteNode remote, @NonNull String mailbox, @NonNull Consumer<TermWriter> body) {
+    if (isLocal(remote)) {
+      send(mailbox, decode(body));
+    } else {
+      node.connect(remote)
+          .send(new SendToRegisteredProcess(pid, atom(mailbox)), body);
+    }
+  }
+
+  /**
+   * Creates a pre-resolved handle of a registered process at a remote node.
+   *
+   * @param remoteNodeName remote node name
+   *
+   * @param mailbox the remote process's registered name
+   *
+   * @return the remote process's handle
+   */
+  public RemoteMailboxRef remoteMailbox (@NonNull String remoteNodeName, @NonNull String mailbox) {
+    return remoteMailbox(NodeDescriptor.from(remoteNodeName), mailbox);
+  }
+
+  /**
+   * Creates a pre-resolved handle of a registered process at a remote node.
+   *
+   * @param descriptor remote node descriptor
+   *
+   * @param mailbox the remote process's registered name
+   *
+   * @return the remote process's handle
+   */
+  public RemoteMailboxRef remoteMailbox (@NonNull NodeDescriptor descriptor, @NonNull String mailbox) {
+    RemoteNode remote = node.lookup(descriptor);
+    if (remote == null) {
+      throw new NoSuchRemoteNodeException(descriptor);
+    }
+    return remoteMailbox(remote, mailbox);
+  }
+
+  /**
+   * Creates a pre-resolved handle of a registered process at a remote node. The messages, sent through it,
+   * are from this mailbox.
+   *
+   * @param remote remote node
+   *
+   * @param mailbox the remote process's registered name
+   *
+   * @return the remote process's handle
+   */
+  public RemoteMailboxRef remoteMailbox (@NonNull RemoteNode remote, @NonNull String mailbox) {
+    if (isLocal(remote)) {
+      throw new IllegalArgumentException("Node " + remote.getDescriptor() + " is local, use its mailbox directly");
+    }
+    return new RemoteMailboxRef(this, remote, atom(mailbox));
+  }
+
+  /**
+   * Makes a synchronous (gen_server-like) call to a process.
+   * <p>
+   * It sends {@code {'$gen_call', {Pid, Reference}, Request}} message, and the reply
+   * {@code {Reference, Reply}} completes the returned future without getting to this mailbox.
+   *
+   * @param to the callee's pid
+   *
+   * @param request the call's request
+   *
+   * @param timeout how long to wait for the reply
+   *
+   * @param unit the timeout's unit
+   *
+   * @return the reply's future, it fails with {@link java.util.concurrent.TimeoutException}
+   *         if there is no reply in time, or with {@link CalleeDownException} if the callee exits,
+   *         or with {@link IllegalStateException} if the mailbox is built without the node's calls table
+   */
+  public CompletableFuture<ErlangTerm> call (@NonNull ErlangPid to, @NonNull ErlangTerm request,
+                                             long timeout, @NonNull TimeUnit unit
+  ) {
+    if (calls == null) {
+      return withoutCalls();
+    }
+    ErlangReference reference = node.newReference();
+    val future = calls.register(reference, to.getDescriptor(), timeout, unit);
+    // like gen:call, the callee is monitored with the call's reference, so the callee's exit fails the call
+    monitor(reference, to);
+    future.whenComplete((result, throwable) -> {
+      if (throwable instanceof NodeDownException) {
+        monitors.remove(reference);
+      } else {
+        demonitor(reference);
+      }
+    });
+    if (future.isDone()) {
+      return future;
+    }
+    try {
+      send(to, genCall(reference, request));
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+  /**
+   * Makes a synchronous (gen_server-like) call to a registered process.
+   *
+   * @param remoteNodeName the callee's node name
+   *
+   * @param mailbox the callee's registered name
+   *
+   * @param request the call's request
+   *
+   * @param timeout how long to wait for the reply
+   *
+   * @param unit the timeout's unit
+   *
+   * @return the reply's future, it fails with {@link java.util.concurrent.TimeoutException}
+   *         if there is no reply in time, or with {@link CalleeDownException} if the callee exits,
+   *         or with {@link IllegalStateException} if the mailbox is built without the node's calls table
+   */
+  public CompletableFuture<ErlangTerm> call (@NonNull String remoteNodeName, @NonNull String mailbox,
+                                             @NonNull ErlangTerm request, long timeout, @NonNull TimeUnit unit
+  ) {
+    val descriptor = NodeDescriptor.from(remoteNodeName);
+    RemoteNode remote = node.lookup(descriptor);
+    if (remote == null) {
+      throw new NoSuchRemoteNodeException(descriptor);
+    }
+    return call(remote, mailbox, request, timeout, unit);
+  }
+
+  /**
+   * Makes a synchronous (gen_server-like) call to a registered process.
+   *
+   * @param remote the callee's node
+   *
+   * @param mailbox the callee's registered name
+   *
+   * @param request the call's request
+   *
+   * @param timeout how long to wait for the reply
+   *
+   * @param unit the timeout's unit
+   *
+   * @return the reply's future, it fails with {@link java.util.concurrent.TimeoutException}
+   *         if there is no reply in time, or with {@link CalleeDownException} if the callee exits,
+   *         or with {@link IllegalStateException} if the mailbox is built without the node's calls table
+   */
+  public CompletableFuture<ErlangTerm> call (@NonNull RemoteNode remote, @NonNull String mailbox,
+                                             @NonNull ErlangTerm request, long timeout, @NonNull TimeUnit unit
+  ) {
+    if (calls == null) {
+      return withoutCalls();
+    }
+    if (isLocal(remote)) {
+      Mailbox callee = node.mailbox(mailbox);
+      if (callee != null) {
+        return call(callee.getPid(), request, timeout, unit);
+      }
+    }
+
+    ErlangReference reference = node.newReference();
+    CompletableFuture<ErlangTerm> future = calls.register(reference, remote.getDescriptor(), timeout, unit);
+    try {
+      if (!isLocal(remote)) {
+        monitorRegistered(remote, mailbox, reference, future);
+      }
+      send(remote, mailbox, genCall(reference, request));
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
   /**
    * Send an RPC request to the remote Erlang node. This convenience function
    * creates the following message and sends it to 'rex' on the remote node:
@@ -430,14 +928,7 @@ public class Mailbox implements Closeable {
    * @since 1.6.4
    */
   public void call (@NonNull RemoteNode remote, @NonNull ErlangAtom module, @NonNull ErlangAtom function, ErlangTerm ...args) {
-    ErlangTerm argumentsList;
-    if (args == null || args.length == 0) {
-      argumentsList = NIL;
-    } else if (args.length == 1 && args[0].isList()) {
-      argumentsList = args[0];
-    } else {
-      argumentsList = list(args);
-    }
+    ErlangTerm argumentsList = Rpc.arguments(args);
 
     send(remote, "rex", tuple(
         pid,
@@ -451,6 +942,29 @@ public class Mailbox implements Closeable {
     ));
   }
 
+  /**
+   * Returns asynchronous remote procedure calls API, bound to this mailbox, with the default
+   * 5 seconds calls timeout.
+   *
+   * @return RPC API instance
+   */
+  public Rpc rpc () {
+    return rpc(DEFAULT_RPC_TIMEOUT_SECONDS, SECONDS);
+  }
+
+  /**
+   * Returns asynchronous remote procedure calls API, bound to this mailbox.
+   *
+   * @param timeout how long to wait for a call's result
+   *
+   * @param unit the timeout's unit
+   *
+   * @return RPC API instance
+   */
+  public Rpc rpc (long timeout, @NonNull TimeUnit unit) {
+    return new Rpc(this, timeout, unit);
+  }
+
   /**
    * Receive an RPC reply from the remote Erlang node. This convenience
    * function receives a message from the remote node, and expects it to have
@@ -530,16 +1044,151 @@ public class Mailbox implements Closeable {
     }
   }
 
+  /**
+   * Starts monitoring of a local or a remote process.
+   * <p>
+   * When the monitored process exits (or it doesn't exist, or the connection to its node is lost),
+   * this mailbox receives the message {@code {'DOWN', Reference, process, Pid, Reason}}.
+   *
+   * @param target the process to monitor
+   *
+   * @return the monitor's reference
+   */
+  public ErlangReference monitor (@NonNull ErlangPid target) {
+    ErlangReference reference = node.newReference();
+    monitor(reference, target);
+    return reference;
+  }
+
+  private void monitor (ErlangReference reference, ErlangPid target) {
+    monitors.put(reference, target);
+
+    val message = Message.monitor(pid, target, reference);
+    if (isLocal(target)) {
+      Mailbox mailbox = node.mailbox(target);
+      if (mailbox == null) {
+        down(reference, target, NOPROC);
+      } else {
+        mailbox.deliver(message);
+      }
+      return;
+    }
+
+    try {
+      getConnection(target).send(message);
+    } catch (RuntimeException ex) {
+      log.debug("Couldn't monitor remote process {}", target, ex);
+      down(reference, target, NOCONNECTION);
+    }
+  }
+
+  // the registered callee is monitored by its name, its DOWN message fails the call
+  private void monitorRegistered (RemoteNode remote, String mailbox, ErlangReference reference,
+                                  CompletableFuture<ErlangTerm> future
+  ) {
+    Connection connection = node.connect(remote);
+    connection.send(Message.monitor(pid, mailbox, reference));
+    future.whenComplete((result, throwable) -> {
+      if (throwable instanceof NodeDownException) {
+        return;
+      }
+      try {
+        connection.send(Message.demonitor(pid, mailbox, reference));
+      } catch (RuntimeException ex) {
+        log.debug("Couldn't demonitor remote process {}", mailbox, ex);
+      }
+    });
+  }
+
+  /**
+   * Stops the monitoring, started by {@link #monitor}.
+   * The {@code DOWN} message of the monitor will not be received after this call.
+   *
+   * @param reference the monitor's reference
+   */
+  public void demonitor (@NonNull ErlangReference reference) {
+    val target = monitors.remove(reference);
+    if (target != null) {
+      signal(target, Message.demonitor(pid, target, reference));
+    }
+  }
+
+  /**
+   * Switches the mailbox to the inline mode with the default time budget of 100 microseconds.
+   *
+   * @param handler the non-blocking messages handler
+   *
+   * @see #inline(InlineHandler, long, TimeUnit)
+   */
+  public void inline (@NonNull InlineHandler handler) {
+    inline(handler, DEFAULT_INLINE_BUDGET_MICROS, MICROSECONDS);
+  }
+
+  /**
+   * Switches the mailbox to the inline mode. The data messages are passed to the handler
+   * right in the delivering thread (a connection's event loop for the remote messages),
+   * skipping the queue and the receiver's thread hop. The already queued messages are passed
+   * to the handler first, so the messages' order is kept, and the {@code receive} methods get nothing
+   * in this mode. The handler is called by one thread at a time: the messages, delivered while it is
+   * busy, are queued and handled by the busy thread. The system messages (links and exits)
+   * are handled right away too.
+   * <p>
+   * The handler's calls, which take longer than the budget, are counted and reported to the log.
+   *
+   * @param handler the non-blocking messages handler
+   *
+   * @param budget the handler's time budget for a message
+   *
+   * @param unit the budget's unit
+   */
+  public void inline (@NonNull InlineHandler handler, long budget, @NonNull TimeUnit unit) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("Inline handler's budget must be positive: " + budget);
+    }
+    InlineDispatcher dispatcher = new InlineDispatcher(handler, unit.toNanos(budget));
+    inline.set(dispatcher);
+    log.debug("{}:{} switched to the inline mode", pid, name);
+    dispatchLeftovers(dispatcher);
+  }
+
+  /**
+   * Switches the mailbox back to the queuing of the delivered messages.
+   */
+  public void removeInline () {
+    inline.set(null);
+  }
+
+  /**
+   * Tells if the mailbox is in the inline mode.
+   *
+   * @return {@code true} if the mailbox has an inline handler
+   */
+  public boolean isInline () {
+    return inline.get() != null;
+  }
+
+  /**
+   * Returns how many times the inline handler exceeded its time budget.
+   *
+   * @return the budget's overruns count, or {@code 0} if the mailbox is not in the inline mode
+   */
+  public long getInlineOverruns () {
+    val dispatcher = inline.get();
+    return dispatcher == null
+           ? 0
+           : dispatcher.getOverruns();
+  }
+
   /**
    * Exits this mailbox.
    *
    * @param reason the exit's reason
    */
   public void exit (@NonNull ErlangTerm reason) {
-    if (closed.get()) {
+    if (!closed.compareAndSet(false, true)) {
       return;
     }
-    closed.set(true);
+    resumeSources();
 
     log.debug("Exiting mailbox '{}:{}'. Reason: '{}'",
               pid, name, reason);
@@ -553,7 +1202,15 @@ public class Mailbox implements Closeable {
       }
     });
 
+    monitoredBy.forEach((reference, watcher) -> {
+      signal(watcher, Message.monitorExit(pid, watcher, reference, reason));
+    });
+    monitoredBy.clear();
+
+    monitors.keySet().forEach(this::demonitor);
+
     node.remove(this);
+    closeQueue();
   }
 
   /**
@@ -582,8 +1239,34 @@ public class Mailbox implements Closeable {
    * @throws NullPointerException in case of {@code message} is null
    */
   public void deliver (@NonNull Message message) {
+    deliver(message, null);
+  }
+
+  /**
+   * Puts a new message to the mailbox, applying its overflow policy, if the mailbox is bounded and full.
+   * <p>
+   * {@link MailboxOverflowPolicy#PAUSE} policy pauses the message's source, or just adds
+   * the message if there is no source (the local sending).
+   *
+   * @param message new message
+   *
+   * @param source the message's source or {@code null}
+   */
+  public void deliver (@NonNull Message message, FlowControl source) {
     log.debug("{}:{} got message\n{}\n", pid, name, message);
-    queue.add(message);
+    if (handleMonitorSignal(message.getHeader()) || (calls != null && calls.complete(message))) {
+      return;
+    }
+    if (isSystem(message.getHeader())) {
+      deliverSignal(message);
+      return;
+    }
+    InlineDispatcher dispatcher = inline.get();
+    if (dispatcher == null) {
+      put(message, source);
+    } else {
+      dispatch(dispatcher, message, source);
+    }
   }
 
   @Override
@@ -591,6 +1274,291 @@ public class Mailbox implements Closeable {
     exit("normal");
   }
 
+  private void put (Message message, FlowControl source) {
+    if (capacity <= 0 || queued() < capacity) {
+      enqueue(message);
+    } else {
+      overflow(message, source);
+    }
+  }
+
+  /*
+   * Calls the inline handler in the delivering thread. If the handler is busy in another thread,
+   * the message is queued, and the busy thread handles it after the queued ones,
+   * so the handler is never called concurrently and the messages keep their order.
+   */
+  private void dispatch (InlineDispatcher dispatcher, Message message, FlowControl source) {
+    if (dispatching.compareAndSet(false, true)) {
+      try {
+        dispatchQueued(dispatcher);
+        dispatcher.dispatch(this, message);
+        dispatchQueued(dispatcher);
+      } finally {
+        dispatching.set(false);
+      }
+    } else {
+      put(message, source);
+    }
+    dispatchLeftovers(dispatcher);
+  }
+
+  // a message could be queued right before the guard's release, so the queue is checked after it
+  private void dispatchLeftovers (InlineDispatcher dispatcher) {
+    while (!queue.isEmpty() && dispatching.compareAndSet(false, true)) {
+      try {
+        dispatchQueued(dispatcher);
+      } finally {
+        dispatching.set(false);
+      }
+    }
+  }
+
+  private void dispatchQueued (InlineDispatcher dispatcher) {
+    for (Message queued = queue.poll(); queued != null; queued = queue.poll()) {
+      if (queued == WAKEUP) {
+        wakeupQueued.set(false);
+      } else {
+        dispatcher.dispatch(this, received(queued));
+      }
+    }
+    resumeSources();
+  }
+
+  private void overflow (Message message, FlowControl source) {
+    switch (overflow) {
+    case DROP_OLD:
+      val dropped = pollOldest();
+      if (dropped != null) {
+        evicted(1);
+      }
+      log.debug("{}:{} is full, the oldest message is dropped\n{}\n", pid, name, dropped);
+      enqueue(message);
+      break;
+    case PAUSE:
+      enqueue(message);
+      if (source != null && pausedSources.add(source)) {
+        log.debug("{}:{} is full, pausing the source {}", pid, name, source);
+        source.pause();
+        resumeSources();
+      }
+      break;
+    case DROP_NEW:
+    default:
+      log.debug("{}:{} is full, the new message is dropped\n{}\n", pid, name, message);
+      dropped(1);
+    }
+  }
+
+  private ErlangTerm genCall (ErlangReference reference, ErlangTerm request) {
+    return tuple(
+        GEN_CALL,
+        tuple(pid, reference),
+        request
+    );
+  }
+
+  /**
+   * Handles the loss of the connection to a remote node. The monitors of that node's processes
+   * are triggered with {@code noconnection} reason, that node's monitors of this mailbox are removed.
+   *
+   * @param remote the disconnected node
+   */
+  void connectionLost (@NonNull NodeDescriptor remote) {
+    monitors.forEach((reference, target) -> {
+      if (remote.equals(target.getDescriptor())) {
+        down(reference, target, NOCONNECTION);
+      }
+    });
+    monitoredBy.values()
+        .removeIf(it -> remote.equals(it.getDescriptor()));
+  }
+
+  private boolean handleMonitorSignal (ControlMessage header) {
+    switch (header.getTag()) {
+    case MONITOR_P:
+      val monitor = (MonitorProcess) header;
+      if (closed.get()) {
+        signal(monitor.getFrom(), Message.monitorExit(pid, monitor.getFrom(), monitor.getReference(), NOPROC));
+      } else {
+        monitoredBy.put(monitor.getReference(), monitor.getFrom());
+      }
+      return true;
+    case DEMONITOR_P:
+      monitoredBy.remove(((DemonitorProcess) header).getReference());
+      return true;
+    case MONITOR_P_EXIT:
+      val exit = (MonitorProcessExit) header;
+      down(exit.getReference(), exit.getFrom(), exit.getReason());
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private void down (ErlangReference reference, ErlangTerm target, ErlangTerm reason) {
+    boolean monitored = monitors.remove(reference) != null;
+    // the calls' monitors fail their calls, instead of the DOWN messages
+    if ((calls != null && calls.down(reference, target, reason)) || !monitored) {
+      return;
+    }
+    Message down = Message.send(pid, tuple(DOWN, reference, PROCESS, target, reason));
+    InlineDispatcher dispatcher = inline.get();
+    if (dispatcher == null) {
+      enqueue(down);
+    } else {
+      dispatch(dispatcher, down, null);
+    }
+  }
+
+  private void signal (ErlangPid to, Message message) {
+    if (isLocal(to)) {
+      Mailbox mailbox = node.mailbox(to);
+      if (mailbox != null) {
+        mailbox.deliver(message);
+      }
+      return;
+    }
+
+    try {
+      getConnection(to).send(message);
+    } catch (RuntimeException ex) {
+      log.debug("Couldn't send a signal to {}", to, ex);
+    }
+  }
+
+  private void sendDelayed (ErlangPid to, ErlangTerm body) {
+    if (!isLocal(to)) {
+      // the remote node's lookup and connection could block, they are not for the timer wheel's thread
+      CompletableFuture.runAsync(() -> send(to, body))
+          .whenComplete((result, throwable) -> {
+            if (throwable != null) {
+              log.warn("{}:{} couldn't send a delayed message to {}", pid, name, to, throwable);
+            }
+          });
+      return;
+    }
+    try {
+      deliverLocally(to, Message.send(to, body));
+    } catch (MailboxWithSuchPidDoesntExistException ex) {
+      log.debug("{}:{} delayed message to {} is dropped", pid, name, to, ex);
+    }
+  }
+
+  private Message poll (long deadline) throws InterruptedException {
+    long remaining = deadline - System.nanoTime();
+    return queue.poll(remaining, NANOSECONDS);
+  }
+
+  // the queues like SpillingQueue hold the external resources
+  private void closeQueue () {
+    if (!(queue instanceof Closeable)) {
+      return;
+    }
+    try {
+      ((Closeable) queue).close();
+    } catch (IOException ex) {
+      log.warn("Couldn't close {}:{} queue", pid, name, ex);
+    }
+  }
+
+  // the wakeup is moved to the tail, a blocked receiver must still handle the signals
+  private Message pollOldest () {
+    for (int attempts = queue.size(); attempts > 0; attempts--) {
+      Message oldest = queue.poll();
+      if (oldest != WAKEUP) {
+        return oldest;
+      }
+      if (!queue.offer(oldest)) {
+        wakeupQueued.set(false);
+      }
+    }
+    return null;
+  }
+
+  // the real messages in the data queue, without the wakeup
+  private int queued () {
+    int queued = wakeupQueued.get()
+                 ? queue.size() - 1
+                 : queue.size();
+    return Math.max(queued, 0);
+  }
+
+  private void enqueue (Message message) {
+    Message queued = metrics == null
+                     ? message
+                     : metrics.stamp(message);
+    if (queue.offer(queued)) {
+      if (metrics != null) {
+        metrics.enqueued(queued());
+      }
+    } else {
+      log.warn("{}:{} queue rejected a message, it is dropped\n{}\n", pid, name, message);
+      dropped(1);
+    }
+  }
+
+  private void dropped (int count) {
+    if (metrics != null) {
+      metrics.dropped(count);
+    }
+  }
+
+  private void evicted (int count) {
+    if (metrics != null) {
+      metrics.evicted(count);
+    }
+  }
+
+  private Message received (Message message) {
+    if (message != null && metrics != null) {
+      metrics.received(message);
+    }
+    return message;
+  }
+
+  private void resumeSources () {
+    if (pausedSources.isEmpty() || (queued() > lowWaterMark && !closed.get())) {
+      return;
+    }
+    for (val source : pausedSources) {
+      if (pausedSources.remove(source)) {
+        log.debug("{}:{} resumes the source {}", pid, name, source);
+        source.resume();
+      }
+    }
+  }
+
+  // the local mailboxes get the terms, so the written body is decoded back
+  private static ErlangTerm decode (Consumer<TermWriter> body) {
+    ByteBuf buffer = Unpooled.buffer();
+    try {
+      TermWriter.writeTerm(buffer, body);
+      return ErlangTerm.newInstance(buffer);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  // the standalone mailboxes have no pending calls table, which completes the futures by the replies
+  private CompletableFuture<ErlangTerm> withoutCalls () {
+    CompletableFuture<ErlangTerm> future = new CompletableFuture<>();
+    future.completeExceptionally(new IllegalStateException("Mailbox " + pid + " has no pending calls table"));
+    return future;
+  }
+
+  private void deliverLocally (ErlangPid to, Message message) {
+    Mailbox mailbox = node.mailbox(to);
+    if (mailbox != null) {
+      mailbox.deliver(message);
+      return;
+    }
+    ReplyEndpoint endpoint = node.replyEndpoint(to);
+    if (endpoint == null) {
+      throw new MailboxWithSuchPidDoesntExistException(to);
+    }
+    endpoint.deliver(message);
+  }
+
   private Mailbox getMailbox (@NonNull String remoteName) {
     Mailbox mailbox = node.mailbox(remoteName);
     if (mailbox == null) {
@@ -632,8 +1600,8 @@ public class Mailbox implements Closeable {
         // ignore 'normal' exit
         return;
       } else if ("kill".equals(test)) {
-        close();
-        return;
+        exit(KILLED);
+        throw new ReceivedExitException(from, reason);
       }
     }
 
@@ -642,31 +1610,113 @@ public class Mailbox implements Closeable {
   }
 
   private boolean shouldContinueReceive (Message message) {
-    if (message == null) {
+    resumeSources();
+    if (message != WAKEUP) {
       return false;
     }
+    wakeupQueued.set(false);
+    handleSignals();
+    return true;
+  }
+
+  private void deliverSignal (Message message) {
+    if (isKill(message.getHeader())) {
+      kill();
+      if (inline.get() != null) {
+        // there is no receiver to notify
+        return;
+      }
+    }
+    signals.add(message);
+    if (inline.get() != null) {
+      // there is no receiver to wake up
+      handleInlineSignals();
+      return;
+    }
+    if (queue.isEmpty() && wakeupQueued.compareAndSet(false, true) && !queue.offer(WAKEUP)) {
+      wakeupQueued.set(false);
+    }
+  }
+
+  // 'kill' is not trappable, so the backlog is not processed anymore
+  private void kill () {
+    int backlog = 0;
+    for (Message queued = queue.poll(); queued != null; queued = queue.poll()) {
+      if (queued == WAKEUP) {
+        wakeupQueued.set(false);
+      } else {
+        backlog++;
+      }
+    }
+    log.debug("{}:{} is killed, {} not received messages are dropped", pid, name, backlog);
+    evicted(backlog);
+    // the signals come from the connections' event loops, and the exit notifies the links over the network
+    CompletableFuture.runAsync(() -> exit(KILLED), executor == null
+                                                   ? ForkJoinPool.commonPool()
+                                                   : executor)
+        .whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            log.warn("{}:{} couldn't exit after the kill", pid, name, throwable);
+          }
+        });
+  }
+
+  private void handleInlineSignals () {
+    try {
+      handleSignals();
+    } catch (ReceivedExitException ex) {
+      log.debug("{}:{} inline mailbox exited", pid, name, ex);
+    }
+  }
+
+  private void handleSignals () {
+    for (Message signal = signals.poll(); signal != null; signal = signals.poll()) {
+      val header = signal.getHeader();
+      switch (header.getTag()) {
+      case LINK:
+        links.add(((Link) header).getFrom());
+        break;
+      case UNLINK:
+        links.remove(((Unlink) header).getFrom());
+        break;
+      case EXIT:
+      case EXIT2:
+        Exit exit = (Exit) header;
+        exit(exit.getFrom(), exit.getReason());
+        break;
+      case EXIT_TT:
+      case EXIT2_TT:
+        ExitTraceToken exitTrace = (ExitTraceToken) header;
+        exit(exitTrace.getFrom(), exitTrace.getReason());
+        break;
+      default:
+        log.warn("{}:{} got unexpected system message\n{}\n", pid, name, signal);
+      }
+    }
+  }
 
-    val header = message.getHeader();
+  private boolean isSystem (ControlMessage header) {
     switch (header.getTag()) {
     case LINK:
-      links.add(((Link) header).getFrom());
-      break;
     case UNLINK:
-      links.remove(((Unlink) header).getFrom());
-      break;
     case EXIT:
     case EXIT2:
-      Exit exit = (Exit) header;
-      exit(exit.getFrom(), exit.getReason());
-      break;
     case EXIT_TT:
     case EXIT2_TT:
-      ExitTraceToken exitTrace = (ExitTraceToken) header;
-      exit(exitTrace.getFrom(), exitTrace.getReason());
-      break;
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  private boolean isKill (ControlMessage header) {
+    switch (header.getTag()) {
+    case EXIT2:
+      return KILL.equals(((Exit) header).getReason());
+    case EXIT2_TT:
+      return KILL.equals(((ExitTraceToken) header).getReason());
     default:
       return false;
     }
-    return true;
   }
 }
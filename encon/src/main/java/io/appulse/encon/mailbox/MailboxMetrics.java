@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.appulse.encon.connection.regular.Message;
+
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Mailbox's metrics: the number of the enqueued, received and dropped messages,
+ * the queue's high-water mark and the sampled time-in-queue histogram.
+ * <p>
+ * All the counters are striped, so a node-wide aggregate, which is updated
+ * by all its mailboxes, doesn't become a contention point. The metrics are optional,
+ * a mailbox without them only checks a {@code null} field.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class MailboxMetrics {
+
+  /**
+   * The default time-in-queue sampling rate, every 64th message is sampled.
+   */
+  public static final int DEFAULT_SAMPLE_RATE = 64;
+
+  /**
+   * The number of the histogram's buckets, the last one is about 18 minutes.
+   */
+  public static final int BUCKETS = 40;
+
+  MailboxMetrics parent;
+
+  /**
+   * Every {@code sampleRate}-th message (on average) is stamped by its delivery time.
+   */
+  @Getter
+  int sampleRate;
+
+  LongAdder enqueued = new LongAdder();
+
+  LongAdder received = new LongAdder();
+
+  LongAdder dropped = new LongAdder();
+
+  // the dropped messages, which were enqueued before
+  LongAdder evicted = new LongAdder();
+
+  LongAccumulator highWaterMark = new LongAccumulator(Math::max, 0);
+
+  LongAdder[] timeInQueue = new LongAdder[BUCKETS];
+
+  MailboxMetrics () {
+    this(null, DEFAULT_SAMPLE_RATE);
+  }
+
+  MailboxMetrics (MailboxMetrics parent, int sampleRate) {
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+    }
+    this.parent = parent;
+    this.sampleRate = sampleRate;
+    Arrays.setAll(timeInQueue, it -> new LongAdder());
+  }
+
+  /**
+   * The number of the messages, which were put into the mailbox.
+   *
+   * @return the enqueued messages count
+   */
+  public long getEnqueued () {
+    return enqueued.sum();
+  }
+
+  /**
+   * The number of the messages, which were received from the mailbox.
+   *
+   * @return the received messages count
+   */
+  public long getReceived () {
+    return received.sum();
+  }
+
+  /**
+   * The number of the messages, which were dropped by the overflow policy or the mailbox's kill.
+   *
+   * @return the dropped messages count
+   */
+  public long getDropped () {
+    return dropped.sum();
+  }
+
+  /**
+   * The number of the messages, which wait in the mailbox. It is approximate under the concurrent updates.
+   *
+   * @return the mailbox's depth
+   */
+  public long getDepth () {
+    return Math.max(getEnqueued() - getReceived() - evicted.sum(), 0);
+  }
+
+  /**
+   * The maximum observed queue's depth. For the node's aggregate it is the maximum of its mailboxes.
+   *
+   * @return the high-water mark
+   */
+  public long getHighWaterMark () {
+    return highWaterMark.get();
+  }
+
+  /**
+   * The time-in-queue histogram of the sampled messages. The bucket {@code i} counts the
+   * messages, which waited from {@code 2^i} (inclusive) to {@code 2^(i+1)} (exclusive) nanoseconds,
+   * the first bucket also counts the waits shorter than 1 nanosecond, and the last - all the longer ones.
+   *
+   * @return the histogram's buckets
+   */
+  public long[] getTimeInQueue () {
+    long[] result = new long[BUCKETS];
+    for (int index = 0; index < BUCKETS; index++) {
+      result[index] = timeInQueue[index].sum();
+    }
+    return result;
+  }
+
+  /**
+   * Estimates the time-in-queue percentile by the histogram.
+   *
+   * @param percentile the percentile, from {@code 0} to {@code 100}
+   *
+   * @return the upper bound of the percentile's bucket in nanoseconds, or {@code 0} if there are no samples
+   */
+  public long getTimeInQueuePercentile (double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percentile);
+    }
+    long[] histogram = getTimeInQueue();
+    long total = 0;
+    for (long count : histogram) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long threshold = (long) Math.ceil(total * percentile / 100);
+    long accumulated = 0;
+    for (int index = 0; index < BUCKETS; index++) {
+      accumulated += histogram[index];
+      if (accumulated >= threshold && accumulated > 0) {
+        return 1L << (index + 1);
+      }
+    }
+    return 1L << BUCKETS;
+  }
+
+  // the sampled messages are queued with their delivery time
+  Message stamp (Message message) {
+    return ThreadLocalRandom.current().nextInt(sampleRate) == 0
+           ? new StampedMessage(message, System.nanoTime())
+           : message;
+  }
+
+  void enqueued (int depth) {
+    enqueued.increment();
+    highWaterMark.accumulate(depth);
+    if (parent != null) {
+      parent.enqueued.increment();
+      parent.highWaterMark.accumulate(depth);
+    }
+  }
+
+  void received (Message message) {
+    int bucket = message instanceof StampedMessage
+                 ? bucket(System.nanoTime() - ((StampedMessage) message).getDeliveredAt())
+                 : -1;
+
+    received(bucket);
+    if (parent != null) {
+      parent.received(bucket);
+    }
+  }
+
+  void dropped (long count) {
+    dropped.add(count);
+    if (parent != null) {
+      parent.dropped.add(count);
+    }
+  }
+
+  void evicted (long count) {
+    dropped(count);
+    evicted.add(count);
+    if (parent != null) {
+      parent.evicted.add(count);
+    }
+  }
+
+  private void received (int bucket) {
+    received.increment();
+    if (bucket >= 0) {
+      timeInQueue[bucket].increment();
+    }
+  }
+
+  private static int bucket (long nanos) {
+    if (nanos <= 0) {
+      return 0;
+    }
+    int log2 = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    return Math.min(log2, BUCKETS - 1);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+/**
+ * What a bounded mailbox does with a new message, when it is full.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+public enum MailboxOverflowPolicy {
+
+  /**
+   * The new message is dropped.
+   */
+  DROP_NEW,
+
+  /**
+   * The oldest message in the mailbox is dropped, the new one is added.
+   */
+  DROP_OLD,
+
+  /**
+   * The new message is added, but the connection it came from stops reading
+   * until the mailbox drains below its low-water mark.
+   */
+  PAUSE;
+}
@@ -17,24 +17,33 @@
 package io.appulse.encon.mailbox;
 
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.io.Closeable;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.appulse.encon.Node;
+import io.appulse.encon.common.RemoteNode;
 import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.mailbox.exception.NodeDownException;
 import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
 
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 /**
  * Module for working with mailboxes.
@@ -54,21 +63,62 @@ public final class ModuleMailbox implements Closeable {
 
   Map<ErlangPid, Mailbox> pids = new ConcurrentHashMap<>();
 
+  LocalPidTable table = new LocalPidTable();
+
   Map<String, Mailbox> names = new ConcurrentHashMap<>();
 
+  TimerWheel timers = new TimerWheel();
+
+  PendingCalls calls = new PendingCalls(timers);
+
+  MailboxMetrics metrics = new MailboxMetrics();
+
+  // the mailboxes' blocking work, which is not for the connections' event loops and the timer wheel's thread
+  ExecutorService executor = Executors.newCachedThreadPool(new DefaultThreadFactory("encon-mailbox", true));
+
+  ReplyEndpoints endpoints = new ReplyEndpoints(this::newPid, this::newReference);
+
   @Override
   public void close () {
     log.info("Closing mailbox module");
     pids.values().forEach(Mailbox::close);
 
     pids.clear();
+    table.clear();
     names.clear();
+
+    calls.close();
+    endpoints.close();
+    timers.close();
+    executor.shutdown();
   }
 
   public NewMailboxBuilder mailbox () {
     return new NewMailboxBuilder();
   }
 
+  /**
+   * The aggregated metrics of all the mailboxes, which have the metrics enabled.
+   *
+   * @return the node-wide mailboxes metrics
+   */
+  public MailboxMetrics metrics () {
+    return metrics;
+  }
+
+  /**
+   * Creates a new lightweight endpoint for a single reply.
+   *
+   * @return a new {@link ReplyEndpoint} instance, it must be closed after use
+   */
+  public ReplyEndpoint replyEndpoint () {
+    return endpoints.create();
+  }
+
+  public ReplyEndpoint replyEndpoint (@NonNull ErlangPid pid) {
+    return endpoints.get(pid);
+  }
+
   public boolean register (@NonNull Mailbox mailbox, @NonNull String name) {
     if (names.containsKey(name)) {
       return false;
@@ -92,12 +142,35 @@ public final class ModuleMailbox implements Closeable {
   }
 
   public Mailbox mailbox (@NonNull ErlangPid pid) {
-    return pids.get(pid);
+    Mailbox mailbox = table.get(pid);
+    return mailbox == null
+           ? pids.get(pid)
+           : mailbox;
+  }
+
+  /**
+   * Finds a local mailbox by its pid's numbers, without creating an {@link ErlangPid} instance.
+   * <p>
+   * It doesn't check the pid's node, and it could miss the mailbox if its pid's {@code id}
+   * was reused by another live mailbox, so in case of {@code null} the lookup
+   * by {@link #mailbox(ErlangPid)} is still needed.
+   *
+   * @param id the pid's id
+   *
+   * @param serial the pid's serial
+   *
+   * @param creation the pid's creation
+   *
+   * @return the mailbox or {@code null}
+   */
+  public Mailbox mailbox (int id, int serial, int creation) {
+    return table.get(id, serial, creation);
   }
 
   public void remove (@NonNull Mailbox mailbox) {
     log.debug("Removing mailbox {}", mailbox);
 
+    table.remove(mailbox);
     ofNullable(pids.remove(mailbox.getPid()))
         .ifPresent(it -> it.close());
 
@@ -127,6 +200,20 @@ public final class ModuleMailbox implements Closeable {
     return pids;
   }
 
+  /**
+   * Notifies the mailboxes about the lost connection to the remote node.
+   * The monitors of that node's processes are triggered, the pending calls to it fail.
+   *
+   * @param remote the disconnected node
+   */
+  public void connectionLost (@NonNull RemoteNode remote) {
+    log.debug("Connection to {} was lost", remote);
+    val descriptor = remote.getDescriptor();
+    // the calls fail first, so their callees' monitors are not triggered with 'noconnection'
+    calls.fail(descriptor, new NodeDownException(descriptor));
+    pids.values().forEach(it -> it.connectionLost(descriptor));
+  }
+
   public void registerNetKernelMailbox () {
     if (names.containsKey("net_kernel")) {
       return;
@@ -135,9 +222,18 @@ public final class ModuleMailbox implements Closeable {
     @SuppressWarnings("PMD.CloseResource")
     Mailbox netKernel = new NetKernelMailbox(node, pid);
     pids.put(pid, netKernel);
+    table.add(netKernel);
     register(netKernel, "net_kernel");
   }
 
+  private ErlangPid newPid () {
+    return pidProducer.get();
+  }
+
+  private ErlangReference newReference () {
+    return node.newReference();
+  }
+
   @FieldDefaults(level = PRIVATE)
   @NoArgsConstructor(access = PRIVATE)
   public final class NewMailboxBuilder {
@@ -146,6 +242,18 @@ public final class ModuleMailbox implements Closeable {
 
     BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
 
+    int capacity;
+
+    MailboxOverflowPolicy overflow = MailboxOverflowPolicy.DROP_NEW;
+
+    int lowWaterMark = -1;
+
+    int metricsSampleRate;
+
+    InlineHandler inlineHandler;
+
+    long inlineBudgetNanos;
+
     public NewMailboxBuilder name (String mailboxName) {
       this.name = mailboxName;
       return this;
@@ -156,16 +264,130 @@ public final class ModuleMailbox implements Closeable {
       return this;
     }
 
+    /**
+     * Makes the mailbox bounded.
+     *
+     * @param mailboxCapacity the maximum number of not received messages, {@code 0} means unbounded
+     *
+     * @param overflowPolicy what to do with a new message, when the mailbox is full
+     *
+     * @return this builder
+     */
+    public NewMailboxBuilder capacity (int mailboxCapacity, @NonNull MailboxOverflowPolicy overflowPolicy) {
+      if (mailboxCapacity < 0) {
+        throw new IllegalArgumentException("Mailbox capacity must not be negative: " + mailboxCapacity);
+      }
+      this.capacity = mailboxCapacity;
+      this.overflow = overflowPolicy;
+      return this;
+    }
+
+    /**
+     * Sets the mailbox size, below which the sources, paused by
+     * {@link MailboxOverflowPolicy#PAUSE} policy, are resumed.
+     * By default, it is a half of the capacity.
+     *
+     * @param mark the low-water mark
+     *
+     * @return this builder
+     */
+    public NewMailboxBuilder lowWaterMark (int mark) {
+      this.lowWaterMark = mark;
+      return this;
+    }
+
+    /**
+     * Enables the mailbox's metrics with the default time-in-queue sampling rate.
+     *
+     * @return this builder
+     */
+    public NewMailboxBuilder metrics () {
+      return metrics(MailboxMetrics.DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Enables the mailbox's metrics.
+     *
+     * @param sampleRate every {@code sampleRate}-th message (on average) is sampled for
+     *                   the time-in-queue histogram, {@code 1} means every message
+     *
+     * @return this builder
+     */
+    public NewMailboxBuilder metrics (int sampleRate) {
+      if (sampleRate <= 0) {
+        throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+      }
+      this.metricsSampleRate = sampleRate;
+      return this;
+    }
+
+    /**
+     * Creates the mailbox in the inline mode with the default time budget.
+     *
+     * @param handler the non-blocking messages handler
+     *
+     * @return this builder
+     *
+     * @see Mailbox#inline(InlineHandler)
+     */
+    public NewMailboxBuilder inline (@NonNull InlineHandler handler) {
+      this.inlineHandler = handler;
+      this.inlineBudgetNanos = 0;
+      return this;
+    }
+
+    /**
+     * Creates the mailbox in the inline mode.
+     *
+     * @param handler the non-blocking messages handler
+     *
+     * @param budget the handler's time budget for a message
+     *
+     * @param unit the budget's unit
+     *
+     * @return this builder
+     *
+     * @see Mailbox#inline(InlineHandler, long, TimeUnit)
+     */
+    public NewMailboxBuilder inline (@NonNull InlineHandler handler, long budget, @NonNull TimeUnit unit) {
+      if (budget <= 0) {
+        throw new IllegalArgumentException("Inline handler's budget must be positive: " + budget);
+      }
+      this.inlineHandler = handler;
+      this.inlineBudgetNanos = unit.toNanos(budget);
+      return this;
+    }
+
     public Mailbox build () {
       ErlangPid pid = pidProducer.get();
       Mailbox mailbox = Mailbox.builder()
           .name(name)
           .node(node)
           .queue(queue)
+          .capacity(capacity)
+          .overflow(overflow)
+          .lowWaterMark(lowWaterMark < 0
+                        ? capacity / 2
+                        : Math.min(lowWaterMark, capacity))
+          .calls(calls)
+          .timers(timers)
+          .executor(executor)
+          .metrics(metricsSampleRate > 0
+                   ? new MailboxMetrics(metrics, metricsSampleRate)
+                   : null)
           .pid(pid)
           .build();
 
+      if (inlineHandler != null) {
+        if (inlineBudgetNanos <= 0) {
+          mailbox.inline(inlineHandler);
+        } else {
+          mailbox.inline(inlineHandler, inlineBudgetNanos, NANOSECONDS);
+        }
+      }
+
       pids.put(mailbox.getPid(), mailbox);
+      table.add(mailbox);
       ofNullable(mailbox.getName())
           .ifPresent(it -> register(mailbox, it));
 
@@ -42,8 +42,9 @@ class NetKernelMailbox extends Mailbox {
     super(null, node, pid, new SynchronousQueue<>());
   }
 
+  // the connections deliver with their flow control, so it is the only entry point
   @Override
-  public void deliver (Message message) {
+  public void deliver (Message message, FlowControl source) {
     val body = message.getBody();
     if (body == null) {
       log.error("Invalid net_kernel call, without body");
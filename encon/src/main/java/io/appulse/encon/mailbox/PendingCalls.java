@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.mailbox.exception.CalleeDownException;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Node-wide table of the outgoing calls, which are waiting for their {@code {Reference, Reply}} replies.
+ * <p>
+ * The replies complete the calls' futures right in the delivering thread, so they never get to
+ * the mailboxes' queues. An expired call leaves a tombstone for the same timeout period,
+ * but not less than a second, so its late reply is just dropped.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+final class PendingCalls implements Closeable {
+
+  // tombstone of an expired call, it lets to drop the call's late reply
+  private static final PendingCall EXPIRED = new PendingCall(null);
+
+  // the short calls' replies are often later than their timeouts
+  private static final long MIN_TOMBSTONE_MILLIS = 1000;
+
+  @NonNull
+  TimerWheel timer;
+
+  Map<ErlangReference, PendingCall> calls = new ConcurrentHashMap<>();
+
+  /**
+   * Registers a new call.
+   *
+   * @param reference the call's reference, which the reply is tagged with
+   *
+   * @param callee the callee's node, the call fails if the connection to it is lost
+   *
+   * @param timeout how long to wait for the reply
+   *
+   * @param unit the timeout's unit
+   *
+   * @return the reply's future, it fails with {@link TimeoutException} if there is no reply in time
+   */
+  CompletableFuture<ErlangTerm> register (@NonNull ErlangReference reference, @NonNull NodeDescriptor callee,
+                                          long timeout, @NonNull TimeUnit unit
+  ) {
+    PendingCall future = new PendingCall(callee);
+    calls.put(reference, future);
+
+    TimerRef expiration = timer.schedule(() -> {
+      if (calls.replace(reference, future, EXPIRED)) {
+        future.completeExceptionally(new TimeoutException("There is no reply for the call " + reference));
+        long tombstone = Math.max(unit.toMillis(timeout), MIN_TOMBSTONE_MILLIS);
+        timer.schedule(() -> calls.remove(reference, EXPIRED), tombstone, MILLISECONDS);
+      }
+    }, timeout, unit);
+
+    future.whenComplete((result, throwable) -> {
+      expiration.cancel();
+      calls.remove(reference, future);
+    });
+    return future;
+  }
+
+  /**
+   * Completes the call's future, if the message is a reply for a registered call.
+   *
+   * @param message a received message
+   *
+   * @return {@code true} if the message was a call's reply
+   */
+  boolean complete (@NonNull Message message) {
+    if (calls.isEmpty()) {
+      return false;
+    }
+    val reference = SaveQueue.referenceOf(message);
+    if (reference == null) {
+      return false;
+    }
+    val future = calls.remove(reference);
+    if (future == null) {
+      return false;
+    } else if (future == EXPIRED) {
+      log.debug("Late reply for the expired call {} is dropped", reference);
+      return true;
+    }
+    future.complete(message.getBody().getUnsafe(1));
+    return true;
+  }
+
+  /**
+   * Fails the call, if the {@code DOWN} message of its callee's monitor arrived.
+   * The callees are monitored with their calls' references.
+   *
+   * @param reference the monitor's reference
+   *
+   * @param callee the exited callee
+   *
+   * @param reason the callee's exit reason
+   *
+   * @return {@code true} if the monitor was a call's one
+   */
+  boolean down (@NonNull ErlangReference reference, @NonNull ErlangTerm callee, @NonNull ErlangTerm reason) {
+    if (calls.isEmpty()) {
+      return false;
+    }
+    val future = calls.get(reference);
+    if (future == null) {
+      return false;
+    } else if (future != EXPIRED) {
+      future.completeExceptionally(new CalleeDownException(callee, reason));
+    }
+    return true;
+  }
+
+  /**
+   * Fails all registered calls to the specified node.
+   *
+   * @param callee the callees' node
+   *
+   * @param throwable the calls' failure
+   */
+  void fail (@NonNull NodeDescriptor callee, @NonNull Throwable throwable) {
+    calls.forEach((reference, future) -> {
+      if (future != EXPIRED && callee.equals(future.callee) && calls.remove(reference, future)) {
+        future.completeExceptionally(throwable);
+      }
+    });
+  }
+
+  int size () {
+    return (int) calls.values()
+        .stream()
+        .filter(it -> it != EXPIRED)
+        .count();
+  }
+
+  @Override
+  public void close () {
+    log.debug("Cancelling {} pending calls", calls.size());
+    calls.values()
+        .stream()
+        .filter(it -> it != EXPIRED)
+        .forEach(it -> it.cancel(false));
+    calls.clear();
+  }
+
+  @RequiredArgsConstructor
+  @FieldDefaults(level = PRIVATE, makeFinal = true)
+  private static final class PendingCall extends CompletableFuture<ErlangTerm> {
+
+    NodeDescriptor callee;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.CachedControlMessage;
+import io.appulse.encon.connection.control.SendToRegisteredProcess;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.stream.TermWriter;
+import io.appulse.encon.terms.type.ErlangAtom;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pre-resolved handle of a registered process at a remote node.
+ * <p>
+ * The remote node's lookup and the control message's encoding are done once, when the handle is created.
+ * The handle keeps the live connection and checks it on every send, so a reconnected node
+ * is picked up transparently. Every send is a single buffer write of the pre-encoded header
+ * and the body.
+ *
+ * @see Mailbox#remoteMailbox(RemoteNode, String)
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class RemoteMailboxRef {
+
+  @Getter
+  Mailbox owner;
+
+  @Getter
+  RemoteNode remote;
+
+  @Getter
+  ErlangAtom name;
+
+  CachedControlMessage header;
+
+  AtomicReference<Connection> connection = new AtomicReference<>();
+
+  RemoteMailboxRef (@NonNull Mailbox owner, @NonNull RemoteNode remote, @NonNull ErlangAtom name) {
+    this.owner = owner;
+    this.remote = remote;
+    this.name = name;
+    header = new SendToRegisteredProcess(owner.getPid(), name).cached();
+  }
+
+  /**
+   * Sends a message to the remote registered process.
+   *
+   * @param body the message's body
+   */
+  public void send (@NonNull ErlangTerm body) {
+    connection().send(header, writer -> writer.writeTerm(body));
+  }
+
+  /**
+   * Sends a message to the remote registered process, the body is written by the callback
+   * right into the connection's buffer.
+   *
+   * @param body the body's writing callback, it must write exactly one term
+   */
+  public void send (@NonNull Consumer<TermWriter> body) {
+    connection().send(header, body);
+  }
+
+  private Connection connection () {
+    Connection current = connection.get();
+    if (current != null && current.isActive()) {
+      return current;
+    }
+
+    Connection fresh = owner.getNode().connect(remote);
+    if (connection.compareAndSet(current, fresh) && current != null) {
+      log.debug("Connection to {} for {} was re-established", remote, name);
+    }
+    return fresh;
+  }
+}
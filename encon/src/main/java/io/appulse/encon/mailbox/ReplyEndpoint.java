@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PACKAGE;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * Lightweight single-message endpoint for the short-lived request/reply exchanges.
+ * <p>
+ * Unlike the {@link Mailbox}, it has no queue, links and monitors - just a pid and a future,
+ * which is completed by the first delivered message. The pids of the closed endpoints are
+ * reused, so the replies like {@code {Reference, Reply}}, tagged with an other reference
+ * than {@code reference}, are dropped as late replies of the previous exchanges.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@ToString(of = { "pid", "reference" })
+@RequiredArgsConstructor(access = PACKAGE)
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class ReplyEndpoint implements Closeable {
+
+  /**
+   * The endpoint's pid, the reply's destination.
+   */
+  @Getter
+  @NonNull
+  ErlangPid pid;
+
+  /**
+   * The reference, which the exchange could be tagged with.
+   */
+  @Getter
+  @NonNull
+  ErlangReference reference;
+
+  @NonNull
+  ReplyEndpoints owner;
+
+  /**
+   * The reply's future.
+   */
+  @Getter
+  CompletableFuture<Message> reply = new CompletableFuture<>();
+
+  /**
+   * Waits for the reply.
+   *
+   * @param timeout how long to wait
+   *
+   * @param unit the timeout's unit
+   *
+   * @return the reply or {@code null}, if there is no reply in time
+   */
+  public Message receive (long timeout, @NonNull TimeUnit unit) {
+    try {
+      return reply.get(timeout, unit);
+    } catch (TimeoutException ex) {
+      return null;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Delivers a message to the endpoint. Only the first one is kept.
+   *
+   * @param message the reply
+   */
+  public void deliver (@NonNull Message message) {
+    val messageReference = SaveQueue.referenceOf(message);
+    if (messageReference != null && !reference.equals(messageReference)) {
+      log.debug("{} dropped a late reply\n  {}", this, message);
+      return;
+    }
+    if (!reply.complete(message)) {
+      log.debug("{} has a reply already, the message is dropped\n  {}", this, message);
+    }
+  }
+
+  @Override
+  public void close () {
+    reply.cancel(false);
+    owner.release(this);
+  }
+}
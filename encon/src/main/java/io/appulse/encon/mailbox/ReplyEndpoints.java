@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the active {@link ReplyEndpoint}s with a pool of the released pids.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+final class ReplyEndpoints implements Closeable {
+
+  private static final int MAX_FREE_PIDS = 1024;
+
+  @NonNull
+  Supplier<ErlangPid> pidProducer;
+
+  @NonNull
+  Supplier<ErlangReference> referenceProducer;
+
+  Map<ErlangPid, ReplyEndpoint> endpoints = new ConcurrentHashMap<>();
+
+  BlockingQueue<ErlangPid> freePids = new ArrayBlockingQueue<>(MAX_FREE_PIDS);
+
+  ReplyEndpoint create () {
+    ErlangPid pid = freePids.poll();
+    if (pid == null) {
+      pid = pidProducer.get();
+    }
+    ReplyEndpoint endpoint = new ReplyEndpoint(pid, referenceProducer.get(), this);
+    endpoints.put(pid, endpoint);
+    return endpoint;
+  }
+
+  ReplyEndpoint get (@NonNull ErlangPid pid) {
+    return endpoints.get(pid);
+  }
+
+  void release (@NonNull ReplyEndpoint endpoint) {
+    if (endpoints.remove(endpoint.getPid(), endpoint) && !freePids.offer(endpoint.getPid())) {
+      log.debug("The pool of free pids is full, {} is not reused", endpoint.getPid());
+    }
+  }
+
+  int size () {
+    return endpoints.size();
+  }
+
+  @Override
+  public void close () {
+    log.debug("Closing {} reply endpoints", endpoints.size());
+    endpoints.values().forEach(it -> it.getReply().cancel(false));
+    endpoints.clear();
+    freePids.clear();
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.list;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static lombok.AccessLevel.PACKAGE;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.exception.NoSuchRemoteNodeException;
+import io.appulse.encon.mailbox.exception.RemoteProcedureCallException;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangAtom;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Asynchronous remote procedure calls via remote node's {@code rex} server.
+ * <p>
+ * Each call is a {@code gen_server} call with its own reference, so any number of calls could be
+ * made concurrently from one mailbox, and every reply completes its own future.
+ * The replies never get to the mailbox's queue, the late replies of the expired calls are dropped.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@RequiredArgsConstructor(access = PACKAGE)
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public final class Rpc {
+
+  private static final String REX = "rex";
+
+  private static final ErlangAtom CALL = atom("call");
+
+  private static final ErlangAtom USER = atom("user");
+
+  private static final ErlangAtom BADRPC = atom("badrpc");
+
+  static ErlangTerm arguments (ErlangTerm ...args) {
+    if (args == null || args.length == 0) {
+      return NIL;
+    } else if (args.length == 1 && args[0].isList()) {
+      return args[0];
+    } else {
+      return list(args);
+    }
+  }
+
+  private static ErlangTerm unwrap (ErlangTerm result) {
+    if (result.isTuple() && result.size() == 2 && BADRPC.equals(result.getUnsafe(0))) {
+      throw new RemoteProcedureCallException(result.getUnsafe(1));
+    }
+    return result;
+  }
+
+  @NonNull
+  Mailbox mailbox;
+
+  long timeout;
+
+  @NonNull
+  TimeUnit unit;
+
+  /**
+   * Creates a new {@link Rpc} instance with the same mailbox and a new calls timeout.
+   *
+   * @param newTimeout how long to wait for a call's result
+   *
+   * @param newUnit the timeout's unit
+   *
+   * @return a new {@link Rpc} instance
+   */
+  public Rpc withTimeout (long newTimeout, @NonNull TimeUnit newUnit) {
+    return new Rpc(mailbox, newTimeout, newUnit);
+  }
+
+  public CompletableFuture<ErlangTerm> call (@NonNull String remoteNodeName, @NonNull String module,
+                                             @NonNull String function, ErlangTerm ...args
+  ) {
+    return call(NodeDescriptor.from(remoteNodeName), atom(module), atom(function), args);
+  }
+
+  public CompletableFuture<ErlangTerm> call (@NonNull NodeDescriptor descriptor, @NonNull String module,
+                                             @NonNull String function, ErlangTerm ...args
+  ) {
+    return call(descriptor, atom(module), atom(function), args);
+  }
+
+  public CompletableFuture<ErlangTerm> call (@NonNull RemoteNode remote, @NonNull String module,
+                                             @NonNull String function, ErlangTerm ...args
+  ) {
+    return call(remote, atom(module), atom(function), args);
+  }
+
+  public CompletableFuture<ErlangTerm> call (@NonNull NodeDescriptor descriptor, @NonNull ErlangAtom module,
+                                             @NonNull ErlangAtom function, ErlangTerm ...args
+  ) {
+    RemoteNode remote = mailbox.getNode().lookup(descriptor);
+    if (remote == null) {
+      throw new NoSuchRemoteNodeException(descriptor);
+    }
+    return call(remote, module, function, args);
+  }
+
+  /**
+   * Calls a remote function.
+   *
+   * @param remote the remote node
+   *
+   * @param module the function's module
+   *
+   * @param function the function's name
+   *
+   * @param args the function's arguments
+   *
+   * @return the function's result future. It fails with {@link RemoteProcedureCallException}
+   *         if the call returned {@code {badrpc, Reason}}, or with {@link java.util.concurrent.TimeoutException}
+   *         if there is no result in time
+   */
+  public CompletableFuture<ErlangTerm> call (@NonNull RemoteNode remote, @NonNull ErlangAtom module,
+                                             @NonNull ErlangAtom function, ErlangTerm ...args
+  ) {
+    ErlangTerm request = tuple(CALL, module, function, arguments(args), USER);
+    return mailbox.call(remote, REX, request, timeout, unit)
+        .thenApply(Rpc::unwrap);
+  }
+}
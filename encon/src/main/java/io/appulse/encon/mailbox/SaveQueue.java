@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Erlang's "save queue" for the selective receive. It keeps the messages,
+ * which were skipped by a selective receive, in their arrival order.
+ * <p>
+ * The queue remembers the last predicate and how far the messages were already
+ * checked against it, so the repeated selective receive with the same predicate
+ * doesn't rescan them. The messages like {@code {Reference, Reply}} are indexed by
+ * their reference for O(1) lookup, the ones with the same reference are chained in their arrival order.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE)
+final class SaveQueue {
+
+  final Lock lock = new ReentrantLock();
+
+  // reference -> the oldest saved message with it
+  final Map<ErlangReference, Node> references = new HashMap<>();
+
+  // sentinel, the first saved message is its next node
+  final Node head = new Node(null, null);
+
+  Node tail = head;
+
+  int size;
+
+  Predicate<Message> scannedPredicate;
+
+  Node scannedUntil = head;
+
+  static ErlangReference referenceOf (Message message) {
+    ErlangTerm body = message.getBody();
+    if (body == null || !body.isTuple() || body.size() != 2) {
+      return null;
+    }
+    ErlangTerm first = body.getUnsafe(0);
+    return first.isReference()
+           ? (ErlangReference) first
+           : null;
+  }
+
+  int size () {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the oldest saved message.
+   *
+   * @return the oldest message or {@code null}
+   */
+  Message poll () {
+    lock.lock();
+    try {
+      return head.next == null
+             ? null
+             : remove(head.next);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Finds and removes the oldest saved message, which matches the predicate.
+   * The messages, which were checked by the same predicate before, are not tested again.
+   *
+   * @param predicate messages filter
+   *
+   * @return the matched message or {@code null}
+   */
+  Message poll (Predicate<Message> predicate) {
+    lock.lock();
+    try {
+      if (scannedPredicate != predicate) {
+        scannedPredicate = predicate;
+        scannedUntil = head;
+      }
+
+      Node node = scannedUntil.next;
+      while (node != null) {
+        if (predicate.test(node.message)) {
+          scannedUntil = node.previous;
+          return remove(node);
+        }
+        scannedUntil = node;
+        node = node.next;
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Finds and removes the saved message {@code {Reference, Reply}} with the specified reference.
+   *
+   * @param reference the message's reference
+   *
+   * @return the matched message or {@code null}
+   */
+  Message poll (ErlangReference reference) {
+    lock.lock();
+    try {
+      Node node = references.get(reference);
+      return node == null
+             ? null
+             : remove(node);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Saves a message, which was not tested by any predicate.
+   *
+   * @param message skipped message
+   */
+  void add (Message message) {
+    add(message, null);
+  }
+
+  /**
+   * Saves a message, which was already rejected by the predicate.
+   *
+   * @param message skipped message
+   *
+   * @param predicate the predicate which rejected the message
+   */
+  void add (Message message, Predicate<Message> predicate) {
+    lock.lock();
+    try {
+      Node previousTail = tail;
+      Node node = new Node(message, referenceOf(message));
+      tail.next = node;
+      node.previous = tail;
+      tail = node;
+      size++;
+
+      if (node.reference != null) {
+        index(node);
+      }
+      if (predicate != null && predicate == scannedPredicate && scannedUntil == previousTail) {
+        scannedUntil = node;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Message remove (Node node) {
+    node.previous.next = node.next;
+    if (node.next == null) {
+      tail = node.previous;
+    } else {
+      node.next.previous = node.previous;
+    }
+    if (scannedUntil == node) {
+      scannedUntil = node.previous;
+    }
+    if (node.reference != null) {
+      unindex(node);
+    }
+    size--;
+    return node.message;
+  }
+
+  private void index (Node node) {
+    Node last = references.putIfAbsent(node.reference, node);
+    if (last == null) {
+      return;
+    }
+    while (last.sameReference != null) {
+      last = last.sameReference;
+    }
+    last.sameReference = node;
+  }
+
+  private void unindex (Node node) {
+    Node oldest = references.get(node.reference);
+    if (oldest == node) {
+      if (node.sameReference == null) {
+        references.remove(node.reference);
+      } else {
+        references.put(node.reference, node.sameReference);
+      }
+      return;
+    }
+    // a selective receive by a predicate could take a message from the chain's middle
+    Node previous = oldest;
+    while (previous.sameReference != node) {
+      previous = previous.sameReference;
+    }
+    previous.sameReference = node.sameReference;
+  }
+
+  @RequiredArgsConstructor
+  @FieldDefaults(level = PRIVATE)
+  private static final class Node {
+
+    final Message message;
+
+    final ErlangReference reference;
+
+    Node previous;
+
+    Node next;
+
+    // the next saved message with the same reference
+    Node sameReference;
+  }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.appulse.encon.connection.regular.Message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+import lombok.NonNull;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unbounded mailbox queue, which keeps only a small head of the messages in memory
+ * and spills the rest to the memory-mapped segment files.
+ * <p>
+ * The spilled messages are stored as their ETF frames (the same bytes, which are sent over
+ * the wire) and they are decoded only when they are read back into the head, so a huge backlog
+ * costs neither heap nor GC time. The segment files are deleted when the queue is closed,
+ * a few consumed segments are kept for reuse, so a steady spilling doesn't create new files.
+ * A closed queue doesn't spill anymore, it accepts only the messages, which fit into the head.
+ * <p>
+ * The mailbox's wakeup marker is never spilled, it stays in the head even if it is full,
+ * because the mailbox recognizes it by identity. The segments'
+ * mappings are released as soon as the segments are closed, without waiting for the GC.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * Mailbox mailbox = node.mailbox()
+ *     .queue(new SpillingQueue(Paths.get("/var/spool/my_process")))
+ *     .build();
+ * }</pre>
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@FieldDefaults(level = PRIVATE)
+public final class SpillingQueue extends AbstractQueue<Message> implements BlockingQueue<Message>, Closeable {
+
+  /**
+   * The default number of the in-memory messages.
+   */
+  public static final int DEFAULT_HEAD_CAPACITY = 1024;
+
+  /**
+   * The default segment file's size, 64 MiB.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  // the consumed segments, which are kept for reuse
+  private static final int MAX_FREE_SEGMENTS = 2;
+
+  // the frame's length and the message's delivery time
+  static final int FRAME_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+  final Lock lock = new ReentrantLock();
+
+  final Condition notEmpty = lock.newCondition();
+
+  final Path directory;
+
+  final int headCapacity;
+
+  final int segmentSize;
+
+  final ArrayDeque<Message> head;
+
+  final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+  final ArrayDeque<Segment> free = new ArrayDeque<>(MAX_FREE_SEGMENTS);
+
+  final ByteBuf scratch = Unpooled.buffer();
+
+  int spilled;
+
+  boolean closed;
+
+  /**
+   * Creates a new queue with the default head capacity and segment size.
+   *
+   * @param directory the segment files' directory
+   */
+  public SpillingQueue (Path directory) {
+    this(directory, DEFAULT_HEAD_CAPACITY, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Creates a new queue.
+   *
+   * @param directory the segment files' directory
+   *
+   * @param headCapacity how many messages are kept in memory, before spilling the next ones to the disk
+   *
+   * @param segmentSize a segment file's size in bytes, a message bigger than it gets its own segment
+   */
+  public SpillingQueue (@NonNull Path directory, int headCapacity, int segmentSize) {
+    super();
+    if (headCapacity <= 0) {
+      throw new IllegalArgumentException("Head capacity must be positive: " + headCapacity);
+    }
+    if (segmentSize <= FRAME_HEADER_SIZE) {
+      throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+    }
+    this.directory = directory;
+    this.headCapacity = headCapacity;
+    this.segmentSize = segmentSize;
+    head = new ArrayDeque<>(headCapacity);
+  }
+
+  /**
+   * Returns the number of the messages, which are spilled to the disk.
+   *
+   * @return the spilled messages count
+   */
+  public int spilled () {
+    lock.lock();
+    try {
+      return spilled;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of the segment files, including the consumed ones, which are kept for reuse.
+   *
+   * @return the segment files count
+   */
+  public int segments () {
+    lock.lock();
+    try {
+      return segments.size() + free.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer (@NonNull Message message) {
+    lock.lock();
+    try {
+      if ((spilled == 0 && head.size() < headCapacity) || message == Mailbox.WAKEUP) {
+        head.addLast(message);
+      } else if (closed) {
+        return false;
+      } else {
+        spill(message);
+      }
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean offer (Message message, long timeout, TimeUnit unit) {
+    return offer(message);
+  }
+
+  @Override
+  public void put (Message message) {
+    if (!offer(message)) {
+      throw new IllegalStateException("The queue is closed and its head is full");
+    }
+  }
+
+  @Override
+  public Message poll () {
+    lock.lock();
+    try {
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Message poll (long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      Message message = dequeue();
+      while (message == null) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+        message = dequeue();
+      }
+      return message;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Message take () throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      Message message = dequeue();
+      while (message == null) {
+        notEmpty.await();
+        message = dequeue();
+      }
+      return message;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Message peek () {
+    lock.lock();
+    try {
+      refill();
+      return head.peekFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size () {
+    lock.lock();
+    try {
+      return head.size() + spilled;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity () {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public int drainTo (Collection<? super Message> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo (@NonNull Collection<? super Message> collection, int maxElements) {
+    if (collection == this) {
+      throw new IllegalArgumentException("Couldn't drain the queue to itself");
+    }
+    lock.lock();
+    try {
+      int count = 0;
+      for (Message message = dequeue(); message != null; message = dequeue()) {
+        collection.add(message);
+        count++;
+        if (count >= maxElements) {
+          break;
+        }
+      }
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear () {
+    lock.lock();
+    try {
+      head.clear();
+      while (!segments.isEmpty()) {
+        recycle(segments.pollFirst());
+      }
+      spilled = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns an iterator over a snapshot of the queue's messages. The spilled messages are decoded
+   * for the snapshot, so it is an expensive operation for a big queue.
+   *
+   * @return the read-only iterator
+   */
+  @Override
+  public Iterator<Message> iterator () {
+    lock.lock();
+    try {
+      List<Message> snapshot = new ArrayList<>(head.size() + spilled);
+      snapshot.addAll(head);
+      for (Segment segment : segments) {
+        int position = segment.readPosition;
+        while (position < segment.writePosition) {
+          snapshot.add(segment.read(position));
+          position += FRAME_HEADER_SIZE + segment.buffer.getInt(position);
+        }
+      }
+      return Collections.unmodifiableList(snapshot).iterator();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close () {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      log.debug("Closing spilling queue in {}, {} in-memory and {} spilled messages are dropped",
+                directory, head.size(), spilled);
+
+      head.clear();
+      spilled = 0;
+      segments.forEach(Segment::close);
+      segments.clear();
+      free.forEach(Segment::close);
+      free.clear();
+      scratch.release();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Message dequeue () {
+    refill();
+    return head.pollFirst();
+  }
+
+  // the spilled messages always follow the head's ones, so the head is refilled only when it is empty
+  private void refill () {
+    if (!head.isEmpty()) {
+      return;
+    }
+    while (spilled > 0 && head.size() < headCapacity) {
+      Segment segment = segments.peekFirst();
+      head.addLast(segment.read(segment.readPosition));
+      segment.readPosition += FRAME_HEADER_SIZE + segment.buffer.getInt(segment.readPosition);
+      spilled--;
+
+      if (segment.readPosition == segment.writePosition) {
+        segments.pollFirst();
+        recycle(segment);
+      }
+    }
+  }
+
+  private void spill (Message message) {
+    scratch.clear();
+    message.writeTo(scratch);
+
+    int frameSize = FRAME_HEADER_SIZE + scratch.readableBytes();
+    Segment segment = segments.peekLast();
+    if (segment == null || segment.remaining() < frameSize) {
+      segment = newSegment(frameSize);
+      segments.addLast(segment);
+    }
+    long deliveredAt = message instanceof StampedMessage
+                       ? ((StampedMessage) message).getDeliveredAt()
+                       : 0;
+    segment.write(deliveredAt, scratch);
+    spilled++;
+  }
+
+  private Segment newSegment (int frameSize) {
+    if (frameSize <= segmentSize && !free.isEmpty()) {
+      return free.pollFirst();
+    }
+    int size = Math.max(segmentSize, frameSize);
+    try {
+      Path file = Files.createTempFile(directory, "mailbox-", ".segment");
+      FileChannel channel = FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+      log.debug("New spilling queue segment {}, {} bytes", file, size);
+      return new Segment(channel, channel.map(READ_WRITE, 0, size));
+    } catch (IOException ex) {
+      throw new IllegalStateException("Couldn't create a new segment file in " + directory, ex);
+    }
+  }
+
+  private void recycle (Segment segment) {
+    if (segment.buffer.capacity() == segmentSize && free.size() < MAX_FREE_SEGMENTS) {
+      segment.readPosition = 0;
+      segment.writePosition = 0;
+      free.addLast(segment);
+    } else {
+      segment.close();
+    }
+  }
+
+  @FieldDefaults(level = PRIVATE)
+  private static final class Segment {
+
+    final FileChannel channel;
+
+    final ByteBuffer buffer;
+
+    int readPosition;
+
+    int writePosition;
+
+    Segment (FileChannel channel, ByteBuffer buffer) {
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    int remaining () {
+      return buffer.capacity() - writePosition;
+    }
+
+    void write (long deliveredAt, ByteBuf frame) {
+      int length = frame.readableBytes();
+      buffer.putInt(writePosition, length);
+      buffer.putLong(writePosition + Integer.BYTES, deliveredAt);
+
+      ByteBuffer target = buffer.duplicate();
+      target.position(writePosition + FRAME_HEADER_SIZE);
+      target.limit(writePosition + FRAME_HEADER_SIZE + length);
+      frame.getBytes(frame.readerIndex(), target);
+
+      writePosition += FRAME_HEADER_SIZE + length;
+    }
+
+    Message read (int position) {
+      int length = buffer.getInt(position);
+      long deliveredAt = buffer.getLong(position + Integer.BYTES);
+
+      ByteBuffer source = buffer.duplicate();
+      source.position(position + FRAME_HEADER_SIZE);
+      source.limit(position + FRAME_HEADER_SIZE + length);
+
+      // the frame is copied to the heap, because the decoded terms must outlive the recycled segment
+      byte[] bytes = new byte[length];
+      source.get(bytes);
+
+      Message message = Message.readFrom(Unpooled.wrappedBuffer(bytes));
+      return deliveredAt == 0
+             ? message
+             : new StampedMessage(message, deliveredAt);
+    }
+
+    void close () {
+      // a mapping lives until its buffer is collected, so a closed queue would hold the files' space
+      PlatformDependent.freeDirectBuffer(buffer);
+      try {
+        channel.close();
+      } catch (IOException ex) {
+        log.warn("Couldn't close a spilling queue segment", ex);
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import io.appulse.encon.connection.regular.Message;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * A mailbox's queued message, which delivery was sampled for the time-in-queue metric.
+ * The delivery time is not a part of the message, so it is equal to the original message.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+@SuppressFBWarnings("EQ_DOESNT_OVERRIDE_EQUALS")
+final class StampedMessage extends Message {
+
+  /**
+   * The {@link System#nanoTime()} of the message's delivery to the mailbox.
+   */
+  @Getter
+  long deliveredAt;
+
+  StampedMessage (Message message, long deliveredAt) {
+    super(message);
+    this.deliveredAt = deliveredAt;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+/**
+ * Handle of a scheduled timer, like the one of {@link Mailbox#sendAfter}.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+public interface TimerRef {
+
+  /**
+   * Cancels the timer, if it has not fired yet.
+   *
+   * @return {@code true} if the timer was cancelled by this call
+   */
+  boolean cancel ();
+
+  /**
+   * Tells if the timer was cancelled.
+   *
+   * @return {@code true} if the timer was cancelled
+   */
+  boolean isCancelled ();
+
+  /**
+   * Tells if the timer has fired.
+   *
+   * @return {@code true} if the timer's task was run
+   */
+  boolean isExpired ();
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Node-wide hierarchical timer wheel.
+ * <p>
+ * There are 4 levels of 256 buckets each. A level's bucket spans all the ticks of the previous level,
+ * so with the default 1 millisecond tick the wheel covers about 49 days, the longer timers are re-checked
+ * once per that period. A timer is added to the bucket of its deadline at the lowest level, which could hold it,
+ * and when a higher level's bucket comes due, its timers are redistributed to the lower levels.
+ * So the adding and the cancelling are O(1), and a tick touches only the due timers,
+ * whatever the number of the pending ones.
+ * <p>
+ * The buckets belong to the wheel's thread only. The other threads pass the new and the cancelled timers
+ * through the lock-free queues. The timers' tasks are run by the wheel's thread, so they must be short.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Slf4j
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+final class TimerWheel implements Closeable {
+
+  private static final int WHEEL_BITS = 8;
+
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private static final int LEVELS = 4;
+
+  private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+  private static final int PENDING = 0;
+
+  private static final int CANCELLED = 1;
+
+  private static final int EXPIRED = 2;
+
+  long tickNanos;
+
+  long startTime;
+
+  Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+
+  Queue<Entry> added = new ConcurrentLinkedQueue<>();
+
+  Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+
+  LongAdder pending = new LongAdder();
+
+  AtomicBoolean running = new AtomicBoolean(true);
+
+  Thread worker;
+
+  AtomicBoolean idle = new AtomicBoolean();
+
+  // the wheel's thread only
+  @NonFinal
+  long currentTick;
+
+  TimerWheel () {
+    this("encon-timer", 1, MILLISECONDS);
+  }
+
+  @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+  TimerWheel (@NonNull String name, long tick, @NonNull TimeUnit unit) {
+    if (tick <= 0) {
+      throw new IllegalArgumentException("Tick must be positive: " + tick);
+    }
+    tickNanos = unit.toNanos(tick);
+    startTime = System.nanoTime();
+    for (Bucket[] wheel : wheels) {
+      for (int index = 0; index < wheel.length; index++) {
+        wheel[index] = new Bucket();
+      }
+    }
+
+    worker = new Thread(this::run, name);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Schedules a task.
+   *
+   * @param task the task, it is run by the wheel's thread
+   *
+   * @param delay the task's delay
+   *
+   * @param unit the delay's unit
+   *
+   * @return the timer's handle
+   */
+  TimerRef schedule (@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+    if (!running.get()) {
+      throw new IllegalStateException("Timer wheel is closed");
+    }
+    long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+    Entry entry = new Entry(task, (deadline + tickNanos - 1) / tickNanos);
+    pending.increment();
+    added.add(entry);
+    if (idle.get() && idle.compareAndSet(true, false)) {
+      LockSupport.unpark(worker);
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the number of the pending timers.
+   *
+   * @return the pending timers count
+   */
+  long size () {
+    return pending.sum();
+  }
+
+  @Override
+  public void close () {
+    if (running.compareAndSet(true, false)) {
+      worker.interrupt();
+    }
+  }
+
+  private void run () {
+    while (running.get()) {
+      long now = (System.nanoTime() - startTime) / tickNanos;
+      while (currentTick < now) {
+        advance();
+      }
+
+      if (pending.sum() <= 0 && added.isEmpty()) {
+        sleepWhileIdle();
+        continue;
+      }
+      long sleep = startTime + (currentTick + 1) * tickNanos - System.nanoTime();
+      if (sleep > 0) {
+        LockSupport.parkNanos(this, sleep);
+      }
+    }
+    log.debug("Timer wheel is stopped, {} timers are dropped", pending.sum());
+  }
+
+  // there are no pending timers in the buckets, so the idle wheel doesn't turn,
+  // and the skipped ticks are not processed one by one after the wake up
+  private void sleepWhileIdle () {
+    idle.set(true);
+    if (pending.sum() <= 0) {
+      LockSupport.park(this);
+    }
+    idle.set(false);
+    currentTick = Math.max(currentTick, (System.nanoTime() - startTime) / tickNanos - 1);
+  }
+
+  // the new timers are added only here, between the tick's increment and its bucket's expiration,
+  // so a timer, which is already due, goes to the current bucket and is not missed
+  private void advance () {
+    long tick = ++currentTick;
+    transfer();
+
+    // redistributes the higher levels' due buckets, a level's timers never go to its own due bucket
+    for (int level = 1; level < LEVELS; level++) {
+      long shift = (long) WHEEL_BITS * level;
+      if ((tick & ((1L << shift) - 1)) != 0) {
+        break;
+      }
+      Entry entry = wheels[level][(int) ((tick >>> shift) & WHEEL_MASK)].clear();
+      while (entry != null) {
+        Entry next = entry.next;
+        if (entry.state.get() == PENDING) {
+          insert(entry);
+        } else {
+          entry.detach();
+        }
+        entry = next;
+      }
+    }
+
+    Entry entry = wheels[0][(int) (tick & WHEEL_MASK)].clear();
+    while (entry != null) {
+      Entry next = entry.next;
+      if (entry.deadline > tick && entry.state.get() == PENDING) {
+        // a timer, which is longer than the wheel, makes one more round
+        insert(entry);
+      } else {
+        expire(entry);
+      }
+      entry = next;
+    }
+  }
+
+  private void transfer () {
+    for (Entry entry = cancelled.poll(); entry != null; entry = cancelled.poll()) {
+      if (entry.bucket != null) {
+        entry.bucket.remove(entry);
+      }
+    }
+    for (Entry entry = added.poll(); entry != null; entry = added.poll()) {
+      if (entry.state.get() == PENDING) {
+        insert(entry);
+      }
+    }
+  }
+
+  private void insert (Entry entry) {
+    long tick = currentTick;
+    long delta = Math.min(Math.max(entry.deadline - tick, 0), MAX_DELTA);
+    long target = tick + delta;
+
+    int level = 0;
+    while (delta >= 1L << (WHEEL_BITS * (level + 1))) {
+      level++;
+    }
+    long shift = (long) WHEEL_BITS * level;
+    wheels[level][(int) ((target >>> shift) & WHEEL_MASK)].add(entry);
+  }
+
+  private void expire (Entry entry) {
+    entry.detach();
+    if (!entry.state.compareAndSet(PENDING, EXPIRED)) {
+      return;
+    }
+    pending.decrement();
+    try {
+      entry.task.run();
+    } catch (RuntimeException ex) {
+      log.warn("Timer's task failed", ex);
+    }
+  }
+
+  @RequiredArgsConstructor
+  @FieldDefaults(level = PRIVATE)
+  @SuppressWarnings("PMD.NullAssignment")
+  private final class Entry implements TimerRef {
+
+    final Runnable task;
+
+    final long deadline;
+
+    final AtomicInteger state = new AtomicInteger(PENDING);
+
+    // the wheel's thread only
+    Bucket bucket;
+
+    Entry previous;
+
+    Entry next;
+
+    @Override
+    public boolean cancel () {
+      if (!state.compareAndSet(PENDING, CANCELLED)) {
+        return false;
+      }
+      pending.decrement();
+      cancelled.add(this);
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled () {
+      return state.get() == CANCELLED;
+    }
+
+    @Override
+    public boolean isExpired () {
+      return state.get() == EXPIRED;
+    }
+
+    void detach () {
+      bucket = null;
+      previous = null;
+      next = null;
+    }
+  }
+
+  @FieldDefaults(level = PRIVATE)
+  @SuppressWarnings("PMD.NullAssignment")
+  private static final class Bucket {
+
+    Entry head;
+
+    void add (Entry entry) {
+      entry.bucket = this;
+      entry.previous = null;
+      entry.next = head;
+      if (head != null) {
+        head.previous = entry;
+      }
+      head = entry;
+    }
+
+    void remove (Entry entry) {
+      if (entry.previous == null) {
+        head = entry.next;
+      } else {
+        entry.previous.next = entry.next;
+      }
+      if (entry.next != null) {
+        entry.next.previous = entry.previous;
+      }
+      entry.detach();
+    }
+
+    // detaches and returns all the bucket's entries
+    Entry clear () {
+      Entry result = head;
+      head = null;
+      return result;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox.exception;
+
+import io.appulse.encon.common.NodeDescriptor;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * The connection to a remote node was lost, while a call to it was in progress.
+ *
+ * @since 1.6.11
+ * @author Artem Labazin
+ */
+@Value
+@EqualsAndHashCode(callSuper = false)
+public class NodeDownException extends RuntimeException {
+
+  private static final long serialVersionUID = 4617216931958412035L;
+
+  NodeDescriptor node;
+
+  public NodeDownException (NodeDescriptor node) {
+    super(String.format("Connection to node %s was lost", node.getFullName()));
+    this.node = node;
+  }
+}
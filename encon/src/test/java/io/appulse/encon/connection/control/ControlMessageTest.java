@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.connection.control;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import io.netty.buffer.Unpooled;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class ControlMessageTest {
+
+  private static final ErlangPid FROM = ErlangPid.builder()
+      .node("from@localhost")
+      .id(1)
+      .build();
+
+  private static final ErlangPid TO = ErlangPid.builder()
+      .node("to@localhost")
+      .id(2)
+      .build();
+
+  private static final ErlangReference REFERENCE = ErlangReference.builder()
+      .node("from@localhost")
+      .ids(new long[] { 1, 2, 3 })
+      .build();
+
+  private static final ErlangTerm TOKEN = tuple(atom("trace"));
+
+  @Test
+  public void directWritingMatchesTuple () {
+    List<ControlMessage> messages = Arrays.asList(
+        new Link(FROM, TO),
+        new Send(TO),
+        new Send(atom("my_process")),
+        new Exit(FROM, TO, atom("normal")),
+        new Unlink(FROM, TO),
+        new NodeLink(),
+        new SendToRegisteredProcess(FROM, atom("my_process")),
+        new GroupLeader(FROM, TO),
+        new Exit2(FROM, TO, atom("kill")),
+        new SendTraceToken(TO, TOKEN),
+        new ExitTraceToken(FROM, TO, TOKEN, atom("normal")),
+        new SendToRegisteredProcessTraceToken(FROM, atom("my_process"), TOKEN),
+        new Exit2TraceToken(FROM, TO, TOKEN, atom("kill")),
+        new MonitorProcess(FROM, TO, REFERENCE),
+        new DemonitorProcess(FROM, TO, REFERENCE),
+        new MonitorProcessExit(TO, FROM, REFERENCE, atom("noproc"))
+    );
+
+    SoftAssertions.assertSoftly(softly -> {
+      for (ControlMessage message : messages) {
+        val bytes = message.toBytes();
+
+        softly.assertThat(bytes)
+            .as(message.getTag().name())
+            .isEqualTo(message.toTuple().toBytes());
+
+        softly.assertThat(message.cached().toBytes())
+            .as(message.getTag().name())
+            .isEqualTo(bytes);
+      }
+    });
+  }
+
+  @Test
+  public void cachedMessage () {
+    val message = new SendToRegisteredProcess(FROM, atom("my_process"));
+    val cached = message.cached();
+
+    val buffer = Unpooled.buffer();
+    cached.writeTo(buffer);
+    cached.writeTo(buffer);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(cached.getTag())
+          .isEqualTo(message.getTag());
+
+      softly.assertThat(cached.cached())
+          .isSameAs(cached);
+
+      softly.assertThat((SendToRegisteredProcess) ControlMessage.parse(ErlangTerm.newInstance(buffer)))
+          .extracting(SendToRegisteredProcess::getFrom, SendToRegisteredProcess::getTo)
+          .containsExactly(FROM, atom("my_process"));
+
+      softly.assertThat((SendToRegisteredProcess) ControlMessage.parse(ErlangTerm.newInstance(buffer)))
+          .extracting(SendToRegisteredProcess::getFrom, SendToRegisteredProcess::getTo)
+          .containsExactly(FROM, atom("my_process"));
+    });
+
+    assertThat(buffer.isReadable()).isFalse();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.connection.regular;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.control.MonitorProcess;
+import io.appulse.encon.connection.control.MonitorProcessExit;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class ConnectionHandlerTest {
+
+  @Test
+  public void monitorMissingProcess () {
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val channel = new EmbeddedChannel(ConnectionHandler.builder()
+        .node(node)
+        .remote(mock(RemoteNode.class))
+        .channelCloseAction(remote -> { })
+        .build());
+
+    val watcher = ErlangPid.builder()
+        .node("remote@localhost")
+        .id(1)
+        .build();
+
+    val reference = ErlangReference.builder()
+        .node("remote@localhost")
+        .ids(new long[] { 1, 0, 0 })
+        .build();
+
+    val monitor = new MonitorProcess(watcher, atom("missing"), reference);
+    ByteBuf frame = Unpooled.buffer();
+    frame.writeInt(0);
+    new Message(monitor, null).writeTo(frame);
+    frame.setInt(0, frame.readableBytes() - Integer.BYTES);
+    channel.writeInbound(frame);
+    channel.runPendingTasks();
+
+    ByteBuf length = channel.readOutbound();
+    ByteBuf reply = channel.readOutbound();
+    length.release();
+
+    val message = Message.readFrom(reply);
+    reply.release();
+    assertThat(message.getHeader())
+        .isInstanceOf(MonitorProcessExit.class);
+
+    val down = (MonitorProcessExit) message.getHeader();
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(down.getFrom())
+          .isEqualTo(atom("missing"));
+
+      softly.assertThat(down.getTo())
+          .isEqualTo(watcher);
+
+      softly.assertThat(down.getReference())
+          .isEqualTo(reference);
+
+      softly.assertThat(down.getReason())
+          .isEqualTo(atom("noproc"));
+    });
+
+    channel.finishAndReleaseAll();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.connection.regular;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.mailbox.Mailbox;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class LocalSendHeaderTest {
+
+  Node node;
+
+  Mailbox mailbox;
+
+  ErlangPid pid;
+
+  @Before
+  public void before () {
+    pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(7)
+        .serial(3)
+        .creation(1)
+        .build();
+
+    mailbox = mock(Mailbox.class);
+    when(mailbox.getPid()).thenReturn(pid);
+
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+    when(node.mailbox(7, 3, 1)).thenReturn(mailbox);
+  }
+
+  @Test
+  public void encodedSend () {
+    val buffer = Unpooled.buffer();
+    Message.send(pid, atom("hello")).writeTo(buffer);
+    buffer.readByte(); // pass through
+
+    val result = LocalSendHeader.read(buffer, buffer.writerIndex(), node);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(result)
+          .isSameAs(mailbox);
+
+      softly.assertThat(readBody(buffer))
+          .isEqualTo(atom("hello"));
+    });
+  }
+
+  @Test
+  public void erlangSend () {
+    val buffer = Unpooled.buffer();
+    buffer.writeByte(Message.VERSION_TAG);
+    tuple(number(2), atom(""), pid).writeTo(buffer);
+    buffer.writeByte(Message.VERSION_TAG);
+    number(42).writeTo(buffer);
+
+    val result = LocalSendHeader.read(buffer, buffer.writerIndex(), node);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(result)
+          .isSameAs(mailbox);
+
+      softly.assertThat(readBody(buffer))
+          .isEqualTo(number(42));
+    });
+  }
+
+  @Test
+  public void notLocal () {
+    val remotePid = ErlangPid.builder()
+        .node("remote@localhost")
+        .id(7)
+        .serial(3)
+        .creation(1)
+        .build();
+
+    val buffer = Unpooled.buffer();
+    Message.send(remotePid, atom("hello")).writeTo(buffer);
+    buffer.readByte();
+    int index = buffer.readerIndex();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(LocalSendHeader.read(buffer, buffer.writerIndex(), node))
+          .isNull();
+
+      softly.assertThat(buffer.readerIndex())
+          .isEqualTo(index);
+    });
+  }
+
+  @Test
+  public void notSend () {
+    val buffer = Unpooled.buffer();
+    Message.send("net_kernel", atom("hello")).writeTo(buffer);
+    buffer.readByte();
+
+    assertThat(LocalSendHeader.read(buffer, buffer.writerIndex(), node))
+        .isNull();
+  }
+
+  private ErlangTerm readBody (ByteBuf buffer) {
+    assertThat(buffer.readUnsignedByte()).isEqualTo((short) Message.VERSION_TAG);
+    return ErlangTerm.newInstance(buffer);
+  }
+}
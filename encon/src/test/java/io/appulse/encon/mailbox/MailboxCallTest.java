@@ -0,0 +1,293 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.NIL;
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.MonitorProcess;
+import io.appulse.encon.connection.control.MonitorProcessExit;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.mailbox.exception.CalleeDownException;
+import io.appulse.encon.mailbox.exception.RemoteProcedureCallException;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxCallTest {
+
+  TimerWheel timer;
+
+  PendingCalls calls;
+
+  Node node;
+
+  Mailbox caller;
+
+  Mailbox callee;
+
+  @Before
+  public void before () {
+    timer = new TimerWheel();
+    calls = new PendingCalls(timer);
+
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    long[] counter = { 0 };
+    when(node.newReference()).then(invocation -> ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { ++counter[0], 0, 0 })
+        .build());
+
+    caller = createMailbox(node, 1);
+    callee = createMailbox(node, 2);
+  }
+
+  @After
+  public void after () {
+    calls.close();
+    timer.close();
+  }
+
+  @Test
+  public void manyOutstandingCalls () throws Exception {
+    List<CompletableFuture<ErlangTerm>> futures = new ArrayList<>();
+    for (int index = 0; index < 1000; index++) {
+      futures.add(caller.call(callee.getPid(), number(index), 10, SECONDS));
+    }
+    assertThat(calls.size()).isEqualTo(1000);
+
+    List<Message> requests = new ArrayList<>();
+    for (int index = 0; index < 1000; index++) {
+      requests.add(callee.receive());
+    }
+    for (int index = requests.size() - 1; index >= 0; index--) {
+      val request = requests.get(index);
+      reply(request, request.getBody().getUnsafe(2));
+    }
+
+    for (int index = 0; index < 1000; index++) {
+      assertThat(futures.get(index).get(1, SECONDS))
+          .isEqualTo(number(index));
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(caller.size())
+          .isEqualTo(0);
+
+      softly.assertThat(calls.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void callTimeout () throws Exception {
+    val future = caller.call(callee.getPid(), number(42), 50, MILLISECONDS);
+
+    Throwable cause = null;
+    try {
+      future.get(5, SECONDS);
+    } catch (ExecutionException ex) {
+      cause = ex.getCause();
+    }
+
+    assertThat(cause).isInstanceOf(TimeoutException.class);
+
+    reply(callee.receive(), number(42));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(future.isCompletedExceptionally())
+          .isTrue();
+
+      softly.assertThat(calls.size())
+          .isEqualTo(0);
+
+      softly.assertThat(caller.size())
+          .as("late reply must be dropped")
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void rpc () throws Exception {
+    val remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+    when(node.mailbox("rex")).thenReturn(callee);
+
+    val rpc = caller.rpc(10, SECONDS);
+    val future1 = rpc.call(remote, "erlang", "date");
+    val future2 = rpc.call(remote, "erlang", "time");
+
+    val request1 = callee.receive();
+    val request2 = callee.receive();
+    assertThat(request1.getBody().getUnsafe(2))
+        .isEqualTo(tuple(atom("call"), atom("erlang"), atom("date"), NIL, atom("user")));
+
+    reply(request2, tuple(atom("badrpc"), atom("nodedown")));
+    reply(request1, atom("ok"));
+
+    assertThat(future1.get(1, SECONDS))
+        .isEqualTo(atom("ok"));
+
+    Throwable cause = null;
+    try {
+      future2.get(1, SECONDS);
+    } catch (ExecutionException ex) {
+      cause = ex.getCause();
+    }
+    assertThat(cause)
+        .isInstanceOf(RemoteProcedureCallException.class)
+        .hasMessageContaining("nodedown");
+  }
+
+  @Test
+  public void calleeExit () throws Exception {
+    val future = caller.call(callee.getPid(), number(42), 10, SECONDS);
+    callee.exit("killed");
+
+    val cause = causeOf(future);
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(cause)
+          .isInstanceOf(CalleeDownException.class)
+          .hasMessageContaining("killed");
+
+      softly.assertThat(calls.size())
+          .isEqualTo(0);
+
+      softly.assertThat(caller.size())
+          .as("the call's DOWN message must not get to the queue")
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void noDownAfterReply () throws Exception {
+    val future = caller.call(callee.getPid(), number(42), 10, SECONDS);
+    val request = callee.receive();
+    reply(request, request.getBody().getUnsafe(2));
+
+    assertThat(future.get(1, SECONDS))
+        .isEqualTo(number(42));
+
+    callee.exit("killed");
+    assertThat(caller.receive(50, MILLISECONDS))
+        .isNull();
+  }
+
+  @Test
+  public void registeredCalleeExit () throws Exception {
+    val descriptor = NodeDescriptor.from("remote@localhost");
+    val remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(descriptor);
+    val connection = mock(Connection.class);
+    when(node.connect(remote)).thenReturn(connection);
+
+    val future = caller.call(remote, "server", number(42), 10, SECONDS);
+
+    val sent = ArgumentCaptor.forClass(Message.class);
+    verify(connection, times(2)).send(sent.capture());
+    val monitor = (MonitorProcess) sent.getAllValues().get(0).getHeader();
+    assertThat(monitor.getTo())
+        .isEqualTo(atom("server"));
+
+    val down = new MonitorProcessExit(atom("server"), caller.getPid(), monitor.getReference(), atom("killed"));
+    caller.deliver(new Message(down, null));
+
+    assertThat(causeOf(future))
+        .isInstanceOf(CalleeDownException.class)
+        .hasMessageContaining("server");
+  }
+
+  @Test
+  public void withoutCallsTable () throws Exception {
+    val standalone = Mailbox.builder()
+        .node(node)
+        .pid(ErlangPid.builder()
+            .node("test@localhost")
+            .id(3)
+            .build())
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+
+    assertThat(causeOf(standalone.call(callee.getPid(), atom("ping"), 1, SECONDS)))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private Throwable causeOf (CompletableFuture<ErlangTerm> future) throws Exception {
+    try {
+      future.get(1, SECONDS);
+    } catch (ExecutionException ex) {
+      return ex.getCause();
+    }
+    return null;
+  }
+
+  private void reply (Message request, ErlangTerm reply) {
+    val from = request.getBody().getUnsafe(1);
+    callee.send(from.getUnsafe(0).asPid(), tuple(from.getUnsafe(1), reply));
+  }
+
+  private Mailbox createMailbox (Node node, int id) {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(id)
+        .build();
+
+    val mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .calls(calls)
+        .build();
+
+    when(node.mailbox(pid)).thenReturn(mailbox);
+    return mailbox;
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxInlineTest {
+
+  Mailbox mailbox;
+
+  @Before
+  public void before () {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(mock(Node.class))
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+  }
+
+  @Test
+  public void messagesBypassQueue () {
+    List<ErlangTerm> handled = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    mailbox.inline((self, message) -> {
+      handled.add(message.getBody());
+      threads.add(Thread.currentThread());
+    });
+
+    deliver(number(1));
+    deliver(number(2));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(handled)
+          .containsExactly(number(1), number(2));
+
+      softly.assertThat(threads)
+          .containsOnly(Thread.currentThread());
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+
+      softly.assertThat(mailbox.getInlineOverruns())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void queuedMessagesKeepOrder () {
+    deliver(number(1));
+    deliver(number(2));
+
+    List<ErlangTerm> handled = new ArrayList<>();
+    mailbox.inline((self, message) -> handled.add(message.getBody()));
+    deliver(number(3));
+    mailbox.removeInline();
+    deliver(number(4));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(handled)
+          .containsExactly(number(1), number(2), number(3));
+
+      softly.assertThat(mailbox.isInline())
+          .isFalse();
+
+      softly.assertThat(mailbox.receive(10, MILLISECONDS).getBody())
+          .isEqualTo(number(4));
+    });
+  }
+
+  @Test
+  public void downMessage () {
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+    when(node.newReference()).thenReturn(ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 1, 0, 0 })
+        .build());
+
+    val watcher = Mailbox.builder()
+        .node(node)
+        .pid(mailbox.getPid())
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+
+    List<ErlangTerm> handled = new ArrayList<>();
+    watcher.inline((self, message) -> handled.add(message.getBody()));
+
+    val target = ErlangPid.builder()
+        .node("test@localhost")
+        .id(42)
+        .build();
+    val reference = watcher.monitor(target);
+    watcher.deliver(Message.send(watcher.getPid(), number(1)));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(handled)
+          .containsExactly(tuple(atom("DOWN"), reference, atom("process"), target, atom("noproc")), number(1));
+
+      softly.assertThat(watcher.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void noConcurrentCalls () throws Exception {
+    val inside = new AtomicInteger();
+    val overlaps = new AtomicInteger();
+    List<ErlangTerm> handled = new ArrayList<>();
+    mailbox.inline((self, message) -> {
+      if (inside.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      handled.add(message.getBody());
+      inside.decrementAndGet();
+    });
+
+    Runnable sender = () -> {
+      for (int index = 0; index < 2_000; index++) {
+        deliver(number(index));
+      }
+    };
+    val thread1 = new Thread(sender);
+    val thread2 = new Thread(sender);
+    thread1.start();
+    thread2.start();
+    thread1.join();
+    thread2.join();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(overlaps.get())
+          .isEqualTo(0);
+
+      softly.assertThat(handled)
+          .hasSize(4_000);
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void budgetOverrunsAndFailures () {
+    mailbox.inline((self, message) -> {
+      if (message.getBody().isAtom()) {
+        throw new IllegalStateException("boom");
+      }
+      long deadline = System.nanoTime() + MILLISECONDS.toNanos(2);
+      while (System.nanoTime() < deadline) {
+        Thread.yield();
+      }
+    }, 1, NANOSECONDS);
+
+    deliver(number(1));
+    deliver(number(2));
+    deliver(atom("fail"));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(mailbox.getInlineOverruns())
+          .isGreaterThanOrEqualTo(2);
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+    });
+  }
+
+  private void deliver (ErlangTerm body) {
+    mailbox.deliver(Message.send(mailbox.getPid(), body));
+  }
+}
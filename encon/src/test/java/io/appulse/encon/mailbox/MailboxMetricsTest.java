@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.mailbox.MailboxOverflowPolicy.DROP_NEW;
+import static io.appulse.encon.terms.Erlang.number;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxMetricsTest {
+
+  ModuleMailbox module;
+
+  @Before
+  public void before () {
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val pids = new AtomicInteger();
+    module = new ModuleMailbox(node, () -> ErlangPid.builder()
+        .node("test@localhost")
+        .id(pids.incrementAndGet())
+        .build());
+  }
+
+  @After
+  public void after () {
+    module.close();
+  }
+
+  @Test
+  public void mailboxAndNodeMetrics () {
+    val first = module.mailbox()
+        .metrics(1)
+        .capacity(3, DROP_NEW)
+        .build();
+
+    val second = module.mailbox()
+        .metrics(1)
+        .build();
+
+    val plain = module.mailbox().build();
+
+    for (int index = 0; index < 5; index++) {
+      first.deliver(Message.send(first.getPid(), number(index)));
+      second.deliver(Message.send(second.getPid(), number(index)));
+      plain.deliver(Message.send(plain.getPid(), number(index)));
+    }
+    first.receive();
+    second.receive();
+    second.receive();
+
+    val firstMetrics = first.getMetrics();
+    val nodeMetrics = module.metrics();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(plain.getMetrics())
+          .isNull();
+
+      softly.assertThat(firstMetrics.getEnqueued())
+          .isEqualTo(3);
+      softly.assertThat(firstMetrics.getDropped())
+          .isEqualTo(2);
+      softly.assertThat(firstMetrics.getReceived())
+          .isEqualTo(1);
+      softly.assertThat(firstMetrics.getDepth())
+          .isEqualTo(2);
+      softly.assertThat(firstMetrics.getHighWaterMark())
+          .isEqualTo(3);
+
+      softly.assertThat(nodeMetrics.getEnqueued())
+          .isEqualTo(8);
+      softly.assertThat(nodeMetrics.getReceived())
+          .isEqualTo(3);
+      softly.assertThat(nodeMetrics.getDepth())
+          .isEqualTo(5);
+      softly.assertThat(nodeMetrics.getHighWaterMark())
+          .isEqualTo(5);
+    });
+  }
+
+  @Test
+  public void timeInQueue () throws Exception {
+    val mailbox = module.mailbox()
+        .metrics(1)
+        .build();
+
+    val message = Message.send(mailbox.getPid(), number(1));
+    mailbox.deliver(message);
+    Thread.sleep(20);
+    assertThat(mailbox.receive())
+        .as("the sampled delivery time is not a part of the message")
+        .isEqualTo(message);
+
+    val metrics = mailbox.getMetrics();
+    long samples = 0;
+    for (long count : metrics.getTimeInQueue()) {
+      samples += count;
+    }
+
+    assertThat(samples).isEqualTo(1);
+    assertThat(metrics.getTimeInQueuePercentile(50))
+        .isGreaterThanOrEqualTo(20_000_000L);
+    assertThat(module.metrics().getTimeInQueuePercentile(100))
+        .isEqualTo(metrics.getTimeInQueuePercentile(100));
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.mailbox.exception.NodeDownException;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxMonitorTest {
+
+  TimerWheel timer;
+
+  PendingCalls calls;
+
+  Node node;
+
+  Mailbox watcher;
+
+  Mailbox target;
+
+  @Before
+  public void before () {
+    timer = new TimerWheel();
+    calls = new PendingCalls(timer);
+
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    long[] counter = { 0 };
+    when(node.newReference()).then(invocation -> ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { ++counter[0], 0, 0 })
+        .build());
+
+    watcher = createMailbox("test@localhost", 1);
+    target = createMailbox("test@localhost", 2);
+  }
+
+  @After
+  public void after () {
+    calls.close();
+    timer.close();
+  }
+
+  @Test
+  public void downOnExit () {
+    val reference = watcher.monitor(target.getPid());
+    target.exit("normal");
+
+    val down = watcher.receive(100, MILLISECONDS);
+
+    assertThat(down.getBody())
+        .isEqualTo(tuple(atom("DOWN"), reference, atom("process"), target.getPid(), atom("normal")));
+  }
+
+  @Test
+  public void noDownAfterDemonitor () {
+    val reference = watcher.monitor(target.getPid());
+    watcher.demonitor(reference);
+    target.exit("normal");
+
+    assertThat(watcher.receive(50, MILLISECONDS)).isNull();
+  }
+
+  @Test
+  public void noproc () {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(42)
+        .build();
+
+    val reference = watcher.monitor(pid);
+    val down = watcher.receive(100, MILLISECONDS);
+
+    assertThat(down.getBody())
+        .isEqualTo(tuple(atom("DOWN"), reference, atom("process"), pid, atom("noproc")));
+  }
+
+  @Test
+  public void noconnection () throws Exception {
+    val pid = ErlangPid.builder()
+        .node("remote@localhost")
+        .id(1)
+        .build();
+
+    val descriptor = NodeDescriptor.from("remote@localhost");
+    val remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(descriptor);
+    when(node.lookup(descriptor)).thenReturn(remote);
+    when(node.lookup(pid)).thenReturn(remote);
+    when(node.connect(remote)).thenReturn(mock(Connection.class));
+
+    val reference = watcher.monitor(pid);
+    val future = watcher.call(pid, number(1), 10, SECONDS);
+
+    calls.fail(descriptor, new NodeDownException(descriptor));
+    watcher.connectionLost(descriptor);
+
+    val down = watcher.receive(100, MILLISECONDS);
+    assertThat(down.getBody())
+        .isEqualTo(tuple(atom("DOWN"), reference, atom("process"), pid, atom("noconnection")));
+
+    Throwable cause = null;
+    try {
+      future.get(1, SECONDS);
+    } catch (ExecutionException ex) {
+      cause = ex.getCause();
+    }
+    assertThat(cause)
+        .isInstanceOf(NodeDownException.class)
+        .hasMessageContaining("remote@localhost");
+  }
+
+  private Mailbox createMailbox (String nodeName, int id) {
+    val pid = ErlangPid.builder()
+        .node(nodeName)
+        .id(id)
+        .build();
+
+    val mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .calls(calls)
+        .build();
+
+    when(node.mailbox(pid)).thenReturn(mailbox);
+    return mailbox;
+  }
+}
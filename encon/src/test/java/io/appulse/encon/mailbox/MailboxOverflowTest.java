@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.mailbox.MailboxOverflowPolicy.DROP_NEW;
+import static io.appulse.encon.mailbox.MailboxOverflowPolicy.DROP_OLD;
+import static io.appulse.encon.mailbox.MailboxOverflowPolicy.PAUSE;
+import static io.appulse.encon.terms.Erlang.number;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxOverflowTest {
+
+  @Test
+  public void dropNew () {
+    val mailbox = createMailbox(DROP_NEW);
+    for (int index = 0; index < 4; index++) {
+      deliver(mailbox, index, null);
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(mailbox.size())
+          .isEqualTo(2);
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(0));
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(1));
+    });
+  }
+
+  @Test
+  public void dropOld () {
+    val mailbox = createMailbox(DROP_OLD);
+    for (int index = 0; index < 4; index++) {
+      deliver(mailbox, index, null);
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(mailbox.size())
+          .isEqualTo(2);
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(2));
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(3));
+    });
+  }
+
+  @Test
+  public void dropNewIgnoresWakeup () {
+    val mailbox = createMailbox(DROP_NEW, 1);
+    // the signal queues a wakeup, which doesn't occupy the only slot
+    signal(mailbox);
+    deliver(mailbox, 1, null);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(1));
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void dropOldSkipsWakeup () {
+    val mailbox = createMailbox(DROP_OLD, 1);
+    signal(mailbox);
+    deliver(mailbox, 1, null);
+    deliver(mailbox, 2, null);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(mailbox.receive().getBody())
+          .as("the oldest message is evicted, not the wakeup")
+          .isEqualTo(number(2));
+
+      softly.assertThat(mailbox.getLinks())
+          .as("the signal is handled")
+          .hasSize(1);
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void pause () {
+    val source = new CountingFlowControl();
+    val mailbox = createMailbox(PAUSE);
+    for (int index = 0; index < 4; index++) {
+      deliver(mailbox, index, source);
+    }
+
+    assertThat(mailbox.size()).isEqualTo(4);
+    assertThat(source.paused.get()).isEqualTo(1);
+
+    mailbox.receive();
+    mailbox.receive();
+    mailbox.receive();
+    assertThat(source.paused.get()).isEqualTo(1);
+
+    mailbox.receive();
+    assertThat(source.paused.get()).isEqualTo(0);
+  }
+
+  private Mailbox createMailbox (MailboxOverflowPolicy overflow) {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    return Mailbox.builder()
+        .node(mock(Node.class))
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .capacity(2)
+        .overflow(overflow)
+        .lowWaterMark(0)
+        .build();
+  }
+
+  private Mailbox createMailbox (MailboxOverflowPolicy overflow, int capacity) {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    return Mailbox.builder()
+        .node(mock(Node.class))
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .capacity(capacity)
+        .overflow(overflow)
+        .lowWaterMark(0)
+        .build();
+  }
+
+  private void signal (Mailbox mailbox) {
+    val other = ErlangPid.builder()
+        .node("test@localhost")
+        .id(2)
+        .build();
+
+    mailbox.deliver(Message.link(other, mailbox.getPid()));
+  }
+
+  private void deliver (Mailbox mailbox, int value, FlowControl source) {
+    mailbox.deliver(Message.send(mailbox.getPid(), number(value)), source);
+  }
+
+  private static class CountingFlowControl implements FlowControl {
+
+    AtomicInteger paused = new AtomicInteger();
+
+    @Override
+    public void pause () {
+      paused.incrementAndGet();
+    }
+
+    @Override
+    public void resume () {
+      paused.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxSelectiveReceiveTest {
+
+  Mailbox mailbox;
+
+  @Before
+  public void before () {
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(mock(Node.class))
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+  }
+
+  @Test
+  public void notMatchedMessagesKeepOrder () {
+    deliver(number(1));
+    deliver(atom("match"));
+    deliver(number(2));
+
+    val message = mailbox.receive(it -> it.getBody().isAtom(), 100, MILLISECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(message.getBody())
+          .isEqualTo(atom("match"));
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(2);
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(1));
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(number(2));
+    });
+  }
+
+  @Test
+  public void samePredicateDoesntRescan () {
+    val counter = new AtomicInteger();
+    Predicate<Message> predicate = it -> {
+      counter.incrementAndGet();
+      return it.getBody().isAtom();
+    };
+
+    deliver(number(1));
+    deliver(number(2));
+    assertThat(mailbox.receive(predicate, 10, MILLISECONDS)).isNull();
+    assertThat(counter.get()).isEqualTo(2);
+
+    deliver(number(3));
+    deliver(atom("match"));
+    val message = mailbox.receive(predicate, 100, MILLISECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(message.getBody())
+          .isEqualTo(atom("match"));
+
+      softly.assertThat(counter.get())
+          .isEqualTo(4);
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(3);
+    });
+  }
+
+  @Test
+  public void receiveByReference () {
+    val reference1 = ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 1, 0, 0 })
+        .build();
+
+    val reference2 = ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 2, 0, 0 })
+        .build();
+
+    deliver(tuple(reference1, number(1)));
+    deliver(tuple(reference2, number(2)));
+    deliver(atom("other"));
+
+    val reply2 = mailbox.receive(reference2, 100, MILLISECONDS);
+    val reply1 = mailbox.receive(reference1, 100, MILLISECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(reply2.getBody().getUnsafe(1))
+          .isEqualTo(number(2));
+
+      softly.assertThat(reply1.getBody().getUnsafe(1))
+          .isEqualTo(number(1));
+
+      softly.assertThat(mailbox.receive(reference1, 10, MILLISECONDS))
+          .isNull();
+
+      softly.assertThat(mailbox.receive().getBody())
+          .isEqualTo(atom("other"));
+    });
+  }
+
+  @Test
+  public void receiveManyBySameReference () {
+    val reference = ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 1, 0, 0 })
+        .build();
+
+    deliver(tuple(reference, number(1)));
+    deliver(tuple(reference, number(2)));
+    deliver(tuple(reference, number(3)));
+    deliver(atom("other"));
+
+    // all the replies are saved, the first one is taken by a predicate
+    val first = mailbox.receive(it -> it.getBody().isAtom(), 100, MILLISECONDS);
+    val second = mailbox.receive(it -> number(2).equals(it.getBody().getUnsafe(1)), 100, MILLISECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(first.getBody())
+          .isEqualTo(atom("other"));
+
+      softly.assertThat(second.getBody().getUnsafe(1))
+          .isEqualTo(number(2));
+
+      softly.assertThat(mailbox.receive(reference, 100, MILLISECONDS).getBody().getUnsafe(1))
+          .isEqualTo(number(1));
+
+      softly.assertThat(mailbox.receive(reference, 100, MILLISECONDS).getBody().getUnsafe(1))
+          .isEqualTo(number(3));
+
+      softly.assertThat(mailbox.receive(reference, 10, MILLISECONDS))
+          .isNull();
+    });
+  }
+
+  private void deliver (ErlangTerm body) {
+    mailbox.deliver(Message.send(mailbox.getPid(), body));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxSendAfterTest {
+
+  TimerWheel timer;
+
+  Mailbox mailbox;
+
+  @Before
+  public void before () {
+    timer = new TimerWheel();
+
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .timers(timer)
+        .build();
+
+    when(node.mailbox(pid)).thenReturn(mailbox);
+  }
+
+  @After
+  public void after () {
+    timer.close();
+  }
+
+  @Test
+  public void sendAfter () {
+    long start = System.nanoTime();
+    mailbox.sendAfter(mailbox.getPid(), atom("second"), 100, MILLISECONDS);
+    mailbox.sendAfter(mailbox.getPid(), atom("first"), 50, MILLISECONDS);
+
+    val first = mailbox.receive(1, SECONDS);
+    val second = mailbox.receive(1, SECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(first.getBody())
+          .isEqualTo(atom("first"));
+
+      softly.assertThat(second.getBody())
+          .isEqualTo(atom("second"));
+
+      softly.assertThat(System.nanoTime() - start)
+          .isGreaterThanOrEqualTo(MILLISECONDS.toNanos(100));
+    });
+  }
+
+  @Test
+  public void cancel () {
+    val ref = mailbox.sendAfter(mailbox.getPid(), atom("cancelled"), 50, MILLISECONDS);
+    assertThat(ref.cancel()).isTrue();
+
+    assertThat(mailbox.receive(200, MILLISECONDS)).isNull();
+    assertThat(ref.isExpired()).isFalse();
+  }
+
+  @Test
+  public void receiveTimeouts () {
+    for (int index = 0; index < 10; index++) {
+      assertThat(mailbox.receive(10, MILLISECONDS)).isNull();
+    }
+
+    mailbox.deliver(Message.send(mailbox.getPid(), number(42)));
+    val message = mailbox.receive(it -> it.getBody().isNumber(), 1, SECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(message.getBody())
+          .isEqualTo(number(42));
+
+      softly.assertThat(mailbox.size())
+          .isEqualTo(0);
+
+      softly.assertThat(timer.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void concurrentTimedReceives () throws Exception {
+    val first = CompletableFuture.supplyAsync(() -> mailbox.receive(50, MILLISECONDS));
+    val second = CompletableFuture.supplyAsync(() -> mailbox.receive(100, MILLISECONDS));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(first)
+          .succeedsWithin(1, SECONDS)
+          .isNull();
+
+      softly.assertThat(second)
+          .succeedsWithin(1, SECONDS)
+          .isNull();
+    });
+  }
+}
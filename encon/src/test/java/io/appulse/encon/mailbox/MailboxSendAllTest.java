@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.ControlMessage;
+import io.appulse.encon.connection.control.Send;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import io.netty.buffer.ByteBuf;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxSendAllTest {
+
+  Node node;
+
+  Connection connection;
+
+  List<ControlMessage> sentHeaders;
+
+  List<ErlangTerm> sentBodies;
+
+  @Before
+  public void before () {
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val descriptor = NodeDescriptor.from("remote@localhost");
+    val remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(descriptor);
+    when(node.lookup(descriptor)).thenReturn(remote);
+
+    sentHeaders = new ArrayList<>();
+    sentBodies = new ArrayList<>();
+    connection = mock(Connection.class);
+    doAnswer(invocation -> {
+      List<ControlMessage> headers = invocation.getArgument(0);
+      ByteBuf body = invocation.getArgument(1);
+      sentHeaders.addAll(headers);
+
+      val copy = body.duplicate();
+      assertThat(copy.readUnsignedByte()).isEqualTo((short) Message.VERSION_TAG);
+      sentBodies.add(ErlangTerm.newInstance(copy));
+      return null;
+    }).when(connection).send(any(List.class), any(ByteBuf.class));
+    when(node.connect(remote)).thenReturn(connection);
+  }
+
+  @Test
+  public void sendAll () {
+    val sender = createMailbox(1);
+    val local1 = createMailbox(2);
+    val local2 = createMailbox(3);
+    val remote1 = pid("remote@localhost", 1);
+    val remote2 = pid("remote@localhost", 2);
+
+    val body = tuple(atom("price"), atom("update"));
+    sender.sendAll(Arrays.asList(local1.getPid(), remote1, local2.getPid(), remote2), body);
+
+    verify(connection, times(1)).send(any(List.class), any(ByteBuf.class));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(local1.receive().getBody())
+          .isSameAs(body);
+
+      softly.assertThat(local2.receive().getBody())
+          .isSameAs(body);
+
+      softly.assertThat(sentHeaders)
+          .extracting(it -> ((Send) it).getTo())
+          .containsExactly(remote1, remote2);
+
+      softly.assertThat(sentBodies)
+          .containsExactly(body);
+    });
+  }
+
+  @Test
+  public void failedTargetDoesntStopOthers () {
+    val sender = createMailbox(1);
+    val local = createMailbox(2);
+
+    val body = atom("hello");
+    sender.sendAll(Arrays.asList(pid("test@localhost", 42), local.getPid()), body);
+
+    assertThat(local.receive().getBody())
+        .isEqualTo(body);
+  }
+
+  private Mailbox createMailbox (int id) {
+    val pid = pid("test@localhost", id);
+    val mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+
+    when(node.mailbox(pid)).thenReturn(mailbox);
+    return mailbox;
+  }
+
+  private ErlangPid pid (String nodeName, int id) {
+    return ErlangPid.builder()
+        .node(nodeName)
+        .id(id)
+        .build();
+  }
+}
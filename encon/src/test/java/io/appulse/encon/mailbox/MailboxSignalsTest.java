@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.control.Exit2;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.mailbox.exception.ReceivedExitException;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxSignalsTest {
+
+  Node node;
+
+  Mailbox mailbox;
+
+  ErlangPid other;
+
+  @Before
+  public void before () {
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    other = ErlangPid.builder()
+        .node("test@localhost")
+        .id(2)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+  }
+
+  @Test
+  public void exitOvertakesBacklog () {
+    for (int index = 0; index < 1000; index++) {
+      mailbox.deliver(Message.send(mailbox.getPid(), number(index)));
+    }
+    mailbox.deliver(Message.exit2(other, mailbox.getPid(), "shutdown"));
+
+    assertThatThrownBy(() -> mailbox.receive())
+        .isInstanceOf(ReceivedExitException.class);
+  }
+
+  @Test
+  public void cachedHeader () {
+    val header = new Exit2(other, mailbox.getPid(), atom("shutdown")).cached();
+    mailbox.deliver(new Message(header, null));
+
+    assertThatThrownBy(() -> mailbox.receive(100, MILLISECONDS))
+        .isInstanceOf(ReceivedExitException.class);
+  }
+
+  @Test
+  public void linkWakesUpBlockedReceiver () throws Exception {
+    val receiving = CompletableFuture.supplyAsync(() -> mailbox.receive());
+
+    mailbox.deliver(Message.link(other, mailbox.getPid()));
+    mailbox.deliver(Message.send(mailbox.getPid(), atom("data")));
+
+    val message = receiving.get(1, SECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(message.getBody())
+          .isEqualTo(atom("data"));
+
+      softly.assertThat(mailbox.getLinks())
+          .containsExactly(other);
+    });
+  }
+
+  @Test
+  public void exitDuringSelectiveReceive () {
+    mailbox.deliver(Message.send(mailbox.getPid(), number(1)));
+    mailbox.deliver(Message.send(mailbox.getPid(), number(2)));
+
+    Predicate<Message> predicate = message -> {
+      if (message.getBody().equals(number(1))) {
+        // the queue is not empty, so there is no wakeup for the signal
+        mailbox.deliver(Message.exit2(other, mailbox.getPid(), "shutdown"));
+      }
+      return message.getBody().isAtom();
+    };
+
+    assertThatThrownBy(() -> mailbox.receive(predicate, 5, SECONDS))
+        .isInstanceOf(ReceivedExitException.class);
+  }
+
+  @Test
+  public void killDropsBacklog () {
+    for (int index = 0; index < 1000; index++) {
+      mailbox.deliver(Message.send(mailbox.getPid(), number(index)));
+    }
+    mailbox.deliver(Message.exit2(other, mailbox.getPid(), "kill"));
+
+    assertThatThrownBy(() -> mailbox.receive(100, MILLISECONDS))
+        .isInstanceOf(ReceivedExitException.class);
+
+    assertThat(mailbox.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void killExitsAsynchronously () throws Exception {
+    val exiting = new CompletableFuture<Thread>();
+    doAnswer(invocation -> exiting.complete(Thread.currentThread()))
+        .when(node).remove(mailbox);
+
+    mailbox.deliver(Message.exit2(other, mailbox.getPid(), "kill"));
+
+    assertThat(exiting.get(1, SECONDS))
+        .as("the delivering thread could be a connection's event loop")
+        .isNotSameAs(Thread.currentThread());
+
+    assertThatThrownBy(() -> mailbox.receive(100, MILLISECONDS))
+        .isInstanceOf(ReceivedExitException.class);
+  }
+
+  @Test
+  public void killExitsOnNodeExecutor () throws Exception {
+    val executed = new CompletableFuture<Runnable>();
+    val killed = Mailbox.builder()
+        .node(node)
+        .pid(ErlangPid.builder()
+            .node("test@localhost")
+            .id(3)
+            .build())
+        .queue(new LinkedBlockingQueue<>())
+        .executor(executed::complete)
+        .build();
+
+    killed.deliver(Message.send(killed.getPid(), number(1)));
+    killed.deliver(Message.exit2(other, killed.getPid(), "kill"));
+
+    val exit = executed.get(1, SECONDS);
+    verify(node, never()).remove(killed);
+
+    exit.run();
+    verify(node).remove(killed);
+  }
+}
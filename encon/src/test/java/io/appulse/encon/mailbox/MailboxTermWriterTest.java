@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.Send;
+import io.appulse.encon.terms.stream.TermWriter;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class MailboxTermWriterTest {
+
+  Node node;
+
+  Mailbox mailbox;
+
+  @Before
+  public void before () {
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+
+    when(node.mailbox(pid)).thenReturn(mailbox);
+  }
+
+  @Test
+  public void localTargetGetsTerms () {
+    mailbox.send(mailbox.getPid(), writer -> writer
+        .startTuple(2)
+            .writeAtom("ok")
+            .writeLong(42)
+        .end());
+
+    assertThat(mailbox.receive().getBody())
+        .isEqualTo(tuple(atom("ok"), number(42)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void remoteTargetGetsCallback () {
+    val remotePid = ErlangPid.builder()
+        .node("remote@localhost")
+        .id(1)
+        .build();
+
+    val remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(NodeDescriptor.from("remote@localhost"));
+    when(node.lookup(remotePid)).thenReturn(remote);
+
+    val connection = mock(Connection.class);
+    when(node.connect(remote)).thenReturn(connection);
+
+    Consumer<TermWriter> body = writer -> writer.writeAtom("ok");
+    mailbox.send(remotePid, body);
+
+    val header = ArgumentCaptor.forClass(Send.class);
+    verify(connection).send(header.capture(), any(Consumer.class));
+    assertThat(header.getValue().getTo()).isEqualTo(remotePid);
+  }
+
+  @Test
+  public void incompleteBodyIsRejected () {
+    assertThatThrownBy(() -> mailbox.send(mailbox.getPid(), writer -> writer.startTuple(2)))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(mailbox.size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class NetKernelMailboxTest {
+
+  @Test
+  public void isAuthFromConnection () {
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val netKernel = new NetKernelMailbox(node, ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build());
+
+    val caller = Mailbox.builder()
+        .node(node)
+        .pid(ErlangPid.builder()
+            .node("test@localhost")
+            .id(2)
+            .build())
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+    when(node.mailbox(caller.getPid())).thenReturn(caller);
+
+    val reference = ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { 1, 0, 0 })
+        .build();
+
+    val request = tuple(
+        atom("$gen_call"),
+        tuple(caller.getPid(), reference),
+        tuple(atom("is_auth"), atom("test@localhost"))
+    );
+    netKernel.deliver(Message.send(netKernel.getPid(), request), mock(FlowControl.class));
+
+    assertThat(caller.receive(1, SECONDS).getBody())
+        .isEqualTo(tuple(reference, atom("yes")));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.connection.regular.Message.PASS_THROUGH_TAG;
+import static io.appulse.encon.connection.regular.Message.VERSION_TAG;
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.number;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.common.RemoteNode;
+import io.appulse.encon.connection.Connection;
+import io.appulse.encon.connection.control.CachedControlMessage;
+import io.appulse.encon.connection.control.ControlMessage;
+import io.appulse.encon.connection.control.SendToRegisteredProcess;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.stream.TermWriter;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class RemoteMailboxRefTest {
+
+  Node node;
+
+  RemoteNode remote;
+
+  Mailbox mailbox;
+
+  @Before
+  public void before () {
+    node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    remote = mock(RemoteNode.class);
+    when(remote.getDescriptor()).thenReturn(NodeDescriptor.from("remote@localhost"));
+    when(node.lookup(NodeDescriptor.from("remote@localhost"))).thenReturn(remote);
+
+    val pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    mailbox = Mailbox.builder()
+        .node(node)
+        .pid(pid)
+        .queue(new LinkedBlockingQueue<>())
+        .build();
+  }
+
+  @Test
+  public void sendsPreEncodedHeader () {
+    val connection = mock(Connection.class);
+    when(connection.isActive()).thenReturn(true);
+    when(node.connect(remote)).thenReturn(connection);
+
+    val reference = mailbox.remoteMailbox("remote@localhost", "my_process");
+    reference.send(number(1));
+    reference.send(number(2));
+
+    val header = ArgumentCaptor.forClass(ControlMessage.class);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Consumer<TermWriter>> body = ArgumentCaptor.forClass(Consumer.class);
+    verify(connection, times(2)).send(header.capture(), body.capture());
+    verify(node, times(1)).connect(remote);
+
+    val first = decode(header.getAllValues().get(0), body.getAllValues().get(0));
+    val message = decode(header.getValue(), body.getValue());
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(header.getValue())
+          .as("the header is encoded once")
+          .isInstanceOf(CachedControlMessage.class)
+          .isSameAs(header.getAllValues().get(0));
+
+      softly.assertThat(message.getHeader())
+          .isInstanceOf(SendToRegisteredProcess.class);
+
+      softly.assertThat(((SendToRegisteredProcess) message.getHeader()).getFrom())
+          .isEqualTo(mailbox.getPid());
+
+      softly.assertThat(((SendToRegisteredProcess) message.getHeader()).getTo())
+          .isEqualTo(atom("my_process"));
+
+      softly.assertThat(first.getBody())
+          .isEqualTo(number(1));
+
+      softly.assertThat(message.getBody())
+          .isEqualTo(number(2));
+    });
+  }
+
+  @Test
+  public void followsReconnects () {
+    val closed = mock(Connection.class);
+    when(closed.isActive()).thenReturn(false);
+    val fresh = mock(Connection.class);
+    when(fresh.isActive()).thenReturn(true);
+    when(node.connect(remote)).thenReturn(closed, fresh);
+
+    val reference = mailbox.remoteMailbox(remote, "my_process");
+    reference.send(number(1));
+    reference.send(number(2));
+    reference.send(number(3));
+
+    verify(closed, times(1)).send(any(ControlMessage.class), anyWriter());
+    verify(fresh, times(2)).send(any(ControlMessage.class), anyWriter());
+    verify(node, times(2)).connect(remote);
+  }
+
+  @Test
+  public void localNodeIsRejected () {
+    val local = mock(RemoteNode.class);
+    when(local.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    assertThatThrownBy(() -> mailbox.remoteMailbox(local, "my_process"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Consumer<TermWriter> anyWriter () {
+    return any(Consumer.class);
+  }
+
+  private static Message decode (ControlMessage header, Consumer<TermWriter> body) {
+    ByteBuf buffer = Unpooled.buffer();
+    buffer.writeByte(PASS_THROUGH_TAG);
+    buffer.writeByte(VERSION_TAG);
+    header.writeTo(buffer);
+    buffer.writeByte(VERSION_TAG);
+    TermWriter.writeTerm(buffer, body);
+    return Message.readFrom(buffer);
+  }
+}
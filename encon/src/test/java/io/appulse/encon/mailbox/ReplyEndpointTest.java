@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.atom;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.appulse.encon.Node;
+import io.appulse.encon.common.NodeDescriptor;
+import io.appulse.encon.terms.type.ErlangPid;
+import io.appulse.encon.terms.type.ErlangReference;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class ReplyEndpointTest {
+
+  ModuleMailbox module;
+
+  Mailbox server;
+
+  @Before
+  public void before () {
+    val node = mock(Node.class);
+    when(node.getDescriptor()).thenReturn(NodeDescriptor.from("test@localhost"));
+
+    val references = new AtomicInteger();
+    when(node.newReference()).then(invocation -> ErlangReference.builder()
+        .node("test@localhost")
+        .ids(new long[] { references.incrementAndGet(), 0, 0 })
+        .build());
+
+    val pids = new AtomicInteger();
+    module = new ModuleMailbox(node, () -> ErlangPid.builder()
+        .node("test@localhost")
+        .id(pids.incrementAndGet())
+        .build());
+
+    when(node.mailbox(any(ErlangPid.class))).then(invocation -> module.mailbox((ErlangPid) invocation.getArgument(0)));
+    when(node.replyEndpoint(any(ErlangPid.class))).then(invocation -> module.replyEndpoint((ErlangPid) invocation.getArgument(0)));
+
+    server = module.mailbox().build();
+  }
+
+  @After
+  public void after () {
+    module.close();
+  }
+
+  @Test
+  public void reply () {
+    try (val endpoint = module.replyEndpoint()) {
+      server.send(endpoint.getPid(), tuple(endpoint.getReference(), atom("pong")));
+
+      val reply = endpoint.receive(100, MILLISECONDS);
+      assertThat(reply.getBody())
+          .isEqualTo(tuple(endpoint.getReference(), atom("pong")));
+    }
+  }
+
+  @Test
+  public void recycledPidDropsLateReply () {
+    val first = module.replyEndpoint();
+    val pid = first.getPid();
+    val oldReference = first.getReference();
+    first.close();
+
+    try (val second = module.replyEndpoint()) {
+      server.send(pid, tuple(oldReference, atom("late")));
+
+      SoftAssertions.assertSoftly(softly -> {
+        softly.assertThat(second.getPid())
+            .isEqualTo(pid);
+
+        softly.assertThat(second.receive(50, MILLISECONDS))
+            .isNull();
+      });
+
+      server.send(pid, atom("plain"));
+      assertThat(second.receive(100, MILLISECONDS).getBody())
+          .isEqualTo(atom("plain"));
+    }
+  }
+
+  @Test
+  public void closedEndpointIsNotRouted () {
+    val endpoint = module.replyEndpoint();
+    endpoint.close();
+
+    assertThat(module.replyEndpoint(endpoint.getPid()))
+        .isNull();
+  }
+}
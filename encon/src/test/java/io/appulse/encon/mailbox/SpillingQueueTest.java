@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static io.appulse.encon.terms.Erlang.bstring;
+import static io.appulse.encon.terms.Erlang.number;
+import static io.appulse.encon.terms.Erlang.tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import io.appulse.encon.connection.control.Send;
+import io.appulse.encon.connection.regular.Message;
+import io.appulse.encon.terms.Erlang;
+import io.appulse.encon.terms.ErlangTerm;
+import io.appulse.encon.terms.type.ErlangPid;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class SpillingQueueTest {
+
+  ErlangPid pid;
+
+  Path directory;
+
+  SpillingQueue queue;
+
+  @Before
+  public void before () throws Exception {
+    pid = ErlangPid.builder()
+        .node("test@localhost")
+        .id(1)
+        .build();
+
+    directory = Files.createTempDirectory("spilling-queue");
+    queue = new SpillingQueue(directory, 4, 256);
+  }
+
+  @After
+  public void after () throws Exception {
+    queue.close();
+    // fails if the closed queue left any segment file
+    Files.delete(directory);
+  }
+
+  @Test
+  public void spilledMessagesKeepOrder () throws Exception {
+    for (int index = 0; index < 100; index++) {
+      queue.put(Message.send(pid, tuple(number(index), bstring("payload"))));
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(queue.size())
+          .isEqualTo(100);
+
+      softly.assertThat(queue.spilled())
+          .isEqualTo(96);
+
+      softly.assertThat(queue.segments())
+          .isGreaterThan(1);
+    });
+
+    for (int index = 0; index < 100; index++) {
+      val message = queue.poll(10, MILLISECONDS);
+      assertThat(((Send) message.getHeader()).getTo())
+          .isEqualTo(pid);
+      assertThat(message.getBody().getUnsafe(0))
+          .isEqualTo(number(index));
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(queue.poll())
+          .isNull();
+
+      softly.assertThat(queue.spilled())
+          .isEqualTo(0);
+
+      softly.assertThat(queue.segments())
+          .as("consumed segments are recycled")
+          .isLessThanOrEqualTo(2);
+    });
+  }
+
+  @Test
+  public void segmentsAreReused () throws Exception {
+    for (int round = 0; round < 10; round++) {
+      for (int index = 0; index < 40; index++) {
+        queue.put(Message.send("my_process", number(index)));
+      }
+      for (int index = 0; index < 40; index++) {
+        assertThat(queue.take().getBody())
+            .isEqualTo(number(index));
+      }
+    }
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(queue.isEmpty())
+          .isTrue();
+
+      softly.assertThat(queue.segments())
+          .isLessThanOrEqualTo(2);
+    });
+  }
+
+  @Test
+  public void bigMessageGetsItsOwnSegment () {
+    val big = bstring(new String(new char[1000]).replace('\0', 'a'));
+    queue.addAll(Arrays.asList(
+        Message.send(pid, number(1)),
+        Message.send(pid, number(2)),
+        Message.send(pid, number(3)),
+        Message.send(pid, number(4)),
+        Message.send(pid, big),
+        Message.send(pid, number(5))
+    ));
+
+    assertThat(queue)
+        .extracting(Message::getBody)
+        .containsExactly(number(1), number(2), number(3), number(4), big, number(5));
+
+    queue.clear();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(queue.size())
+          .isEqualTo(0);
+
+      softly.assertThat(queue.segments())
+          .as("the oversized segment is not kept for reuse")
+          .isEqualTo(1);
+    });
+  }
+
+  @Test
+  public void markersAreNotSpilled () {
+    for (int index = 0; index < 10; index++) {
+      queue.put(Message.send(pid, number(index)));
+    }
+    val marker = Mailbox.WAKEUP;
+    queue.put(marker);
+    queue.put(Message.send(pid, number(10)));
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(queue.spilled())
+          .isEqualTo(7);
+
+      softly.assertThat(queue)
+          .as("the marker keeps its identity")
+          .containsOnlyOnce(marker);
+
+      softly.assertThat(queue)
+          .filteredOn(message -> message != marker)
+          .extracting(Message::getBody)
+          .as("the messages keep their order")
+          .containsExactly(IntStream.rangeClosed(0, 10)
+              .mapToObj(Erlang::number)
+              .toArray(ErlangTerm[]::new));
+    });
+  }
+}
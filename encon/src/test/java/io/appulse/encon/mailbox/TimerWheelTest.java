@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appulse.encon.mailbox;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import lombok.val;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Artem Labazin
+ * @since 1.6.11
+ */
+public class TimerWheelTest {
+
+  TimerWheel timer;
+
+  @Before
+  public void before () {
+    timer = new TimerWheel();
+  }
+
+  @After
+  public void after () {
+    timer.close();
+  }
+
+  @Test
+  public void expiresInDeadlinesOrder () throws Exception {
+    val order = new ConcurrentLinkedQueue<Integer>();
+    val latch = new CountDownLatch(3);
+    for (int delay : new int[] { 300, 100, 200 }) {
+      timer.schedule(() -> {
+        order.add(delay);
+        latch.countDown();
+      }, delay, MILLISECONDS);
+    }
+
+    assertThat(latch.await(5, SECONDS)).isTrue();
+    assertThat(order).containsExactly(100, 200, 300);
+    assertThat(timer.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void cancel () throws Exception {
+    val latch = new CountDownLatch(1);
+    val cancelled = timer.schedule(latch::countDown, 50, MILLISECONDS);
+    val expired = timer.schedule(() -> { }, 10, MILLISECONDS);
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(cancelled.cancel())
+          .isTrue();
+
+      softly.assertThat(cancelled.cancel())
+          .isFalse();
+
+      softly.assertThat(cancelled.isCancelled())
+          .isTrue();
+    });
+
+    assertThat(latch.await(200, MILLISECONDS)).isFalse();
+
+    SoftAssertions.assertSoftly(softly -> {
+      softly.assertThat(expired.isExpired())
+          .isTrue();
+
+      softly.assertThat(expired.cancel())
+          .isFalse();
+
+      softly.assertThat(cancelled.isExpired())
+          .isFalse();
+
+      softly.assertThat(timer.size())
+          .isEqualTo(0);
+    });
+  }
+
+  @Test
+  public void manyTimers () throws Exception {
+    int count = 1_000_000;
+    val latch = new CountDownLatch(count / 2);
+    List<TimerRef> refs = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      refs.add(timer.schedule(latch::countDown, 2_000 + index % 1_000, MILLISECONDS));
+    }
+    assertThat(timer.size()).isEqualTo(count);
+
+    for (int index = 0; index < count; index += 2) {
+      refs.get(index).cancel();
+    }
+
+    assertThat(latch.await(10, SECONDS)).isTrue();
+    assertThat(timer.size()).isEqualTo(0);
+    assertThat(refs.get(0).isCancelled()).isTrue();
+    assertThat(refs.get(1).isExpired()).isTrue();
+  }
+
+  @Test
+  public void cascadesLongDelays () throws Exception {
+    try (val wheel = new TimerWheel("test-timer", 10, MICROSECONDS)) {
+      val latch = new CountDownLatch(3);
+      // the level 0, 1 and 2 timers
+      long start = System.nanoTime();
+      for (long ticks : new long[] { 100, 1_000, 70_000 }) {
+        wheel.schedule(latch::countDown, ticks * 10, MICROSECONDS);
+      }
+
+      assertThat(latch.await(10, SECONDS)).isTrue();
+      assertThat(System.nanoTime() - start)
+          .isGreaterThanOrEqualTo(TimeUnit.MICROSECONDS.toNanos(700_000));
+    }
+  }
+}